@@ -1,6 +1,7 @@
 plugins {
     id("java")
     id("java-library")
+    id("me.champeau.jmh") version "0.7.2"
 }
 
 group = "oop.project.cli"
@@ -12,10 +13,29 @@ repositories {
 
 dependencies {
     api("com.google.guava:guava:33.1.0-jre")
+    // Writes the hidden classes of ArgumentParser.setSpecializedValidation
+    implementation("org.ow2.asm:asm:9.10.1")
     testImplementation(platform("org.junit:junit-bom:5.9.1"))
     testImplementation("org.junit.jupiter:junit-jupiter")
+    // Generates parsers for the @Command types of tests and benchmarks
+    testAnnotationProcessor(project(":processor"))
+    "jmhAnnotationProcessor"(project(":processor"))
 }
 
 tasks.test {
     useJUnitPlatform()
 }
+
+// Benchmarks live in src/jmh/java. Run with `./gradlew jmh`; results are written to build/results/jmh so runs from
+// different commits can be compared.
+jmh {
+    jmhVersion.set("1.37")
+    benchmarkMode.set(listOf("thrpt", "avgt"))
+    timeUnit.set("us")
+    profilers.set(listOf("gc"))
+    resultFormat.set("JSON")
+    warmupIterations.set(3)
+    iterations.set(5)
+    fork.set(1)
+    includeTests.set(false)
+}
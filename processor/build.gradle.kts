@@ -0,0 +1,15 @@
+plugins {
+    id("java")
+}
+
+group = "oop.project.cli"
+version = "1.0-SNAPSHOT"
+
+repositories {
+    mavenCentral()
+}
+
+// Generates parsers for @Command types at compile time. Add it with annotationProcessor(project(":processor")).
+dependencies {
+    implementation(project(":"))
+}
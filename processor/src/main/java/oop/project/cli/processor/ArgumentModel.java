@@ -0,0 +1,52 @@
+package oop.project.cli.processor;
+
+import javax.lang.model.element.VariableElement;
+import java.util.List;
+
+/**
+ * One argument of a {@link CommandModel}, read from an annotated field and already checked the way
+ * {@link oop.project.cli.argparser.ArgumentBuilder} would check it.
+ *
+ * @param type Source of the field's type.
+ * @param values The values of a discrete range, or null.
+ * @param lower The lower bound of a continuous range, or null; set together with <code>upper</code>.
+ */
+record ArgumentModel(
+        VariableElement field,
+        String ref,
+        boolean positional,
+        List<String> names,
+        ValueKind kind,
+        Shape shape,
+        String type,
+        String nArgs,
+        int min,
+        int max,
+        boolean required,
+        String help,
+        String helpName,
+        List<Comparable<?>> values,
+        Comparable<?> lower,
+        Comparable<?> upper
+) {
+    /** How the values of an argument are held in its field. */
+    enum Shape {
+        /** A boolean, true if the flag was given. */
+        FLAG,
+        /** At most one value, as a primitive or an object. */
+        SINGLE,
+        /** A primitive array. */
+        ARRAY,
+        /** A List. */
+        LIST
+    }
+
+    boolean hasRange() {
+        return values != null || lower != null;
+    }
+
+    /** @return What the range's toString() is at runtime, as quoted by out-of-range errors. */
+    String rangeString() {
+        return values != null ? "Discrete Value Range: " + values : "Continuous Range: [" + lower + "," + upper + "]";
+    }
+}
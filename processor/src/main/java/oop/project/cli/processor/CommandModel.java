@@ -0,0 +1,230 @@
+package oop.project.cli.processor;
+
+import oop.project.cli.annotations.Command;
+import oop.project.cli.annotations.Option;
+import oop.project.cli.annotations.Positional;
+
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.NestingKind;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+
+/**
+ * The schema of a {@link Command} type, read from its annotations. Everything an
+ * {@link oop.project.cli.argparser.ArgumentBuilder} or {@link oop.project.cli.argparser.ArgumentParser} would reject
+ * at runtime is reported here as a {@link SchemaException} instead, so a generated parser never sees an invalid schema.
+ *
+ * @param typeName Canonical name of the annotated type.
+ * @param record Whether the type is a record, built by its canonical constructor rather than by assigning fields.
+ */
+record CommandModel(
+        TypeElement element,
+        String packageName,
+        String typeName,
+        String parserName,
+        boolean record,
+        String programName,
+        String description,
+        List<ArgumentModel> arguments
+) {
+    /** An annotation that describes an invalid schema, reported as a compile error on its element. */
+    static final class SchemaException extends Exception {
+        final Element element;
+
+        SchemaException(Element element, String message) {
+            super(message);
+            this.element = element;
+        }
+    }
+
+    /** Names the help flag of every ArgumentParser takes, so no argument may use them. */
+    static final List<String> HELP_NAMES = List.of("-h", "--help");
+
+    static CommandModel read(TypeElement type) throws SchemaException {
+        if (type.getKind() != ElementKind.CLASS && type.getKind() != ElementKind.RECORD)
+            { throw new SchemaException(type, "@Command can only be put on a record or a class."); }
+        if (type.getModifiers().contains(Modifier.PRIVATE) || type.getModifiers().contains(Modifier.ABSTRACT)
+                || (type.getNestingKind() == NestingKind.MEMBER && !type.getModifiers().contains(Modifier.STATIC) && type.getKind() != ElementKind.RECORD)
+                || type.getNestingKind() == NestingKind.LOCAL || type.getNestingKind() == NestingKind.ANONYMOUS)
+            { throw new SchemaException(type, "A @Command type must be a top level or static nested type that is neither private nor abstract."); }
+        boolean record = type.getKind() == ElementKind.RECORD;
+        if (!record && ElementFilter.constructorsIn(type.getEnclosedElements()).stream().noneMatch(CommandModel::usableConstructor))
+            { throw new SchemaException(type, "A @Command class needs a constructor without parameters that is not private."); }
+
+        var arguments = new ArrayList<ArgumentModel>();
+        var names = new HashSet<>(HELP_NAMES);
+        for (var field : ElementFilter.fieldsIn(type.getEnclosedElements())) {
+            if (field.getModifiers().contains(Modifier.STATIC)) {
+                if (field.getAnnotation(Option.class) != null || field.getAnnotation(Positional.class) != null)
+                    { throw new SchemaException(field, "A static field cannot be an argument."); }
+                continue;
+            }
+            var argument = readArgument(field, record);
+            if (argument == null) { continue; }
+            for (var name : argument.names()) {
+                if (!names.add(name)) { throw new SchemaException(field, "The name " + name + " is already taken."); }
+            }
+            arguments.add(argument);
+        }
+
+        // Positional tokens are assigned in order without looking ahead, which finds the same assignment as a
+        // CompiledParser only when no optional positional comes before a required one
+        boolean optional = false;
+        for (var argument : arguments) {
+            if (!argument.positional()) { continue; }
+            if (argument.required() && optional)
+                { throw new SchemaException(argument.field(), "Required positional arguments must come before optional ones."); }
+            optional |= !argument.required();
+        }
+
+        var command = type.getAnnotation(Command.class);
+        var packageName = packageOf(type).getQualifiedName().toString();
+        return new CommandModel(type, packageName, type.getQualifiedName().toString(), parserName(type), record,
+                command.name(), command.description(), arguments);
+    }
+
+    private static boolean usableConstructor(ExecutableElement constructor) {
+        return constructor.getParameters().isEmpty() && !constructor.getModifiers().contains(Modifier.PRIVATE);
+    }
+
+    private static PackageElement packageOf(Element element) {
+        while (!(element instanceof PackageElement)) { element = element.getEnclosingElement(); }
+        return (PackageElement) element;
+    }
+
+    /** @return The simple name of the type with a Parser suffix, prefixed by those of the types it is nested in. */
+    private static String parserName(TypeElement type) {
+        var name = new StringBuilder(type.getSimpleName()).append("Parser");
+        for (var outer = type.getEnclosingElement(); outer instanceof TypeElement t; outer = t.getEnclosingElement()) {
+            name.insert(0, t.getSimpleName() + "_");
+        }
+        return name.toString();
+    }
+
+    /** @return The argument a field is annotated as, or null if it is not annotated. */
+    private static ArgumentModel readArgument(VariableElement field, boolean record) throws SchemaException {
+        var option = field.getAnnotation(Option.class);
+        var positional = field.getAnnotation(Positional.class);
+        if (option == null && positional == null) {
+            if (record) { throw new SchemaException(field, "Every component of a @Command record must be an @Option or @Positional."); }
+            return null;
+        }
+        if (option != null && positional != null) { throw new SchemaException(field, "An argument cannot be both an @Option and @Positional."); }
+        if (!record && (field.getModifiers().contains(Modifier.PRIVATE) || field.getModifiers().contains(Modifier.FINAL)))
+            { throw new SchemaException(field, "The generated parser assigns this field, so it cannot be private or final."); }
+
+        var ref = field.getSimpleName().toString();
+        if (!isIdentifier(ref) || ref.equals("help"))
+            { throw new SchemaException(field, "The ref " + ref + " does not conform to identifier regex [a-zA-Z_-][a-zA-Z0-9_-]*, or is taken by the help flag."); }
+        List<String> names = option == null ? List.of() : List.of(option.names());
+        if (option != null && names.isEmpty()) { throw new SchemaException(field, "An @Option needs at least one name."); }
+        for (var name : names) {
+            if (!isIdentifier(name)) { throw new SchemaException(field, "The name " + name + " does not conform to identifier regex [a-zA-Z_-][a-zA-Z0-9_-]*."); }
+        }
+
+        String nArgs = option != null ? option.nArgs() : positional.nArgs();
+        boolean required = option != null ? option.required() : positional.required();
+        String help = option != null ? option.help() : positional.help();
+        String helpName = option != null ? option.helpName() : positional.helpName();
+        String[] values = option != null ? option.values() : positional.values();
+        String min = option != null ? option.min() : positional.min();
+        String max = option != null ? option.max() : positional.max();
+
+        // The shape and kind of values follow from the field's type
+        var type = field.asType();
+        ArgumentModel.Shape shape;
+        ValueKind kind;
+        if (type.getKind() == TypeKind.BOOLEAN) {
+            if (positional != null) { throw new SchemaException(field, "A flag cannot be positional."); }
+            if (required) { throw new SchemaException(field, "A flag takes no values, so it cannot be required."); }
+            if (values.length > 0 || !min.isEmpty() || !max.isEmpty()) { throw new SchemaException(field, "A flag takes no values, so it cannot have a range."); }
+            shape = ArgumentModel.Shape.FLAG;
+            kind = ValueKind.STRING;  // flags are String arguments without values, like the help flag
+        } else if (type instanceof ArrayType array && array.getComponentType().getKind().isPrimitive()
+                && (kind = ValueKind.of(array.getComponentType().toString())) != null) {
+            shape = ArgumentModel.Shape.ARRAY;
+        } else if ((kind = listElementKind(type)) != null) {
+            shape = ArgumentModel.Shape.LIST;
+        } else if ((kind = ValueKind.of(type.toString())) != null) {
+            shape = ArgumentModel.Shape.SINGLE;
+        } else {
+            throw new SchemaException(field, "Unsupported argument type " + type + ". See @Option for the types that are.");
+        }
+
+        // Check nArgs as ArgumentBuilder.setNArgs does, and work out its arity as Arity.of does
+        if (nArgs.isEmpty()) { nArgs = switch (shape) { case FLAG -> "0"; case SINGLE -> "1"; case ARRAY, LIST -> "*"; }; }
+        int minCount, maxCount;
+        switch (nArgs) {
+            case "?" -> { minCount = 0; maxCount = 1; }
+            case "*" -> { minCount = 0; maxCount = Integer.MAX_VALUE; }
+            case "+" -> { minCount = 1; maxCount = Integer.MAX_VALUE; }
+            default -> {
+                try {
+                    minCount = maxCount = Integer.parseInt(nArgs.trim());
+                } catch (NumberFormatException e) {
+                    throw new SchemaException(field, "Invalid nArgs " + nArgs + ". (Must be ?,*,+ or integer)");
+                }
+            }
+        }
+        if (shape == ArgumentModel.Shape.FLAG && maxCount != 0) { throw new SchemaException(field, "A flag takes no values, so its nArgs must be 0."); }
+        if (shape == ArgumentModel.Shape.SINGLE && (minCount > 1 || maxCount != 1))
+            { throw new SchemaException(field, "A field of a single value takes nArgs 1 or ?. Use an array or a List for more."); }
+
+        // The range, with its values parsed the way the arguments' values will be
+        List<Comparable<?>> discrete = null;
+        Comparable<?> lower = null, upper = null;
+        try {
+            if (values.length > 0) {
+                if (!min.isEmpty() || !max.isEmpty()) { throw new SchemaException(field, "An argument takes either values or min and max, not both."); }
+                discrete = new ArrayList<>();
+                for (var value : values) { discrete.add(kind.parse(value)); }
+            } else if (!min.isEmpty() || !max.isEmpty()) {
+                if (min.isEmpty() || max.isEmpty()) { throw new SchemaException(field, "min and max must be set together."); }
+                lower = kind.parse(min);
+                upper = kind.parse(max);
+                if (compare(lower, upper) > 0) { throw new SchemaException(field, "min is greater than max."); }
+            }
+        } catch (NumberFormatException e) {
+            throw new SchemaException(field, "Not a literal of type " + kind.boxed + ": " + e.getMessage());
+        }
+
+        return new ArgumentModel(field, ref, positional != null, names, kind, shape, type.toString(), nArgs, minCount,
+                maxCount, required, help.isEmpty() ? null : help, helpName.isEmpty() ? null : helpName, discrete, lower, upper);
+    }
+
+    /** @return The kind of the elements of a List type, or null if the type is not a List of a supported kind. */
+    private static ValueKind listElementKind(TypeMirror type) {
+        if (!(type instanceof DeclaredType declared) || declared.getTypeArguments().size() != 1) { return null; }
+        var element = (TypeElement) declared.asElement();
+        if (!element.getQualifiedName().contentEquals("java.util.List")) { return null; }
+        return ValueKind.of(declared.getTypeArguments().getFirst().toString());
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static int compare(Comparable<?> a, Comparable<?> b) {
+        return ((Comparable) a).compareTo(b);
+    }
+
+    /** Same check as ArgumentBuilder's for refs and names. */
+    private static boolean isIdentifier(String s) {
+        if (s.isEmpty()) { return false; }
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            boolean valid = (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || c == '_' || c == '-' || (i > 0 && c >= '0' && c <= '9');
+            if (!valid) { return false; }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,43 @@
+package oop.project.cli.processor;
+
+import oop.project.cli.annotations.Command;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.TypeElement;
+import javax.tools.Diagnostic;
+import java.io.IOException;
+import java.util.Set;
+
+/**
+ * Generates a parser for every type annotated with {@link Command}; see there for what is generated. Schemas that
+ * {@link oop.project.cli.argparser.ArgumentBuilder} would reject are compile errors on the offending field.
+ */
+@SupportedAnnotationTypes("oop.project.cli.annotations.Command")
+public final class CommandProcessor extends AbstractProcessor {
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment round) {
+        for (var element : round.getElementsAnnotatedWith(Command.class)) {
+            try {
+                var command = CommandModel.read((TypeElement) element);
+                var name = command.packageName().isEmpty() ? command.parserName() : command.packageName() + "." + command.parserName();
+                try (var writer = processingEnv.getFiler().createSourceFile(name, element).openWriter()) {
+                    writer.write(ParserWriter.write(command));
+                }
+            } catch (CommandModel.SchemaException e) {
+                processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, e.getMessage(), e.element);
+            } catch (IOException e) {
+                processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "Could not write the parser: " + e.getMessage(), element);
+            }
+        }
+        return true;
+    }
+}
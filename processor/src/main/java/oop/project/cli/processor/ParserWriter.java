@@ -0,0 +1,326 @@
+package oop.project.cli.processor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Writes the source of the parser for a {@link CommandModel}. The parser matches tokens with a switch on the names the
+ * schema declares, and holds each argument's value in a local of the field's type; the checks of one argument are
+ * written out for it alone, so nothing is looked up or looped over by schema at runtime. Errors are made by
+ * <code>GeneratedParsers</code> so they match those of a {@link oop.project.cli.argparser.Validator} exactly.
+ */
+final class ParserWriter {
+    private final CommandModel command;
+    private final List<ArgumentModel> positionals = new ArrayList<>();
+    private final StringBuilder out = new StringBuilder();
+
+    private ParserWriter(CommandModel command) {
+        this.command = command;
+        for (var argument : command.arguments()) {
+            if (argument.positional()) { positionals.add(argument); }
+        }
+    }
+
+    /** @return The source of the parser for a command. */
+    static String write(CommandModel command) {
+        var writer = new ParserWriter(command);
+        writer.writeClass();
+        return writer.out.toString();
+    }
+
+    private void writeClass() {
+        if (!command.packageName().isEmpty()) { line(0, "package " + command.packageName() + ";"); line(0, ""); }
+        line(0, "import oop.project.cli.argparser.ArgParseException;");
+        line(0, "import oop.project.cli.argparser.ArgToken;");
+        line(0, "import oop.project.cli.argparser.ArgumentBuilder;");
+        line(0, "import oop.project.cli.argparser.ArgumentParser;");
+        line(0, "import oop.project.cli.argparser.ContinuousRange;");
+        line(0, "import oop.project.cli.argparser.DiscreteValues;");
+        line(0, "import oop.project.cli.argparser.GeneratedParsers;");
+        line(0, "import oop.project.cli.argparser.Lexer;");
+        line(0, "import oop.project.cli.argparser.TokenList;");
+        line(0, "");
+        line(0, "/** Parser for {@link " + command.typeName() + "}, generated from its annotations. Do not edit. */");
+        line(0, "@javax.annotation.processing.Generated(\"" + CommandProcessor.class.getName() + "\")");
+        line(0, "public final class " + command.parserName() + " {");
+        line(1, "private static final String[] POSITIONAL_REFS = {" + join(positionals, a -> quote(a.ref())) + "};");
+        line(1, "private static final Class<?>[] POSITIONAL_TYPES = {" + join(positionals, a -> a.kind().boxed + ".class") + "};");
+        for (var argument : command.arguments()) { writeConstants(argument); }
+        line(0, "");
+        line(1, "private " + command.parserName() + "() {}");
+        line(0, "");
+        writeParse();
+        line(0, "");
+        writeSchema();
+        line(0, "}");
+    }
+
+    /** Big number bounds and values are created once, rather than on every check. */
+    private void writeConstants(ArgumentModel argument) {
+        if (argument.kind() != ValueKind.BIG_INTEGER && argument.kind() != ValueKind.BIG_DECIMAL) { return; }
+        var values = rangeValues(argument);
+        for (int i = 0; i < values.size(); i++) {
+            line(1, "private static final " + argument.kind().boxed + " " + argument.ref() + "$" + i + " = " + argument.kind().source(values.get(i)) + ";");
+        }
+    }
+
+    private void writeParse() {
+        line(1, "/**");
+        line(1, " * Parses an input against the schema of {@link " + command.typeName() + "}, with the same results and errors as a");
+        line(1, " * parser compiled from {@link #schema()}.");
+        line(1, " *");
+        line(1, " * @throws ArgParseException if the input does not lex, or does not match the schema.");
+        line(1, " */");
+        line(1, "public static " + command.typeName() + " parse(CharSequence input) throws ArgParseException {");
+        line(2, "TokenList tokens = new Lexer(input).lex();");
+        line(0, "");
+
+        // Positional tokens are assigned before any token is checked, as by the validator, so misfits are reported first
+        line(2, "// Assign the positional tokens to positionals, in order");
+        line(2, "int[] slots = new int[tokens.size()];");
+        line(2, "int positional = 0;");
+        line(2, "for (int i = 0; i < tokens.size(); i++) {");
+        line(3, "if (tokens.get(i).type() != ArgToken.Type.POSITIONAL_ARG) { continue; }");
+        line(3, "java.util.List<Object> values = tokens.get(i).value();");
+        var chain = new ArrayList<String>();
+        int lastRequired = -1;
+        for (int p = 0; p < positionals.size(); p++) {
+            // Optional positionals may be skipped, but required ones only when nothing fits otherwise
+            int lowest = lastRequired + 1;
+            chain.add((lowest == p ? "positional == " + p : "positional >= " + lowest + " && positional <= " + p) + " && " + fits(positionals.get(p)) + ") { slots[i] = " + p + "; }");
+            if (positionals.get(p).required()) { lastRequired = p; }
+        }
+        lastRequired = -1;
+        for (int p = 0; p < positionals.size(); p++) {
+            if (lastRequired + 1 > 0) { chain.add("positional <= " + p + " && " + fits(positionals.get(p)) + ") { slots[i] = " + p + "; }"); }
+            if (positionals.get(p).required()) { lastRequired = p; }
+        }
+        var misfit = "throw GeneratedParsers.misfit(values, tokens.position(i), POSITIONAL_REFS, POSITIONAL_TYPES, positional);";
+        if (chain.isEmpty()) { line(3, misfit); }
+        else {
+            for (int c = 0; c < chain.size(); c++) { line(3, (c == 0 ? "if (" : "else if (") + chain.get(c)); }
+            line(3, "else { " + misfit + " }");
+            line(3, "positional = slots[i] + 1;");
+        }
+        line(2, "}");
+        line(0, "");
+
+        line(2, "boolean help$given = false;");
+        for (var argument : command.arguments()) { writeLocals(argument); }
+        line(2, "for (int i = 0; i < tokens.size(); i++) {");
+        line(3, "ArgToken token = tokens.get(i);");
+        line(3, "java.util.List<Object> values = token.value();");
+        line(3, "int position = tokens.position(i);");
+        line(3, "if (token.type() == ArgToken.Type.POSITIONAL_ARG) {");
+        if (!positionals.isEmpty()) {
+            line(4, "switch (slots[i]) {");
+            for (int p = 0; p < positionals.size(); p++) {
+                line(5, "case " + p + " -> {");
+                writeValues(positionals.get(p), 6);
+                line(6, positionals.get(p).ref() + "$given = true;");
+                line(5, "}");
+            }
+            line(4, "}");
+        }
+        line(4, "continue;");
+        line(3, "}");
+        line(3, "String name = token.name().toString();");
+        line(3, "switch (name) {");
+        line(4, "case \"-h\", \"--help\" -> {");
+        line(5, "if (help$given) { throw GeneratedParsers.duplicate(position, \"help\", name); }");
+        line(5, "GeneratedParsers.check(values, String.class, 0, 0, \"0\", position, \"help\");");
+        line(5, "help$given = true;");
+        line(4, "}");
+        for (var argument : command.arguments()) {
+            if (argument.positional()) { continue; }
+            var ref = argument.ref();
+            line(4, "case " + join(argument.names(), ParserWriter::quote) + " -> {");
+            line(5, "if (" + ref + "$given) { throw GeneratedParsers.duplicate(position, " + quote(ref) + ", name); }");
+            line(5, "GeneratedParsers.check(values, " + argument.kind().boxed + ".class, " + argument.min() + ", " + bound(argument.max())
+                    + ", " + quote(argument.nArgs()) + ", position, " + quote(ref) + ");");
+            writeValues(argument, 5);
+            line(5, ref + "$given = true;");
+            line(4, "}");
+        }
+        line(4, "default -> throw GeneratedParsers.unknown(position, name);");
+        line(3, "}");
+        line(2, "}");
+        line(0, "");
+
+        for (var argument : command.arguments()) {
+            if (argument.required()) { line(2, "if (!" + argument.ref() + "$valued) { throw GeneratedParsers.missing(" + quote(argument.ref()) + "); }"); }
+        }
+        if (command.record()) {
+            line(2, "return new " + command.typeName() + "(" + join(command.arguments(), ParserWriter::result) + ");");
+        } else {
+            line(2, command.typeName() + " result = new " + command.typeName() + "();");
+            // Fields of arguments that were not given keep their initializers, or else an empty array or list
+            for (var argument : command.arguments()) {
+                var ref = argument.ref();
+                var assign = "if (" + ref + "$given) { result." + ref + " = " + ref + "$; }";
+                var empty = switch (argument.shape()) {
+                    case ARRAY -> "new " + argument.kind().primitive + "[0]";
+                    case LIST -> "java.util.List.of()";
+                    default -> null;
+                };
+                line(2, empty == null ? assign : assign + " else if (result." + ref + " == null) { result." + ref + " = " + empty + "; }");
+            }
+            line(2, "return result;");
+        }
+        line(1, "}");
+    }
+
+    private void writeLocals(ArgumentModel argument) {
+        var ref = argument.ref();
+        var initial = switch (argument.shape()) {
+            case FLAG -> "false";
+            case SINGLE -> argument.type().equals("int") ? "0" : argument.type().equals("long") ? "0L" : argument.type().equals("double") ? "0.0" : "null";
+            case ARRAY -> "null";
+            case LIST -> "java.util.List.of()";
+        };
+        line(2, argument.type() + " " + ref + "$ = " + initial + ";");
+        line(2, "boolean " + ref + "$given = false;");
+        if (argument.required()) { line(2, "boolean " + ref + "$valued = false;"); }
+    }
+
+    /** Converts the values of a token, whose type and number have been checked, checks their range and stores them. */
+    private void writeValues(ArgumentModel argument, int indent) {
+        var ref = argument.ref();
+        var kind = argument.kind();
+        switch (argument.shape()) {
+            case FLAG -> line(indent, ref + "$ = true;");
+            case SINGLE -> {
+                boolean optional = argument.min() == 0;
+                if (optional) { line(indent, "if (!values.isEmpty()) {"); }
+                int inner = optional ? indent + 1 : indent;
+                line(inner, "var value = " + kind.convert("values.get(0)", ref) + ";");
+                writeRangeCheck(argument, inner);
+                line(inner, ref + "$ = value;");
+                if (optional) { line(indent, "}"); }
+            }
+            case ARRAY, LIST -> {
+                var converted = switch (kind) {
+                    case INT -> "GeneratedParsers.ints(values, position, " + quote(ref) + ")";
+                    case LONG -> "GeneratedParsers.longs(values, position, " + quote(ref) + ")";
+                    case DOUBLE -> "GeneratedParsers.doubles(values)";
+                    default -> "GeneratedParsers.<" + kind.boxed + ">list(values)";
+                };
+                line(indent, "var converted = " + converted + ";");
+                if (argument.hasRange()) {
+                    line(indent, "for (var value : converted) {");
+                    writeRangeCheck(argument, indent + 1);
+                    line(indent, "}");
+                }
+                boolean boxing = argument.shape() == ArgumentModel.Shape.LIST && kind.primitive != null;
+                line(indent, ref + "$ = " + (boxing ? "java.util.Arrays.stream(converted).boxed().toList()" : "converted") + ";");
+            }
+        }
+        if (argument.required()) { line(indent, ref + "$valued = " + (argument.min() > 0 ? "true" : "!values.isEmpty()") + ";"); }
+    }
+
+    private void writeRangeCheck(ArgumentModel argument, int indent) {
+        if (!argument.hasRange()) { return; }
+        var kind = argument.kind();
+        var values = rangeValues(argument);
+        var sources = new ArrayList<String>();
+        for (int i = 0; i < values.size(); i++) {
+            boolean constant = kind == ValueKind.BIG_INTEGER || kind == ValueKind.BIG_DECIMAL;
+            sources.add(constant ? argument.ref() + "$" + i : kind.source(values.get(i)));
+        }
+        String inRange;
+        if (argument.values() != null) {
+            var equals = new ArrayList<String>();
+            for (var source : sources) { equals.add(kind.primitive != null ? "value == " + source : "value.equals(" + source + ")"); }
+            inRange = String.join(" || ", equals);
+        } else if (kind.primitive != null) {
+            inRange = "value >= " + sources.get(0) + " && value <= " + sources.get(1);
+        } else {
+            inRange = "value.compareTo(" + sources.get(0) + ") >= 0 && value.compareTo(" + sources.get(1) + ") <= 0";
+        }
+        line(indent, "if (!(" + inRange + ")) { throw GeneratedParsers.outOfRange(position, " + quote(argument.ref())
+                + ", value + " + quote(" is not in range" + argument.rangeString()) + "); }");
+    }
+
+    /** Writes a method that builds the same schema at runtime, for help, completion and snapshots. */
+    private void writeSchema() {
+        line(1, "/** @return A new parser for the same schema, for help, completion or snapshots; {@link #parse} does not use it. */");
+        line(1, "public static ArgumentParser schema() {");
+        line(2, "ArgumentParser parser = new ArgumentParser(" + quote(command.programName()) + ", " + quote(command.description()) + ");");
+        for (var argument : command.arguments()) {
+            var names = new StringBuilder(quote(argument.ref()));
+            for (var name : argument.names()) { names.append(", ").append(quote(name)); }
+            line(2, "parser.addArgument(new ArgumentBuilder<>(" + argument.kind().boxed + ".class, " + names + ")");
+            line(4, ".setPositional(" + argument.positional() + ")");
+            line(4, ".setRequired(" + argument.required() + ")");
+            line(4, ".setNArgs(" + quote(argument.nArgs()) + ")");
+            if (argument.help() != null) { line(4, ".setHelpMessage(" + quote(argument.help()) + ")"); }
+            if (argument.helpName() != null) { line(4, ".setHelpName(" + quote(argument.helpName()) + ")"); }
+            if (argument.hasRange()) {
+                var kind = argument.kind();
+                var values = rangeValues(argument);
+                var sources = new ArrayList<String>();
+                for (int i = 0; i < values.size(); i++) {
+                    boolean constant = kind == ValueKind.BIG_INTEGER || kind == ValueKind.BIG_DECIMAL;
+                    sources.add(constant ? argument.ref() + "$" + i : kind.source(values.get(i)));
+                }
+                var range = argument.values() != null ? "DiscreteValues" : "ContinuousRange";
+                line(4, ".setRange(new " + range + "<>(" + String.join(", ", sources) + "))");
+            }
+            line(4, ".build());");
+        }
+        line(2, "return parser;");
+        line(1, "}");
+    }
+
+    private static String fits(ArgumentModel argument) {
+        return "GeneratedParsers.fits(values, " + argument.kind().boxed + ".class, " + argument.min() + ", " + bound(argument.max()) + ")";
+    }
+
+    /** @return The value of an argument's local as its field takes it, with an empty array for one never given. */
+    private static String result(ArgumentModel argument) {
+        var local = argument.ref() + "$";
+        if (argument.shape() != ArgumentModel.Shape.ARRAY) { return local; }
+        return local + " == null ? new " + argument.kind().primitive + "[0] : " + local;
+    }
+
+    private static List<Comparable<?>> rangeValues(ArgumentModel argument) {
+        if (argument.values() != null) { return argument.values(); }
+        if (argument.lower() != null) { return List.of(argument.lower(), argument.upper()); }
+        return List.of();
+    }
+
+    private static String bound(int max) {
+        return max == Integer.MAX_VALUE ? "Integer.MAX_VALUE" : Integer.toString(max);
+    }
+
+    private static <T> String join(List<T> items, java.util.function.Function<T, String> source) {
+        var joined = new ArrayList<String>();
+        for (var item : items) { joined.add(source.apply(item)); }
+        return String.join(", ", joined);
+    }
+
+    /** @return A string as a Java string literal. */
+    static String quote(String s) {
+        var quoted = new StringBuilder("\"");
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            switch (c) {
+                case '"' -> quoted.append("\\\"");
+                case '\\' -> quoted.append("\\\\");
+                case '\n' -> quoted.append("\\n");
+                case '\r' -> quoted.append("\\r");
+                case '\t' -> quoted.append("\\t");
+                default -> {
+                    if (c < 0x20 || c > 0x7e) { quoted.append(String.format("\\u%04x", (int) c)); }
+                    else { quoted.append(c); }
+                }
+            }
+        }
+        return quoted.append('"').toString();
+    }
+
+    private void line(int indent, String text) {
+        if (!text.isEmpty()) { out.append("    ".repeat(indent)).append(text); }
+        out.append('\n');
+    }
+}
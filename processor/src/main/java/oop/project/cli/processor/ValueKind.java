@@ -0,0 +1,78 @@
+package oop.project.cli.processor;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+
+/** The argument types a generated parser supports, with how each is converted, compared and written in source. */
+enum ValueKind {
+    STRING("String", null),
+    INT("Integer", "int"),
+    LONG("Long", "long"),
+    DOUBLE("Double", "double"),
+    BIG_INTEGER("java.math.BigInteger", null),
+    BIG_DECIMAL("java.math.BigDecimal", null);
+
+    /** Source name of the argument's type, as given to ArgumentBuilder. */
+    final String boxed;
+    /** Source name of the primitive the value is converted to, or null if it stays an object. */
+    final String primitive;
+
+    ValueKind(String boxed, String primitive) {
+        this.boxed = boxed;
+        this.primitive = primitive;
+    }
+
+    /** @return The kind of a type's qualified name, or null if it is not supported. */
+    static ValueKind of(String name) {
+        return switch (name) {
+            case "java.lang.String" -> STRING;
+            case "int", "java.lang.Integer" -> INT;
+            case "long", "java.lang.Long" -> LONG;
+            case "double", "java.lang.Double" -> DOUBLE;
+            case "java.math.BigInteger" -> BIG_INTEGER;
+            case "java.math.BigDecimal" -> BIG_DECIMAL;
+            default -> null;
+        };
+    }
+
+    /**
+     * @return A literal from an annotation, as the value it stands for.
+     * @throws NumberFormatException if it is not a literal of this kind.
+     */
+    Comparable<?> parse(String literal) {
+        return switch (this) {
+            case STRING -> literal;
+            case INT -> Integer.parseInt(literal);
+            case LONG -> Long.parseLong(literal);
+            case DOUBLE -> {
+                double d = Double.parseDouble(literal);
+                if (!Double.isFinite(d)) { throw new NumberFormatException("Not a finite double: " + literal); }
+                yield d;
+            }
+            case BIG_INTEGER -> new BigInteger(literal);
+            case BIG_DECIMAL -> new BigDecimal(literal);
+        };
+    }
+
+    /** @return Source for a value, a literal or else an expression that creates it. */
+    String source(Object value) {
+        return switch (this) {
+            case STRING -> ParserWriter.quote((String) value);
+            case INT -> value.toString();
+            case LONG -> value + "L";
+            case DOUBLE -> value + "d";
+            case BIG_INTEGER, BIG_DECIMAL -> "new " + boxed + "(" + ParserWriter.quote(value.toString()) + ")";
+        };
+    }
+
+    /** @return Source that converts the lexed value <code>value</code> of an argument, whose type has been checked. */
+    String convert(String value, String ref) {
+        return switch (this) {
+            case STRING -> "(String) " + value;
+            case INT -> "GeneratedParsers.toInt(" + value + ", position, " + ParserWriter.quote(ref) + ")";
+            case LONG -> "GeneratedParsers.toLong(" + value + ", position, " + ParserWriter.quote(ref) + ")";
+            case DOUBLE -> "((Number) " + value + ").doubleValue()";
+            case BIG_INTEGER, BIG_DECIMAL -> "(" + boxed + ") " + value;
+        };
+    }
+}
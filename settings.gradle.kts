@@ -1,2 +1,3 @@
 rootProject.name = "CliProject"
 
+include("processor")
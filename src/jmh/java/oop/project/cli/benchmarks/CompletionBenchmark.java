@@ -0,0 +1,52 @@
+package oop.project.cli.benchmarks;
+
+import oop.project.cli.argparser.*;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency of one completion, as a shell asks for on every tab, against a schema with thousands of options. The line
+ * ends in a prefix that a handful of names share, so the cost should not grow with the number of options.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CompletionBenchmark {
+    @Param({"100", "10000"})
+    public int options;
+
+    private CompiledParser parser;
+    private String name;
+    private String value;
+
+    @Setup
+    public void setup() {
+        ArgumentParser schema = new ArgumentParser("many", "many options");
+        for (int i = 0; i < options; i++) {
+            schema.addArgument(new ArgumentBuilder<>(String.class, "option" + i, "--option" + i)
+                    .setPositional(false)
+                    .setRequired(false)
+                    .setNArgs("1")
+                    .setRange(new DiscreteValues<>("alpha" + i, "beta" + i, "gamma" + i))
+                    .build());
+        }
+        parser = schema.compile();
+        name = "--option" + (options / 100);  // a prefix of eleven names with either number of options
+        value = "--option" + (options - 1) + "=\"b";
+        parser.complete(name, name.length());  // build the tries up front
+    }
+
+    @Benchmark
+    public Completions name() {
+        return parser.complete(name, name.length());
+    }
+
+    @Benchmark
+    public Completions value() {
+        return parser.complete(value, value.length());
+    }
+}
@@ -0,0 +1,62 @@
+package oop.project.cli.benchmarks;
+
+import oop.project.cli.annotations.Command;
+import oop.project.cli.annotations.Option;
+import oop.project.cli.annotations.Positional;
+import oop.project.cli.argparser.*;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A typical command line, parsed by the parser generated for an annotated command and by one compiled from the same
+ * schema at runtime. <code>buildAndParse</code> adds building and compiling the schema, which is what a CLI that parses
+ * one line per run pays for each run and the generated parser skips.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class GeneratedParserBenchmark {
+
+    @Command(name = "deploy", description = "deploys a build")
+    public record Deploy(
+            @Positional String artifact,
+            @Positional(nArgs = "?", required = false) String target,
+            @Option(names = {"-r", "--replicas"}, min = "1", max = "64") int replicas,
+            @Option(names = "--region", values = {"us", "eu", "ap"}, required = true) String region,
+            @Option(names = {"-f", "--force"}) boolean force,
+            @Option(names = {"-q", "--quiet"}) boolean quiet,
+            @Option(names = "--ports", nArgs = "+") int[] ports,
+            @Option(names = "--timeout", min = "0", max = "3600") double timeout,
+            @Option(names = "--tags") List<String> tags,
+            @Option(names = "--retries", nArgs = "?") Integer retries
+    ) {}
+
+    private CompiledParser compiled;
+    private String input;
+
+    @Setup
+    public void setup() {
+        compiled = GeneratedParserBenchmark_DeployParser.schema().compile();
+        input = "\"app.jar\" \"prod\" --region=\"eu\" --replicas=8 -f --ports=[80 443 8080] --timeout=30.5 --tags=[\"a\" \"b\"]";
+    }
+
+    @Benchmark
+    public Deploy generatedParser() throws ArgParseException {
+        return GeneratedParserBenchmark_DeployParser.parse(input);
+    }
+
+    @Benchmark
+    public ParsedArguments compiledParser() throws ArgParseException {
+        return compiled.parse(input);
+    }
+
+    @Benchmark
+    public ParsedArguments buildAndParse() throws ArgParseException {
+        return GeneratedParserBenchmark_DeployParser.schema().compile().parse(input);
+    }
+}
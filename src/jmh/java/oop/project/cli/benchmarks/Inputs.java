@@ -0,0 +1,63 @@
+package oop.project.cli.benchmarks;
+
+import java.time.LocalDate;
+
+/**
+ * Generators for benchmark inputs of a given size.
+ */
+final class Inputs {
+    private Inputs() {}
+
+    /** A line of <code>count</code> tokens, cycling through strings, numbers, flags and named arguments. */
+    static String tokens(int count) {
+        var builder = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            if (i > 0) { builder.append(' '); }
+            switch (i % 4) {
+                case 0 -> builder.append("\"file").append(i).append(".txt\"");
+                case 1 -> builder.append(i * 31);
+                case 2 -> builder.append("--flag").append(i);
+                default -> builder.append("name").append(i).append("=").append(i).append(".5");
+            }
+        }
+        return builder.toString();
+    }
+
+    /** A single list literal holding <code>length</code> integers. */
+    static String intList(int length) {
+        var builder = new StringBuilder("[");
+        for (int i = 0; i < length; i++) {
+            if (i > 0) { builder.append(' '); }
+            builder.append(i * 7919L);
+        }
+        return builder.append(']').toString();
+    }
+
+    /** A single quoted string with <code>length</code> characters of content, about a quarter of them escaped. */
+    static String escapedString(int length) {
+        var builder = new StringBuilder("\"");
+        for (int i = 0; i < length; i++) {
+            switch (i % 8) {
+                case 3 -> builder.append("\\t");
+                case 7 -> builder.append("\\\"");
+                default -> builder.append((char) ('a' + i % 26));
+            }
+        }
+        return builder.append('"').toString();
+    }
+
+    /** A list of <code>length</code> ISO-8601 literals: dates, instants and durations in turn. */
+    static String temporalList(int length) {
+        var builder = new StringBuilder("[");
+        for (int i = 0; i < length; i++) {
+            if (i > 0) { builder.append(' '); }
+            var date = LocalDate.ofEpochDay(i * 37L);
+            switch (i % 3) {
+                case 0 -> builder.append(date);
+                case 1 -> builder.append(date).append("T12:").append(10 + i % 50).append(":30.125Z");
+                default -> builder.append("P").append(i % 9).append("DT").append(i % 24).append("H30M");
+            }
+        }
+        return builder.append(']').toString();
+    }
+}
@@ -0,0 +1,133 @@
+package oop.project.cli.benchmarks;
+
+import oop.project.cli.argparser.ArgParseException;
+import oop.project.cli.argparser.IncrementalLexer;
+import oop.project.cli.argparser.Lexer;
+import oop.project.cli.argparser.TokenList;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Lexing cost as the number of tokens, list lengths and string lengths grow.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LexerBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class TokenCount {
+        @Param({"1", "16", "256", "4096"})
+        public int tokens;
+        public String input;
+
+        @Setup
+        public void setup() { input = Inputs.tokens(tokens); }
+    }
+
+    @State(Scope.Benchmark)
+    public static class ListLength {
+        @Param({"1", "64", "4096"})
+        public int length;
+        public String input;
+
+        @Setup
+        public void setup() { input = Inputs.intList(length); }
+    }
+
+    @State(Scope.Benchmark)
+    public static class StringLength {
+        @Param({"16", "1024", "65536"})
+        public int length;
+        public String input;
+
+        @Setup
+        public void setup() { input = Inputs.escapedString(length); }
+    }
+
+    @State(Scope.Benchmark)
+    public static class TemporalList {
+        @Param({"64", "4096"})
+        public int length;
+        public String input;
+        public String[] literals;
+
+        @Setup
+        public void setup() {
+            input = Inputs.temporalList(length);
+            literals = input.substring(1, input.length() - 1).split(" ");
+        }
+    }
+
+    /** A line being edited in the middle, one keystroke at a time: typing a character into a string, then deleting it. */
+    @State(Scope.Benchmark)
+    public static class Editing {
+        @Param({"16", "4096"})
+        public int tokens;
+        public IncrementalLexer lexer;
+        public StringBuilder line;
+        public int offset;
+
+        @Setup
+        public void setup() {
+            line = new StringBuilder(Inputs.tokens(tokens));
+            offset = line.indexOf("\"file" + (tokens / 8 * 4)) + 2;
+            lexer = new IncrementalLexer(line);
+        }
+    }
+
+    @Benchmark
+    public int keystroke(Editing state) {
+        state.lexer.edit(state.offset, 0, "x");
+        state.lexer.edit(state.offset, 1, "");
+        return state.lexer.lexemeCount();
+    }
+
+    /** The same two keystrokes, lexing the whole line after each. */
+    @Benchmark
+    public TokenList keystrokeFromScratch(Editing state) throws ArgParseException {
+        state.line.insert(state.offset, 'x');
+        new Lexer(state.line).lex();
+        state.line.deleteCharAt(state.offset);
+        return new Lexer(state.line).lex();
+    }
+
+    @Benchmark
+    public TokenList tokens(TokenCount state) throws ArgParseException {
+        return new Lexer(state.input).lex();
+    }
+
+    @Benchmark
+    public TokenList list(ListLength state) throws ArgParseException {
+        return new Lexer(state.input).lex();
+    }
+
+    @Benchmark
+    public TokenList escapedString(StringLength state) throws ArgParseException {
+        return new Lexer(state.input).lex();
+    }
+
+    @Benchmark
+    public TokenList temporalList(TemporalList state) throws ArgParseException {
+        return new Lexer(state.input).lex();
+    }
+
+    /** The same literals, split out beforehand and parsed by java.time's own parsers, for comparison. */
+    @Benchmark
+    public ArrayList<Object> temporalListJavaTime(TemporalList state) {
+        var values = new ArrayList<Object>(state.literals.length);
+        for (var literal : state.literals) {
+            values.add(literal.charAt(0) == 'P' ? Duration.parse(literal)
+                    : literal.length() == 10 ? LocalDate.parse(literal)
+                    : Instant.parse(literal));
+        }
+        return values;
+    }
+}
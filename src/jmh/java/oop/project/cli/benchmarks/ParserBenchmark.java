@@ -0,0 +1,105 @@
+package oop.project.cli.benchmarks;
+
+import oop.project.cli.argparser.*;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigInteger;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * End-to-end parsing of a line of growing length, through both the mutable and the compiled parser.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ParserBenchmark {
+    /** Number of values given for each of the list arguments. */
+    @Param({"1", "64", "4096"})
+    public int listLength;
+
+    /** Number of characters in the string argument, about a quarter of them escaped. */
+    @Param({"16", "4096"})
+    public int stringLength;
+
+    private ArgumentParser parser;
+    private CompiledParser compiled;
+    private CompiledParser spans;
+    private String input;
+
+    /** A long list of IDs for a Long argument with a range, as when selecting records by ID. */
+    @State(Scope.Benchmark)
+    public static class IdList {
+        @Param({"4096", "262144"})
+        public int length;
+        public CompiledParser compiled;
+        public CompiledParser spans;
+        public String input;
+
+        @Setup
+        public void setup() {
+            var parser = new ArgumentParser("fetch", "fetch records by id");
+            parser.addArgument(new ArgumentBuilder<>(Long.class, "ids", "--ids")
+                    .setPositional(false)
+                    .setRequired(true)
+                    .setNArgs("+")
+                    .setRange(new ContinuousRange<>(0L, Long.MAX_VALUE))
+                    .build());
+            compiled = parser.compile();
+            spans = parser.compile(Lexer.TokenMode.SPANS);
+            input = "--ids=" + Inputs.intList(length);
+        }
+    }
+
+    @Setup
+    public void setup() {
+        parser = new ArgumentParser("bench", "end to end benchmark");
+        parser.addArgument(new ArgumentBuilder<>(BigInteger.class, "ids")
+                .setPositional(true)
+                .setRequired(true)
+                .setNArgs("+")
+                .build());
+        parser.addArgument(new ArgumentBuilder<>(String.class, "message", "-m", "--message")
+                .setPositional(false)
+                .setRequired(true)
+                .setNArgs("1")
+                .build());
+        parser.addArgument(new ArgumentBuilder<>(BigInteger.class, "ports", "--ports")
+                .setPositional(false)
+                .setRequired(false)
+                .setNArgs("*")
+                .build());
+        compiled = parser.compile();
+        spans = parser.compile(Lexer.TokenMode.SPANS);
+        input = Inputs.intList(listLength) + " --message=" + Inputs.escapedString(stringLength)
+                + " --ports=" + Inputs.intList(listLength);
+    }
+
+    @Benchmark
+    public MappedData argumentParser() throws ArgParseException {
+        return parser.parse(input);
+    }
+
+    @Benchmark
+    public ParsedArguments compiledParser() throws ArgParseException {
+        return compiled.parse(input);
+    }
+
+    /** Parses without reading any value, which in span mode means no value is ever decoded. */
+    @Benchmark
+    public ParsedArguments compiledParserSpans() throws ArgParseException {
+        return spans.parse(input);
+    }
+
+    @Benchmark
+    public long idList(IdList state) throws ArgParseException {
+        return state.compiled.parse(state.input).getLong("ids");
+    }
+
+    @Benchmark
+    public long idListSpans(IdList state) throws ArgParseException {
+        return state.spans.parse(state.input).getLong("ids");
+    }
+}
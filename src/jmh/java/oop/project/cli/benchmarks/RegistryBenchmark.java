@@ -0,0 +1,71 @@
+package oop.project.cli.benchmarks;
+
+import oop.project.cli.argparser.*;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-call cost of dispatching a command line: building the command's schema on every call, as scenarios used to,
+ * against looking up the cached parser in a {@link ParserRegistry}. The input is deliberately tiny so that the setup
+ * dominates.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RegistryBenchmark {
+    private static final String COMMAND_LINE = "all --flag3=\"f3\" \"dest\"";
+
+    private ParserRegistry registry;
+
+    @Setup
+    public void setup() {
+        registry = new ParserRegistry()
+                .register("string", () -> new ArgumentParser("string", "unused"))
+                .register("all", RegistryBenchmark::all);
+    }
+
+    /** Schema construction alone: the builders, name checks and compilation. */
+    @Benchmark
+    public CompiledParser setupOnly() {
+        return all().compile();
+    }
+
+    /** Building the schema on every call, then parsing. */
+    @Benchmark
+    public ParsedArguments uncached() throws ArgParseException {
+        return all().compile().parse(COMMAND_LINE.substring(COMMAND_LINE.indexOf(' ') + 1));
+    }
+
+    /** Dispatching through the registry, which builds the schema once. */
+    @Benchmark
+    public ParsedArguments registry() throws ArgParseException {
+        return registry.parse(COMMAND_LINE);
+    }
+
+    /** The schema of the <code>all</code> scenario. */
+    private static ArgumentParser all() {
+        ArgumentParser parser = new ArgumentParser("all", "flags and positionals");
+        for (int i = 1; i <= 3; i++) {
+            parser.addArgument(new ArgumentBuilder<>(String.class, "flag" + i, "-f" + i, "--flag" + i)
+                    .setPositional(false)
+                    .setRequired(i == 3)
+                    .setNArgs("?")
+                    .build());
+        }
+        parser.addArgument(new ArgumentBuilder<>(String.class, "source")
+                .setPositional(true)
+                .setRequired(false)
+                .setNArgs("*")
+                .build());
+        parser.addArgument(new ArgumentBuilder<>(String.class, "dest")
+                .setPositional(true)
+                .setRequired(true)
+                .setNArgs("?")
+                .build());
+        return parser;
+    }
+}
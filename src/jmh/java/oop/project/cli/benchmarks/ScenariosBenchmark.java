@@ -0,0 +1,41 @@
+package oop.project.cli.benchmarks;
+
+import oop.project.cli.Scenarios;
+import oop.project.cli.argparser.ArgParseException;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * End-to-end cost of {@link Scenarios#parse(String)} for each scenario command, from the raw line to the result map.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ScenariosBenchmark {
+    @Param({
+            "string \"hello world\"",
+            "ints [1 -2 3 2147483648]",
+            "flagNArgsQuestion --flag=\"value\"",
+            "flagNArgsPlus --flag=[\"1\" \"2\"]",
+            "flagNArgsStar --flag=[\"1\" \"2\" \"3\" \"4\"]",
+            "positionalNArgsPlus [\"1\" \"2\" \"hi\"]",
+            "positionalNArgsStar [\"1\" \"2\" \"hi\"]",
+            "requiredFalse [\"1\" \"2\"]",
+            "requiredTrue [\"1\" \"2\"]",
+            "multFlags --flag2=[1 2 3] --flag1=[\"hi\"]",
+            "multPos [\"file1.txt\" \"file2.txt\"] [\"output.txt\"]",
+            "all --flag1=[\"f1\"] --flag2=[\"f2\"] [\"source\"] --flag3=[\"f3\"] [\"dest\"]"
+    })
+    public String command;
+
+    @Benchmark
+    public Map<String, List<Object>> parse() throws ArgParseException {
+        return Scenarios.parse(command);
+    }
+}
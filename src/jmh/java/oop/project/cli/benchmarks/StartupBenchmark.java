@@ -0,0 +1,91 @@
+package oop.project.cli.benchmarks;
+
+import oop.project.cli.argparser.*;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cold start of a CLI: the time from a fresh JVM to a compiled parser for a schema of a couple of hundred arguments,
+ * either built through the builders or loaded from a snapshot. Each fork measures a single call, so class loading and
+ * interpretation are counted as a real startup would pay them.
+ *
+ * <p>The snapshot is written in setup by a separate class loader, so that writing it does not load or warm up the
+ * parser's classes for the measured call.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 0)
+@Measurement(iterations = 1)
+@Fork(20)
+@State(Scope.Benchmark)
+public class StartupBenchmark {
+    private static final int ARGUMENTS = 200;
+
+    private byte[] snapshot;
+
+    @Setup
+    public void setup() throws Exception {
+        var classPath = System.getProperty("java.class.path").split(File.pathSeparator);
+        var urls = new URL[classPath.length];
+        for (int i = 0; i < urls.length; i++) { urls[i] = new File(classPath[i]).toURI().toURL(); }
+        try (var loader = new URLClassLoader(urls, ClassLoader.getPlatformClassLoader())) {
+            snapshot = (byte[]) loader.loadClass(StartupBenchmark.class.getName()).getMethod("snapshot").invoke(null);
+        }
+    }
+
+    /** @return The schema's snapshot. Public so that setup can call it through another class loader. */
+    public static byte[] snapshot() throws IOException {
+        var out = new ByteArrayOutputStream();
+        schema().writeSnapshot(out);
+        return out.toByteArray();
+    }
+
+    private static ArgumentParser schema() {
+        ArgumentParser parser = new ArgumentParser("startup", "a large schema");
+        for (int i = 0; i < ARGUMENTS; i += 4) {
+            parser.addArgument(new ArgumentBuilder<>(String.class, "mode" + i, "--mode" + i)
+                    .setPositional(false)
+                    .setRequired(false)
+                    .setNArgs("1")
+                    .setHelpMessage("Mode number " + i)
+                    .setRange(new DiscreteValues<>("fast", "safe", "slow"))
+                    .build());
+            parser.addArgument(new ArgumentBuilder<>(Integer.class, "count" + i, "--count" + i)
+                    .setPositional(false)
+                    .setRequired(false)
+                    .setNArgs("*")
+                    .setRange(IntervalRange.of(0, 99).union(1000, 1999))
+                    .build());
+            parser.addArgument(new ArgumentBuilder<>(BigDecimal.class, "ratio" + i, "--ratio" + i)
+                    .setPositional(false)
+                    .setRequired(false)
+                    .setNArgs("?")
+                    .setRange(new ContinuousRange<>(BigDecimal.ZERO, BigDecimal.ONE))
+                    .build());
+            parser.addArgument(new ArgumentBuilder<>(String.class, "flag" + i, "--flag" + i)
+                    .setPositional(false)
+                    .setRequired(false)
+                    .setNArgs("0")
+                    .build());
+        }
+        return parser;
+    }
+
+    @Benchmark
+    public CompiledParser fromBuilders() {
+        return schema().compile();
+    }
+
+    @Benchmark
+    public CompiledParser fromSnapshot() throws IOException {
+        return ArgumentParser.readSnapshot(new ByteArrayInputStream(snapshot)).compile();
+    }
+}
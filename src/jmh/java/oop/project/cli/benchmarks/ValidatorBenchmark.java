@@ -0,0 +1,60 @@
+package oop.project.cli.benchmarks;
+
+import oop.project.cli.argparser.*;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigInteger;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Validation cost alone, on tokens lexed ahead of time, for schemas and inputs of growing size.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ValidatorBenchmark {
+    /** Number of named arguments in the schema, each of which is given on the command line. */
+    @Param({"1", "16", "256"})
+    public int options;
+
+    /** Number of values in the list given for the positional argument. */
+    @Param({"1", "64", "4096"})
+    public int listLength;
+
+    /** Whether named arguments are checked by code generated for the schema; see ArgumentParser.setSpecializedValidation. */
+    @Param({"false", "true"})
+    public boolean specialized;
+
+    private CompiledParser parser;
+    private TokenList tokens;
+
+    @Setup
+    public void setup() throws ArgParseException {
+        var schema = new ArgumentParser("validate", "validator benchmark");
+        schema.addArgument(new ArgumentBuilder<>(BigInteger.class, "values")
+                .setPositional(true)
+                .setRequired(true)
+                .setNArgs("+")
+                .build());
+        var input = new StringBuilder(Inputs.intList(listLength));
+        for (int i = 0; i < options; i++) {
+            schema.addArgument(new ArgumentBuilder<>(String.class, "option" + i, "--option" + i)
+                    .setPositional(false)
+                    .setRequired(false)
+                    .setNArgs("?")
+                    .build());
+            input.append(" --option").append(i).append("=\"value\"");
+        }
+        schema.setSpecializedValidation(specialized);
+        parser = schema.compile();
+        tokens = new Lexer(input.toString()).lex();
+    }
+
+    @Benchmark
+    public ParsedArguments validate() throws ArgParseException {
+        return new Validator(parser).validate(tokens);
+    }
+}
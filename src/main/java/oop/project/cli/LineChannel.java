@@ -0,0 +1,73 @@
+package oop.project.cli;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Reads and writes UTF-8 lines on a blocking socket channel. The byte-stream adapters in
+ * {@link java.nio.channels.Channels} synchronize on the channel while blocked, which pins virtual threads to their
+ * carriers, so lines are buffered here directly instead.
+ */
+final class LineChannel implements AutoCloseable {
+    private final SocketChannel channel;
+    private final ByteBuffer in = ByteBuffer.allocate(8192).flip();
+    private final ByteArrayOutputStream line = new ByteArrayOutputStream();
+    private final int maxLineBytes;
+
+    /** Thrown for a line longer than the channel takes. The line has been read past, so the next one can be read. */
+    static final class LineTooLongException extends IOException {
+        LineTooLongException(int maxLineBytes) {
+            super("Line longer than " + maxLineBytes + " bytes.");
+        }
+    }
+
+    /** @param maxLineBytes The longest line {@link #readLine()} takes, without its '\n'. */
+    LineChannel(SocketChannel channel, int maxLineBytes) {
+        this.channel = channel;
+        this.maxLineBytes = maxLineBytes;
+    }
+
+    /**
+     * @return The next line without its '\n', or null at the end of the stream.
+     * @throws LineTooLongException if the line is too long. Its bytes are skipped rather than kept, so memory stays
+     * bounded however long it is.
+     */
+    String readLine() throws IOException {
+        line.reset();
+        boolean tooLong = false;
+        while (true) {
+            while (in.hasRemaining()) {
+                byte b = in.get();
+                if (b == '\n') {
+                    if (tooLong) { throw new LineTooLongException(maxLineBytes); }
+                    return line.toString(StandardCharsets.UTF_8);
+                }
+                if (line.size() == maxLineBytes) {
+                    tooLong = true;
+                    line.reset();
+                }
+                if (!tooLong) { line.write(b); }
+            }
+            in.clear();
+            int read = channel.read(in);
+            in.flip();
+            if (read < 0) {
+                if (tooLong) { throw new LineTooLongException(maxLineBytes); }
+                return line.size() == 0 ? null : line.toString(StandardCharsets.UTF_8);
+            }
+        }
+    }
+
+    void writeLine(String s) throws IOException {
+        var out = StandardCharsets.UTF_8.encode(s + "\n");
+        while (out.hasRemaining()) { channel.write(out); }
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
@@ -1,5 +1,7 @@
 package oop.project.cli;
 
+import java.io.IOException;
+import java.nio.file.Path;
 import java.util.Scanner;
 
 import java.math.BigInteger;
@@ -10,8 +12,32 @@ public class Main {
 
     /**
      * A default implementation of main that can be used to run scenarios.
+     *
+     * <p>With <code>--daemon &lt;socket&gt;</code> the scenarios are served from a {@link ParseDaemon} instead, and
+     * with <code>--client &lt;socket&gt;</code> each line is sent to that daemon and its answer printed.
      */
-    public static void main(String[] args) {
+    public static void main(String[] args) throws IOException {
+        if (args.length == 2 && args[0].equals("--daemon")) {
+            // Closed by the hook alone, on SIGTERM or when serve() fails, which is what makes serve() return
+            var daemon = new ParseDaemon(Path.of(args[1]));
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                try { daemon.close(); } catch (IOException ignored) {}
+            }));
+            daemon.serve();
+            return;
+        }
+        if (args.length == 2 && args[0].equals("--client")) {
+            try (var client = new ParseClient(Path.of(args[1])); var scanner = new Scanner(System.in)) {
+                while (scanner.hasNextLine()) {
+                    var input = scanner.nextLine();
+                    if (input.equals("exit")) {
+                        break;
+                    }
+                    System.out.println(client.send(input));
+                }
+            }
+            return;
+        }
         var scanner = new Scanner(System.in);
         while (true) {
             var input = scanner.nextLine();
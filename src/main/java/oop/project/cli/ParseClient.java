@@ -0,0 +1,45 @@
+package oop.project.cli;
+
+import java.io.IOException;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.channels.SocketChannel;
+import java.nio.file.Path;
+
+/**
+ * A connection to a {@link ParseDaemon}. Not thread-safe - open one client per thread.
+ */
+public class ParseClient implements AutoCloseable {
+    private final LineChannel lines;
+
+    public ParseClient(Path socketPath) throws IOException {
+        var channel = SocketChannel.open(StandardProtocolFamily.UNIX);
+        try {
+            channel.connect(UnixDomainSocketAddress.of(socketPath));
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+        this.lines = new LineChannel(channel, Integer.MAX_VALUE - 8);  // answers are as long as the daemon makes them
+    }
+
+    /**
+     * Sends one command line to the daemon and waits for its answer.
+     *
+     * @param command Command line, as accepted by {@link Scenarios#parse(String)}. Must not contain a newline.
+     * @return The answer, <code>OK &lt;parsed map&gt;</code> or <code>ERR &lt;message&gt;</code>, unescaped.
+     * @throws IOException if the daemon cannot be reached or closes the connection.
+     */
+    public String send(String command) throws IOException {
+        if (command.indexOf('\n') >= 0) { throw new IllegalArgumentException("Command must be a single line."); }
+        lines.writeLine(command);
+        var answer = lines.readLine();
+        if (answer == null) { throw new IOException("Daemon closed the connection."); }
+        return ParseDaemon.unescape(answer);
+    }
+
+    @Override
+    public void close() throws IOException {
+        lines.close();
+    }
+}
@@ -0,0 +1,141 @@
+package oop.project.cli;
+
+import java.io.IOException;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Serves {@link Scenarios#parse(String)} over a Unix domain socket, so that clients skip JVM startup and share one
+ * warm process. Each connection is handled on its own virtual thread.
+ *
+ * <p>The protocol is line based: the client sends a command line, and the daemon answers with one line, either
+ * <code>OK &lt;parsed map&gt;</code> or <code>ERR &lt;message&gt;</code>. A client may send any number of command
+ * lines over one connection. Backslashes and newlines in answers are escaped as <code>\\</code> and <code>\n</code>,
+ * see {@link #escape(String)}. Command lines longer than {@link #MAX_REQUEST_BYTES} are answered with an
+ * <code>ERR</code> without being parsed. No usage is printed for commands that fail to parse.
+ */
+public class ParseDaemon implements AutoCloseable {
+    /** Connections waiting to be accepted; once full, clients fail to connect rather than wait (capped by the OS). */
+    private static final int BACKLOG = 4096;
+    /** The longest command line the daemon reads, so that no client can make it buffer more. */
+    static final int MAX_REQUEST_BYTES = 1 << 20;
+
+    private final Path socketPath;
+    private final ServerSocketChannel server;
+    private final ExecutorService connections = Executors.newVirtualThreadPerTaskExecutor();
+    // Closed by close(), since their handlers block reading them for as long as their clients stay connected
+    private final Set<SocketChannel> open = ConcurrentHashMap.newKeySet();
+    private volatile boolean closed;
+
+    /**
+     * Binds the socket, replacing a stale socket file left behind by a daemon that did not shut down cleanly.
+     *
+     * @param socketPath Where to create the socket.
+     * @throws IOException if the socket cannot be bound.
+     */
+    public ParseDaemon(Path socketPath) throws IOException {
+        this.socketPath = socketPath;
+        Files.deleteIfExists(socketPath);
+        this.server = ServerSocketChannel.open(StandardProtocolFamily.UNIX);
+        this.server.bind(UnixDomainSocketAddress.of(socketPath), BACKLOG);
+    }
+
+    /**
+     * Accepts connections until the daemon is closed.
+     *
+     * @throws IOException if accepting fails for any reason other than the daemon being closed.
+     */
+    public void serve() throws IOException {
+        while (true) {
+            SocketChannel connection;
+            try {
+                connection = server.accept();
+            } catch (ClosedChannelException e) {
+                return;
+            }
+            // Either close() sees the connection in the set, or this sees that the daemon was closed
+            open.add(connection);
+            try {
+                if (closed) { throw new RejectedExecutionException(); }
+                connections.submit(() -> handle(connection));
+            } catch (RejectedExecutionException e) {
+                open.remove(connection);
+                connection.close();
+                return;
+            }
+        }
+    }
+
+    private void handle(SocketChannel connection) {
+        try (var lines = new LineChannel(connection, MAX_REQUEST_BYTES)) {
+            while (true) {
+                String line;
+                try {
+                    line = lines.readLine();
+                } catch (LineChannel.LineTooLongException e) {
+                    lines.writeLine("ERR " + escape(e.getMessage()));
+                    continue;
+                }
+                if (line == null) { break; }
+                lines.writeLine(respond(line));
+            }
+        } catch (IOException e) {
+            // The client went away, or the daemon was closed; nothing to answer
+        } finally {
+            open.remove(connection);
+        }
+    }
+
+    /** @return The escaped answer to one command line, without its terminating newline. */
+    static String respond(String command) {
+        try {
+            return "OK " + escape(String.valueOf(Scenarios.parse(command, false)));
+        } catch (Exception e) {
+            return "ERR " + escape(e.getClass().getSimpleName() + ": " + e.getMessage());
+        }
+    }
+
+    static String escape(String s) {
+        return s.replace("\\", "\\\\").replace("\n", "\\n");
+    }
+
+    static String unescape(String s) {
+        var builder = new StringBuilder(s.length());
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (c == '\\' && i + 1 < s.length()) {
+                char escaped = s.charAt(++i);
+                builder.append(escaped == 'n' ? '\n' : escaped);
+            } else {
+                builder.append(c);
+            }
+        }
+        return builder.toString();
+    }
+
+    /**
+     * Stops accepting connections, closes the open ones, waits for their handlers to finish and removes the socket
+     * file. A request being answered may fail to get its answer out. Closing again does nothing.
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        if (closed) { return; }
+        closed = true;
+        server.close();
+        for (var connection : open) {
+            try { connection.close(); } catch (IOException ignored) {}
+        }
+        connections.close();
+        Files.deleteIfExists(socketPath);
+    }
+}
@@ -3,6 +3,7 @@ package oop.project.cli;
 import oop.project.cli.argparser.*;
 
 import java.math.BigInteger;
+import java.time.LocalDate;
 import java.util.*;
 
 public class Scenarios {
@@ -15,34 +16,39 @@ public class Scenarios {
      * your needs - use whatever is convenient for your design.
      */
     public static Map<String, List<Object>> parse(String command) throws ArgParseException {
+        return parse(command, true);
+    }
+
+    /** @param helpOnError Whether a command that fails to parse prints its usage. */
+    static Map<String, List<Object>> parse(String command, boolean helpOnError) throws ArgParseException {
         //This assumes commands follow a similar structure to unix commands,
         //e.g. `command [arguments...]`. If your project uses a different
         //structure, e.g. Lisp syntax like `(command [arguments...])`, you may
         //need to adjust this a bit to work as expected.
-        var split = command.split(" ", 2);
-        var base = split[0];
-        var arguments = split.length == 2 ? split[1] : "";
-        return switch (base) {
-            case "string" -> string(arguments);
-            case "ints" -> ints(arguments);
-            case "decimal" -> decimal(arguments);
-            case "date" -> date(arguments);
-            case "noArgs" -> noArgs(arguments);
-            case "flagNArgsQuestion" -> flagNArgsQuestion(arguments);
-            case "flagNArgsPlus" -> flagNArgsPlus(arguments);
-            case "flagNArgsStar" -> flagNArgsStar(arguments);
-            case "positionalNArgsQuestion" -> positionalNArgsQuestion(arguments);
-            case "positionalNArgsPlus" -> positionalNArgsPlus(arguments);
-            case "positionalNArgsStar" -> positionalNArgsStar(arguments);
-            case "requiredFalse" -> requiredFalse(arguments);
-            case "requiredTrue" -> requiredTrue(arguments);
-            case "multFlags" -> multFlags(arguments);
-            case "multPos" -> multPos(arguments);
-            case "all" -> all(arguments);
-            default -> throw new IllegalArgumentException("Unknown command.");
-        };
+        var result = REGISTRY.parse(command, helpOnError).toMap();
+        result.remove("help");
+        return result;
     }
 
+    /** The scenario commands. Each parser is built the first time its command is parsed, then reused. */
+    static final ParserRegistry REGISTRY = new ParserRegistry()
+            .register("string", Scenarios::string)
+            .register("ints", Scenarios::ints)
+            .register("decimal", Scenarios::decimal)
+            .register("date", Scenarios::date)
+            .register("noArgs", Scenarios::noArgs)
+            .register("flagNArgsQuestion", Scenarios::flagNArgsQuestion)
+            .register("flagNArgsPlus", Scenarios::flagNArgsPlus)
+            .register("flagNArgsStar", Scenarios::flagNArgsStar)
+            .register("positionalNArgsQuestion", Scenarios::positionalNArgsQuestion)
+            .register("positionalNArgsPlus", Scenarios::positionalNArgsPlus)
+            .register("positionalNArgsStar", Scenarios::positionalNArgsStar)
+            .register("requiredFalse", Scenarios::requiredFalse)
+            .register("requiredTrue", Scenarios::requiredTrue)
+            .register("multFlags", Scenarios::multFlags)
+            .register("multPos", Scenarios::multPos)
+            .register("all", Scenarios::all);
+
 
     //TODO: Add your own scenarios based on your software design writeup. You
     //should have a couple from pain points at least, and likely some others
@@ -50,7 +56,7 @@ public class Scenarios {
 
     //good place to test/showcase your functionality in context.
 
-    static Map<String, List<Object>> string(String arguments) throws ArgParseException {
+    static ArgumentParser string() {
         ArgumentParser parser = new ArgumentParser("string", "testing functionality of string parsing");
         parser.addArgument(new ArgumentBuilder<>(String.class, "positional")
                 .setPositional(true)
@@ -58,13 +64,10 @@ public class Scenarios {
                 .setNArgs("*")
                 .setHelpMessage("Pass in any string to validate")
                 .build());
-
-        parser.parse(arguments); //if fails, will throw validateException
-        List<Object> res = new ArrayList<Object>(parser.getArgument("positional").getValue());
-        return Map.of("positional", res);
+        return parser;
     }
 
-    static  Map<String, List<Object>> ints(String arguments) throws ArgParseException {
+    static ArgumentParser ints() {
         ArgumentParser parser = new ArgumentParser("int", "testing functionality of int parsing");
         parser.addArgument(new ArgumentBuilder<>(BigInteger.class, "positional")
                 .setPositional(true)
@@ -72,13 +75,10 @@ public class Scenarios {
                 .setNArgs("*")
                 .setHelpMessage("Pass in any integer to validate")
                 .build());
-
-        parser.parse(arguments); //if fails, will throw validateException
-        List<Object> res = new ArrayList<Object>(parser.getArgument("positional").getValue());
-        return Map.of("positional", res);
+        return parser;
     }
 
-    static Map<String, List<Object>> decimal(String arguments)  throws ArgParseException {
+    static ArgumentParser decimal() {
         ArgumentParser parser = new ArgumentParser("decimal", "testing functionality of decimal parsing");
         parser.addArgument(new ArgumentBuilder<>(BigInteger.class, "positional")
                 .setPositional(true)
@@ -86,29 +86,23 @@ public class Scenarios {
                 .setNArgs("*")
                 .setHelpMessage("Pass in any decimal to validate")
                 .build());
-
-        parser.parse(arguments); //if fails, will throw validateException
-        List<Object> res = new ArrayList<Object>(parser.getArgument("positional").getValue());
-        return Map.of("positional", res);
+        return parser;
     }
 
-    static Map<String, List<Object>> date(String arguments) throws ArgParseException {
+    static ArgumentParser date() {
         ArgumentParser parser = new ArgumentParser("date", "testing date parsing");
-        parser.addArgument(new ArgumentBuilder<>(Date.class, "positional")
+        parser.addArgument(new ArgumentBuilder<>(LocalDate.class, "positional")
                 .setPositional(true)
                 .setRequired(true)
                 .setNArgs("*")
                 .setHelpMessage("required date positional")
                 .build());
-
-        parser.parse(arguments); //if fails, will throw validateException
-        List<Object> res = new ArrayList<Object>(parser.getArgument("positional").getValue());
-        return Map.of("positional", res);
+        return parser;
     }
 
 
     //TODO POSSIBLE BOOLEAN FLIP FOR NO ARGUMENTS
-    static Map<String, List<Object>> noArgs(String arguments) throws ArgParseException {
+    static ArgumentParser noArgs() {
         ArgumentParser parser = new ArgumentParser("noArgs", "testing functionality of flag with no arguments parsing");
         parser.addArgument(new ArgumentBuilder<>(String.class, "flag", "-f", "--flag")
                 .setPositional(false)
@@ -116,13 +110,10 @@ public class Scenarios {
                 .setNArgs("?")
                 .setHelpMessage("Pass in any decimal to validate")
                 .build());
-
-        parser.parse(arguments); //if fails, will throw validateException
-        List<Object> res = new ArrayList<Object>(parser.getArgument("positional").getValue());
-        return Map.of("flag", res);
+        return parser;
     }
 
-    static Map<String, List<Object>> flagNArgsQuestion(String arguments)  throws ArgParseException {
+    static ArgumentParser flagNArgsQuestion() {
         ArgumentParser parser = new ArgumentParser("flagNArgsQuestion", "testing functionality of flag with ? args");
         parser.addArgument(new ArgumentBuilder<>(String.class, "flag", "-f", "--flag")
                 .setPositional(false)
@@ -130,13 +121,11 @@ public class Scenarios {
                 .setNArgs("?")
                 .setHelpMessage("Pass in strings to validate if ? operation correct")
                 .build());
-        parser.parse(arguments); //if fails, will throw validateException
-        List<Object> res = new ArrayList<Object>(parser.getArgument("flag").getValue());
-        return Map.of("flag", res);
+        return parser;
     }
 
 
-    static Map<String, List<Object>> flagNArgsPlus(String arguments) throws ArgParseException {
+    static ArgumentParser flagNArgsPlus() {
         ArgumentParser parser = new ArgumentParser("flagNArgsPlus", "testing functionality of flag with + args");
         parser.addArgument(new ArgumentBuilder<>(String.class, "flag", "-f", "--flag")
                 .setPositional(false)
@@ -144,13 +133,10 @@ public class Scenarios {
                 .setNArgs("+")
                 .setHelpMessage("Pass in strings to validate if + operation correct")
                 .build());
-
-        parser.parse(arguments);
-        List<Object> res = new ArrayList<Object>(parser.getArgument("flag").getValue());
-        return Map.of("flag", res);
+        return parser;
     }
 
-    static Map<String, List<Object>> flagNArgsStar(String arguments)  throws ArgParseException {
+    static ArgumentParser flagNArgsStar() {
         ArgumentParser parser = new ArgumentParser("flagNArgsStar", "testing functionality of flag with * args");
         parser.addArgument(new ArgumentBuilder<>(String.class, "flag", "-f", "--flag")
                 .setPositional(false)
@@ -158,14 +144,11 @@ public class Scenarios {
                 .setNArgs("*")
                 .setHelpMessage("Pass in strings to validate if + operation correct")
                 .build());
-
-        parser.parse(arguments); //if fails, will throw validateException
-        List<Object> res = new ArrayList<Object>(parser.getArgument("flag").getValue());
-        return Map.of("flag", res);
+        return parser;
     }
 
 
-    static Map<String, List<Object>> positionalNArgsQuestion(String arguments)   throws ArgParseException {
+    static ArgumentParser positionalNArgsQuestion() {
         ArgumentParser parser = new ArgumentParser("positionalNArgQuestion", "testing functionality of positional with ? args");
         parser.addArgument(new ArgumentBuilder<>(String.class, "positional")
                 .setPositional(true)
@@ -173,12 +156,9 @@ public class Scenarios {
                 .setNArgs("?")
                 .setHelpMessage("Pass in strings to validate if ? operation correct")
                 .build());
-
-        parser.parse(arguments); //if fails, will throw validateException
-        List<Object> res = new ArrayList<Object>(parser.getArgument("flag").getValue());
-        return Map.of("flag", res);
+        return parser;
     }
-    static Map<String, List<Object>> positionalNArgsPlus(String arguments) throws ArgParseException {
+    static ArgumentParser positionalNArgsPlus() {
         ArgumentParser parser = new ArgumentParser("positionalNArgQuestion", "testing functionality of positional with + args");
         parser.addArgument(new ArgumentBuilder<>(String.class, "positional")
                 .setPositional(true)
@@ -186,13 +166,10 @@ public class Scenarios {
                 .setNArgs("+")
                 .setHelpMessage("Pass in strings to validate if + operation correct")
                 .build());
-
-        parser.parse(arguments); //if fails, will throw validateException
-        List<Object> res = new ArrayList<Object>(parser.getArgument("positional").getValue());
-        return Map.of("positional", res);
+        return parser;
     }
 
-    static Map<String, List<Object>> positionalNArgsStar(String arguments) throws ArgParseException {
+    static ArgumentParser positionalNArgsStar() {
         ArgumentParser parser = new ArgumentParser("positionalNArgsStar", "testing functionality of positional with * args");
         parser.addArgument(new ArgumentBuilder<>(String.class, "positional")
                 .setPositional(true)
@@ -200,12 +177,9 @@ public class Scenarios {
                 .setNArgs("*")
                 .setHelpMessage("Pass in strings to validate if * operation correct")
                 .build());
-
-        parser.parse(arguments); //if fails, will throw validateException
-        List<Object> res = new ArrayList<Object>(parser.getArgument("positional").getValue());
-        return Map.of("positional", res);
+        return parser;
     }
-    static Map<String, List<Object>> requiredFalse(String arguments)  throws ArgParseException {
+    static ArgumentParser requiredFalse() {
         ArgumentParser parser = new ArgumentParser("requiredFalse", "testing functionality required false");
         parser.addArgument(new ArgumentBuilder<>(String.class, "positional")
                 .setPositional(true)
@@ -213,12 +187,9 @@ public class Scenarios {
                 .setNArgs("*")
                 .setHelpMessage("optional string positional")
                 .build());
-
-        parser.parse(arguments); //if fails, will throw validateException
-        List<Object> res = new ArrayList<Object>(parser.getArgument("positional").getValue());
-        return Map.of("positional", res);
+        return parser;
     }
-    static Map<String, List<Object>> requiredTrue(String arguments) throws ArgParseException {
+    static ArgumentParser requiredTrue() {
         ArgumentParser parser = new ArgumentParser("requiredTrue", "testing functionality required true");
         parser.addArgument(new ArgumentBuilder<>(String.class, "positional")
                 .setPositional(true)
@@ -226,13 +197,10 @@ public class Scenarios {
                 .setNArgs("*")
                 .setHelpMessage("required string positional")
                 .build());
-
-        parser.parse(arguments); //if fails, will throw validateException
-        List<Object> res = new ArrayList<Object>(parser.getArgument("positional").getValue());
-        return Map.of("positional", res);
+        return parser;
     }
 
-    static Map<String, List<Object>> multFlags(String arguments) throws ArgParseException {
+    static ArgumentParser multFlags() {
         ArgumentParser parser = new ArgumentParser("multFlags", "testing functionality for multiple flags");
         parser.addArgument(new ArgumentBuilder<>(String.class, "flag1", "-f1", "--flag1")
                 .setPositional(false)
@@ -247,15 +215,10 @@ public class Scenarios {
                 .setNArgs("*")
                 .setHelpMessage("optional integer flag")
                 .build());
-
-        parser.parse(arguments); //if fails, will throw validateException
-
-        List<Object> flag1 = new ArrayList<Object>(parser.getArgument("flag1").getValue());
-        List<Object> flag2 = new ArrayList<Object>(parser.getArgument("flag2").getValue());
-        return Map.of("flag1", flag1, "flag2", flag2);
+        return parser;
     }
 
-    static Map<String, List<Object>> multPos(String arguments) throws ArgParseException {
+    static ArgumentParser multPos() {
         ArgumentParser parser = new ArgumentParser("multPos", "testing functionality for multiple positionals");
         parser.addArgument(new ArgumentBuilder<>(String.class, "source")
                 .setPositional(true)
@@ -270,15 +233,10 @@ public class Scenarios {
                 .setNArgs("?")
                 .setHelpMessage("required dest positional")
                 .build());
-
-        parser.parse(arguments); //if fails, will throw validateException
-
-        List<Object> source = new ArrayList<Object>(parser.getArgument("source").getValue());
-        List<Object> dest = new ArrayList<Object>(parser.getArgument("dest").getValue());
-        return Map.of("source", source, "dest", dest);
+        return parser;
     }
 
-    static Map<String, List<Object>> all(String arguments) throws ArgParseException {
+    static ArgumentParser all() {
         ArgumentParser parser = new ArgumentParser("all", "testing functionality for multiple positionals");
 
         parser.addArgument(new ArgumentBuilder<>(String.class, "flag1", "-f1", "--flag1")
@@ -316,15 +274,7 @@ public class Scenarios {
                 .setHelpName("HELP NAME")
                 .setHelpMessage("required dest positional")
                 .build());
-
-        parser.parse(arguments); //if fails, will throw validateException
-
-        List<Object> flag1 = new ArrayList<Object>(parser.getArgument("flag1").getValue());
-        List<Object> flag2 = new ArrayList<Object>(parser.getArgument("flag2").getValue());
-        List<Object> flag3 = new ArrayList<Object>(parser.getArgument("flag3").getValue());
-        List<Object> source = new ArrayList<Object>(parser.getArgument("source").getValue());
-        List<Object> dest = new ArrayList<Object>(parser.getArgument("dest").getValue());
-        return Map.of("flag1", flag1, "flag2", flag2, "flag3", flag3, "source", source, "dest", dest);
+        return parser;
     }
 
     /**
@@ -0,0 +1,25 @@
+package oop.project.cli.annotations;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Declares a command as a record or class whose fields are its arguments, each annotated with {@link Option} or
+ * {@link Positional}. The annotation processor in the <code>processor</code> module generates a parser for it at
+ * compile time, named after the type with a <code>Parser</code> suffix, in the same package. Its
+ * <code>parse(CharSequence)</code> matches the input against this schema directly, with no
+ * {@link oop.project.cli.argparser.ArgumentParser} built at runtime, and returns an instance of the type.
+ *
+ * <p>A record gets its canonical constructor called with every component, so all of them must be annotated. A class
+ * needs a constructor without parameters, and gets its annotated fields assigned, so they may not be private or final.
+ */
+@Retention(RetentionPolicy.SOURCE)
+@Target(ElementType.TYPE)
+public @interface Command {
+    /** @return The program name, as given to {@link oop.project.cli.argparser.ArgumentParser}. */
+    String name();
+
+    String description() default "";
+}
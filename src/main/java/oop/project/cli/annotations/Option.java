@@ -0,0 +1,42 @@
+package oop.project.cli.annotations;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * A named argument of a {@link Command}, with the settings of {@link oop.project.cli.argparser.ArgumentBuilder}. Its
+ * ref is the field's name, and its type follows from the field's:
+ * <ul>
+ *     <li><code>boolean</code> - a flag, which takes no values and is true if given.</li>
+ *     <li><code>String</code>, <code>int</code>, <code>long</code>, <code>double</code> (or their boxed types),
+ *     <code>BigInteger</code> or <code>BigDecimal</code> - a single value, so nArgs may only be 1 or ?.</li>
+ *     <li><code>int[]</code>, <code>long[]</code>, <code>double[]</code>, or a <code>List</code> of one of the types
+ *     above - any number of values.</li>
+ * </ul>
+ * A field that is not given keeps its initializer, if it has one, and otherwise its default: false, zero, null, or
+ * empty.
+ */
+@Retention(RetentionPolicy.SOURCE)
+@Target(ElementType.FIELD)
+public @interface Option {
+    String[] names();
+
+    /** @return As for {@link oop.project.cli.argparser.ArgumentBuilder#setNArgs(String)}; by default 0 for a flag, 1 for a single value, and * otherwise. */
+    String nArgs() default "";
+
+    boolean required() default false;
+
+    String help() default "";
+
+    String helpName() default "";
+
+    /** @return The values the argument may take, written as literals of its type; any value if empty. */
+    String[] values() default {};
+
+    /** @return The least value the argument may take, written as a literal of its type; set together with {@link #max()}. */
+    String min() default "";
+
+    String max() default "";
+}
@@ -0,0 +1,29 @@
+package oop.project.cli.annotations;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * A positional argument of a {@link Command}, with the settings of {@link Option} save names and flags. Positional
+ * arguments are filled in declaration order, and in a generated parser the optional ones must come after all the
+ * required ones.
+ */
+@Retention(RetentionPolicy.SOURCE)
+@Target(ElementType.FIELD)
+public @interface Positional {
+    String nArgs() default "";
+
+    boolean required() default true;
+
+    String help() default "";
+
+    String helpName() default "";
+
+    String[] values() default {};
+
+    String min() default "";
+
+    String max() default "";
+}
@@ -4,5 +4,25 @@ package oop.project.cli.argparser;
  * Checked exception for when something goes wrong with validation (i.e. the user did something wrong.)
  */
 public class ArgParseException extends Exception {
-    public ArgParseException(String err) { super("Validation error: " + err); }
+    private final ParseError error;
+
+    public ArgParseException(String err) {
+        super("Validation error: " + err);
+        this.error = null;
+    }
+
+    /**
+     * @param error What went wrong.
+     * @param stackless Whether to skip filling in the stack trace, which is most of the cost of throwing. Use it where
+     *                  rejected input is common and the trace would never be looked at.
+     */
+    public ArgParseException(ParseError error, boolean stackless) {
+        super("Validation error: " + error.message(), null, !stackless, !stackless);
+        this.error = error;
+    }
+
+    /** @return What went wrong, or null if this was thrown with only a message. */
+    public ParseError getError() {
+        return error;
+    }
 }
@@ -1,17 +1,18 @@
 package oop.project.cli.argparser;
 
-import java.util.ArrayList;
+import java.util.List;
 
 /**
  * Argument token - record used for parsing.
  * @param type Type of the argument.
- * @param name Name of the argument - that is, whatever the input name was (example n="value" has name n)
+ * @param name Name of the argument - that is, whatever the input name was (example n="value" has name n). A String,
+ *             unless lexed in {@link Lexer.TokenMode#SPANS} mode.
  * @param value Value of the argument. Can be a list, for example in the case of <code>numbers=[1 2 3]</code>
  */
 public record ArgToken(
         Type type,
-        String name,
-        ArrayList<Object> value
+        CharSequence name,
+        List<Object> value
 ){
     public enum Type {
         POSITIONAL_ARG,
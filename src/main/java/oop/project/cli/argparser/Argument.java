@@ -4,7 +4,7 @@ import java.lang.reflect.Type;
 import java.util.ArrayList;
 import java.util.Arrays;
 
-public class Argument <T extends Comparable<T>>{
+public class Argument <T extends Comparable<? super T>>{
     public final String[] names;
     public final String ref;
     public final Class<T> type;
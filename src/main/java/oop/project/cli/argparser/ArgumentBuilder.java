@@ -2,10 +2,13 @@ package oop.project.cli.argparser;
 
 import java.math.BigDecimal;
 import java.math.BigInteger;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
 import java.util.*;
 
 
-public class ArgumentBuilder<T extends Comparable<T>> {
+public class ArgumentBuilder<T extends Comparable<? super T>> {
     protected String[] names;
     protected String ref;
     protected Class<T> type;  // note: we may need to change this
@@ -16,26 +19,39 @@ public class ArgumentBuilder<T extends Comparable<T>> {
     protected boolean required;
     protected boolean positional;
 
-    private final String identifierPattern = "[a-zA-Z_-][a-zA-Z0-9_-]*";
+    static final List<Class<?>> validTypes = List.of(  // also the type codes of a SchemaSnapshot, so only append
+            BigInteger.class,
+            BigDecimal.class,
+            Date.class,
+            String.class,
+            Integer.class,
+            Long.class,
+            Double.class,
+            LocalDate.class,
+            Instant.class,
+            Duration.class
+    );
+
+    private static final String identifierPattern = "[a-zA-Z_-][a-zA-Z0-9_-]*";
 
     /**
      * Validates a string to ensure that it conforms with the regex pattern we've chosen
-     *  for identifiers.
+     *  for identifiers. Checked by hand rather than with the regex, since every builder checks its ref and names and
+     *  schemas are built on every start.
      * @param s String to check
      * @return Whether the given string passed
      */
-    private boolean validateIdentifierRegex(String s) {
-        return s.matches(identifierPattern);
+    private static boolean validateIdentifierRegex(String s) {
+        if (s.isEmpty()) { return false; }
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            boolean valid = (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || c == '_' || c == '-' || (i > 0 && c >= '0' && c <= '9');
+            if (!valid) { return false; }
+        }
+        return true;
     }
 
     public ArgumentBuilder(Class<T> type, String ref, String... names) {
-        Set<Class<?>> validTypes = new HashSet<>(Arrays.asList(
-                BigInteger.class,
-                BigDecimal.class,
-                Date.class,
-                String.class
-        ));
-
         // If not a valid type
         if (!validTypes.contains(type))
             throw new ArgumentBuilderException("Error: "+type+" is not a valid type. " +
@@ -46,10 +62,12 @@ public class ArgumentBuilder<T extends Comparable<T>> {
             throw new ArgumentBuilderException("Error: Ref does not conform to identifier regex " + identifierPattern);
 
         // If any of the names provided do not match the regex
-        var invalidNames = Arrays.stream(names).filter((name) -> !validateIdentifierRegex(name)).toArray();
-        if (invalidNames.length != 0) {
-            throw new ArgumentBuilderException("Error: Given name " + Arrays.toString(invalidNames)
-                    + "does not conform to identifier regex " + identifierPattern);
+        for (var name : names) {
+            if (!validateIdentifierRegex(name)) {
+                var invalidNames = Arrays.stream(names).filter((n) -> !validateIdentifierRegex(n)).toArray();
+                throw new ArgumentBuilderException("Error: Given name " + Arrays.toString(invalidNames)
+                        + "does not conform to identifier regex " + identifierPattern);
+            }
         }
 
         this.type = type;
@@ -57,6 +75,23 @@ public class ArgumentBuilder<T extends Comparable<T>> {
         this.names = names;
     }
 
+    /** For {@link #unchecked}, which sets the fields itself. */
+    private ArgumentBuilder() {}
+
+    /**
+     * Skips every check, for arguments that are known to be valid, such as those read from a {@link SchemaSnapshot}.
+     *
+     * @return A builder whose type, ref and names are not checked, nor are its nArgs when they are set with
+     * {@link #setNArgsUnchecked}.
+     */
+    static <T extends Comparable<? super T>> ArgumentBuilder<T> unchecked(Class<T> type, String ref, String... names) {
+        var builder = new ArgumentBuilder<T>();
+        builder.type = type;
+        builder.ref = ref;
+        builder.names = names;
+        return builder;
+    }
+
 
     // I honestly have no clue how we'll do type checking with IRange (or how java generics even work)
     public ArgumentBuilder<T> setRange(IRange<T> range) {
@@ -73,18 +108,23 @@ public class ArgumentBuilder<T extends Comparable<T>> {
             return this;
         }
 
-        // Validate that the string is an integer
-        Scanner sc = new Scanner(nArgs.trim());
-        if (!sc.hasNextInt())
+        // Validate that the string is an integer, and nothing else - parsed the way Arity reads it
+        try {
+            Integer.parseInt(nArgs.trim());
+        } catch (NumberFormatException e) {
             throw new ArgumentBuilderException(errorMessage);
+        }
 
-        // Move forward
-        sc.nextInt();
-
-        // Verify that there is nothing left
-        if (sc.hasNext())
-            throw new ArgumentBuilderException(errorMessage);
+        this.nArgs = nArgs;
+        return this;
+    }
 
+    /**
+     * Like {@link #setNArgs(String)}, but without checking that the nArgs are ?, *, + or an integer.
+     *
+     * @param nArgs nArgs known to be valid, such as those of a built argument.
+     */
+    ArgumentBuilder<T> setNArgsUnchecked(String nArgs) {
         this.nArgs = nArgs;
         return this;
     }
@@ -1,24 +1,49 @@
 package oop.project.cli.argparser;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
 import java.util.ArrayList;
-import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumMap;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
 
 public class ArgumentParser {
     private final String programName;
     public String description;
     private final MappedData namespace = new MappedData();
     ArrayList<Argument<?>> arguments = new ArrayList<>();
+    private final HashSet<String> names = new HashSet<>();  // every name of every argument, kept in step with arguments
+    private final HashSet<String> refs = new HashSet<>();
+    private final LinkedHashMap<String, LazyParser> subcommands = new LinkedHashMap<>();
+    private String help;  // cache for getHelp(), cleared whenever the schema changes
+    private Appendable helpOutput = System.out;
+    private boolean helpOnError = true;
+    private boolean stacklessErrors;
+    private MetricsRegistry metrics;  // null unless metrics are enabled
+    private boolean specializedValidation;
+    private final EnumMap<Lexer.TokenMode, CompiledParser> compiled = new EnumMap<>(Lexer.TokenMode.class);  // cache for compile(), cleared whenever the schema changes
 
     public ArgumentParser(String programName, String description) {
         this.programName = programName;
         this.description = description;
         this.namespace.map = new HashMap<>();
-        var helpFlag = new ArgumentBuilder<>(String.class, "help", "-h", "--help")
+        var helpFlag = ArgumentBuilder.unchecked(String.class, "help", "-h", "--help")
                 .setPositional(false)
                 .setRequired(false)
-                .setNArgs("0")
+                .setNArgsUnchecked("0")
                 .setHelpMessage("Help")
                 .build();
         addArgument(helpFlag);
@@ -32,18 +57,119 @@ public class ArgumentParser {
      * @param argument Argument to add to the parser.
      */
     public void addArgument(Argument<?> argument) {
-        // If any overlap between this argument's names and other, previously defined arguments, throw error
-        var namespaceNames = arguments.stream().flatMap(arg -> Arrays.stream(arg.names)).toList();
-        if (Arrays.stream(argument.names).anyMatch(namespaceNames::contains))
-            { throw new ArgumentException("Name identifier already exists with one of the following names: "+ Arrays.toString(argument.names)); }
+        addArguments(List.of(argument));
+    }
+
+    /**
+     * Adds several arguments at once. The whole batch is checked against the existing arguments and against itself
+     * in one pass; if any name or ref is taken, none of the arguments are added and every conflict is reported.
+     *
+     * @param batch Arguments to add, in order.
+     * @throws ArgumentException listing every name and ref that is already taken.
+     */
+    public void addArguments(Collection<? extends Argument<?>> batch) {
+        var batchNames = new HashSet<String>();
+        var batchRefs = new HashSet<String>();
+        var conflicts = new ArrayList<String>();
+        for (var argument : batch) {
+            // If any overlap between this argument's names and other, previously defined arguments, report it
+            for (var name : argument.names) {
+                if (names.contains(name) || !batchNames.add(name))
+                    { conflicts.add("Name identifier already exists: " + name + " (" + argument.ref + ")"); }
+            }
+            // If any overlap between this argument's refs and other, report it
+            if (refs.contains(argument.ref) || !batchRefs.add(argument.ref))
+                { conflicts.add("Reference already exists: " + argument.ref); }
+        }
+        if (!conflicts.isEmpty()) { throw new ArgumentException(String.join("; ", conflicts)); }
+
+        for (var argument : batch) {
+            arguments.add(argument);
+            namespace.map.put(argument.ref, argument);
+        }
+        names.addAll(batchNames);
+        refs.addAll(batchRefs);
+        compiled.clear();
+        help = null;
+    }
+
+    /**
+     * Adds a subcommand: when the first word of the input is <code>name</code>, the rest of the input is parsed by
+     * the child parser instead of this one. The child is only built the first time its subcommand is parsed, so
+     * declaring subcommands costs nothing until they are used.
+     *
+     * <p>Each child is configured on its own: it is compiled from its own settings, not this parser's, so
+     * {@link #setStacklessErrors}, {@link #setMetrics}, {@link #setSpecializedValidation} and {@link #setHelpOnError}
+     * do not carry over to subcommand inputs, even when they are parsed through this parser. Set them on the child
+     * in <code>child</code> to have them apply there too.
+     *
+     * @param name The word that selects the subcommand.
+     * @param child Builds the child parser. Called at most once.
+     */
+    public void addSubcommand(String name, Supplier<ArgumentParser> child) {
+        if (name.isEmpty() || name.chars().anyMatch(Character::isWhitespace))
+            { throw new ArgumentException("Subcommand name must be a single word: " + name); }
+        if (subcommands.putIfAbsent(name, new LazyParser(child)) != null)
+            { throw new ArgumentException("Subcommand already exists: " + name); }
+        compiled.clear();
+        help = null;
+    }
 
-        // If any overlap between this argument's refs and other, throw error
-        var namespaceRefs = arguments.stream().map(arg -> arg.ref).toList();
-        if (namespaceRefs.contains(argument.ref))
-            { throw new ArgumentException("Reference already exists: "+ argument.ref); }
+    /**
+     * Like {@link #addSubcommand(String, Supplier)}, for a child that only needs its arguments added: on first use a
+     * parser named <code>name</code> is created and handed to <code>configure</code>, which also sets any of the
+     * child's own settings.
+     *
+     * @param name The word that selects the subcommand, also used as the child's program name.
+     * @param description The child's description.
+     * @param configure Adds the child's arguments. Called at most once.
+     */
+    public void addSubcommand(String name, String description, Consumer<ArgumentParser> configure) {
+        addSubcommand(name, () -> {
+            var child = new ArgumentParser(name, description);
+            configure.accept(child);
+            return child;
+        });
+    }
 
-        arguments.add(argument);
-        namespace.map.put(argument.ref, argument);
+    /**
+     * Writes the schema - its arguments, their ranges, and the schemas of its subcommands - in a compact binary form
+     * that {@link #readSnapshot(InputStream)} loads without checking it again or running any builder. Meant to be
+     * written once, at build time, and shipped as a file or resource, so that a short-lived process does not pay for
+     * building its schema on every start. Help output and other settings are not part of the schema.
+     *
+     * <p>Subcommands are built in order to be written. Ranges must be {@link DiscreteValues}, {@link ContinuousRange}
+     * or {@link IntervalRange}.
+     *
+     * @throws IOException if the snapshot cannot be written.
+     * @throws ArgumentException if an argument has a range of any other kind.
+     */
+    public void writeSnapshot(OutputStream out) throws IOException {
+        SchemaSnapshot.write(this, out);
+    }
+
+    /**
+     * Loads a schema written by {@link #writeSnapshot(OutputStream)}. Subcommands are only decoded the first time
+     * they are used.
+     *
+     * @throws IOException if the snapshot cannot be read, or was not written by a compatible version.
+     */
+    public static ArgumentParser readSnapshot(InputStream in) throws IOException {
+        return SchemaSnapshot.read(in);
+    }
+
+    /** @return The names of the subcommands, in the order they were added. */
+    public Set<String> getSubcommands() {
+        return Collections.unmodifiableSet(subcommands.keySet());
+    }
+
+    String programName() {
+        return programName;
+    }
+
+    /** @return The subcommands, in the order they were added. */
+    Map<String, LazyParser> subcommandParsers() {
+        return Collections.unmodifiableMap(subcommands);
     }
 
     /**
@@ -56,79 +182,229 @@ public class ArgumentParser {
         return namespace.map.get(ref);
     }
 
-    // TODO: Better docstring once we figure out how this function is going to work.
-    //  When I say "user" here, I mean "developer who is using this parsing library."
-    //      Considerations:
-    //          - Does it make sense for lex and validate to be separate methods?
-    //              Could we not just have everything in the parse() method?
-    //              From the user's point of view, nothing would change, since lex and validate
-    //              are both private anyway
-    //          - What should this method return? How do we let the user know when something went
-    //              wrong? Do we return a string, maybe an int, or maybe some custom return object?
-    //              Do we catch the validation exceptions, or assume the user can catch those and deal with them
-    //              how they wish?
-    //          - How do we get input? Do we modify this method signature to take a string, or do we
-    //              actually wait for IO in this method? I think waiting for IO makes the most sense, but
-    //              we would have to properly document that so it doesn't surprise the user.
+    /**
+     * Compiles the arguments added so far into an immutable, thread-safe parser. The result is cached until the next
+     * call to {@link #addArgument(Argument)}.
+     *
+     * @return A parser for the current schema, producing decoded values.
+     */
+    public CompiledParser compile() {
+        return compile(Lexer.TokenMode.DECODED);
+    }
+
+    /**
+     * Like {@link #compile()}, but lets the caller choose how tokens are lexed. With {@link Lexer.TokenMode#SPANS}
+     * values are only decoded when they are read, which saves the allocations for arguments nobody reads.
+     *
+     * @param tokenMode How the compiled parser lexes its input.
+     * @return A parser for the current schema.
+     */
+    public CompiledParser compile(Lexer.TokenMode tokenMode) {
+        return compiled.computeIfAbsent(tokenMode, mode -> new CompiledParser(programName, arguments, subcommands, mode, stacklessErrors,
+                metrics == null ? null : metrics.forParser(programName), specializedValidation));
+    }
+
+    /**
+     * Parses the input and stores each argument's value in the namespace, where it can be read through
+     * {@link #getArgument(String)}. Prints the usage if validation fails.
+     *
+     * <p>Since this writes to the parser's own arguments it must not be called concurrently; use {@link #compile()}
+     * to get a parser that can be shared between threads.
+     *
+     * <p>If the first word of the input names a subcommand, the rest of the input is parsed by the subcommand's
+     * parser, and its namespace is returned instead.
+     *
+     * @param input Arguments to parse, without the command name.
+     * @return The namespace, holding the parsed values.
+     * @throws ArgParseException if the input does not match the schema.
+     */
     public MappedData parse(String input) throws ArgParseException {
-        // TODO: Full end-to-end parsing, calling lex and validate
-//        try {
-//            validate(lex(input));
-//        } catch (ValidationException err) {
-//            // TODO: Do something with it, tell the user somehow
-//        }
-        validate(new Lexer(input).lex(), namespace); //will be caught by programmer
+        var child = compile().subcommand(input);
+        if (child != null) { return child.parse(CompiledParser.afterWord(input, CompiledParser.wordEnd(input)).toString()); }
+        var compiled = compile();
+        long start = compiled.startTime();
+        var result = validate(compiled, input, compiled.lex(input, stacklessErrors, start), start); //will be caught by programmer
+        for (var argument : arguments) { argument.value = new ArrayList<>(result.getValue(argument.ref)); }
         return namespace;
     }
 
+    /**
+     * Parses the input against the current schema, returning errors instead of throwing them. Like
+     * {@link #parseAll(List)}, this leaves the namespace untouched and never prints the usage; see
+     * {@link CompiledParser#tryParse(CharSequence)}.
+     *
+     * @param input Arguments to parse, without the command name.
+     * @return The parsed values, or every error found in the input.
+     */
+    public ParseOutcome tryParse(String input) {
+        return compile().tryParse(input);
+    }
+
+    /**
+     * Completes a partial command line against the current schema; see {@link CompiledParser#complete(CharSequence, int)}.
+     *
+     * @param line The line typed so far, without the command name.
+     * @param cursor Offset of the cursor in the line.
+     * @return Where the word being completed starts, and what it could be completed to.
+     */
+    public Completions complete(String line, int cursor) {
+        return compile().complete(line, cursor);
+    }
+
+    /**
+     * Parses many inputs in parallel against the current schema. Unlike {@link #parse(String)}, this leaves the
+     * namespace untouched and never prints the usage; see {@link CompiledParser#parseAll(List)}.
+     *
+     * @param inputs Inputs to parse, each without the command name.
+     * @return One result per input, in input order.
+     */
+    public List<BatchResult> parseAll(List<String> inputs) {
+        return compile().parseAll(inputs);
+    }
+
+    /**
+     * Stream form of {@link #parseAll(List)}; see {@link CompiledParser#parseAll(Stream, boolean)}.
+     *
+     * @param inputs Inputs to parse, each without the command name.
+     * @param ordered Whether results must come out in input order.
+     * @return One result per input.
+     */
+    public Stream<BatchResult> parseAll(Stream<String> inputs, boolean ordered) {
+        return compile().parseAll(inputs, ordered);
+    }
+
+    /**
+     * Parses every line of a file against the current schema; see {@link CompiledParser#parseFile(Path, Consumer)}.
+     *
+     * @param path File of inputs, one per line, each without the command name.
+     * @param action Called with the result of each line, in file order.
+     * @throws IOException if the file cannot be read.
+     */
+    public void parseFile(Path path, Consumer<BatchResult> action) throws IOException {
+        compile().parseFile(path, action);
+    }
 
     /**
      * Validates the tokens with the arguments currently in the namespace. I.e., checks their types, ranges,
      *  number of args, etc. Throws a validation error if something is awry.
      * @param tokens List of tokens, as generated from lex.
      */
-    private void validate(ArrayList<ArgToken> tokens, MappedData data) throws ArgParseException {
-        var v = new Validator(arguments);
+    private ParsedArguments validate(CompiledParser compiled, String input, TokenList tokens, long start) throws ArgParseException {
         try {
-            v.validate(tokens);
+            return compiled.validate(input, tokens, start);
         } catch (ArgParseException e) {
-            invokeHelp();
+            invokeHelpOnError();
             throw e;
         }
     }
 
+    /**
+     * Writes the usage and options to the help output, in a single write.
+     *
+     * @throws UncheckedIOException if the help output cannot be written to.
+     */
     public void invokeHelp() {
-        System.out.print("Usage: " );
-        StringBuilder positionals = new StringBuilder();
+        try {
+            helpOutput.append(getHelp());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /** Invokes the help if it is enabled on errors; called by everything that parses with this schema. */
+    void invokeHelpOnError() {
+        if (helpOnError) { invokeHelp(); }
+    }
+
+    /**
+     * @return The usage and options of this parser, as printed by {@link #invokeHelp()}. Arguments are listed in the
+     * order they were added. Rendered once and cached until the schema changes.
+     */
+    public String getHelp() {
+        var event = new ParseEvents.Help();
+        event.begin();
+        boolean cached = help != null;
+        if (!cached) { help = renderHelp(); }
+        event.finish(programName, arguments.size(), help, cached);
+        return help;
+    }
+
+    /**
+     * @param helpOutput Where {@link #invokeHelp()} writes, {@link System#out} by default.
+     */
+    public void setHelpOutput(Appendable helpOutput) {
+        this.helpOutput = Objects.requireNonNull(helpOutput);
+    }
+
+    /**
+     * @param helpOnError Whether a failed parse invokes the help before throwing, true by default. Turn it off when
+     *                    the caller reports errors itself, or when bad input is expected to be common.
+     */
+    public void setHelpOnError(boolean helpOnError) {
+        this.helpOnError = helpOnError;
+    }
+
+    /**
+     * @param stacklessErrors Whether the exceptions thrown for rejected input skip filling in their stack trace,
+     *                        false by default. Their message and {@link ArgParseException#getError()} are unaffected;
+     *                        turn this on when rejected input is common and its traces are never looked at.
+     */
+    public void setStacklessErrors(boolean stacklessErrors) {
+        this.stacklessErrors = stacklessErrors;
+        compiled.clear();
+    }
+
+    /**
+     * @param metrics Where parses with this schema record their {@link ParserMetrics}, under its program name, or
+     *                null to record none, the default.
+     */
+    public void setMetrics(MetricsRegistry metrics) {
+        this.metrics = metrics;
+        compiled.clear();
+    }
+
+    /**
+     * @param specializedValidation Whether compiling generates code for this schema that checks the names, types and
+     *                              number of values of named arguments, false by default. Generating it costs about a
+     *                              millisecond per compile, so turn this on for schemas that are built at runtime and
+     *                              then parse many inputs; for schemas known at compile time see
+     *                              {@link oop.project.cli.annotations.Command}. Results and errors are the same either
+     *                              way, and if the code cannot be generated the generic checks are used.
+     */
+    public void setSpecializedValidation(boolean specializedValidation) {
+        this.specializedValidation = specializedValidation;
+        compiled.clear();
+    }
+
+    private String renderHelp() {
+        var usage = new StringBuilder("Usage: ");
+        var positionals = new StringBuilder();
         int optional = 0;
-        for(var entry : namespace.map.entrySet()){
-            var value = entry.getValue();
-            if(value.positional){
+        for (var value : arguments) {
+            if (value.positional) {
                 var name = value.helpName == null ? value.ref : value.helpName;
                 positionals.append("[").append(name).append(": ").append(value.type.getSimpleName()).append("] ");
-            }else{
-                if(!value.required){
-                    if (!value.ref.equals("help")) { optional++; }
-                    continue;
-                }
+            } else if (!value.required) {
+                if (!value.ref.equals("help")) { optional++; }
+            } else {
                 var name = value.helpName == null ? value.names[0] : value.helpName;
-                System.out.print("<" + name +": "+value.type.getSimpleName()+ "> ");
+                usage.append("<").append(name).append(": ").append(value.type.getSimpleName()).append("> ");
             }
         }
-        if(optional > 0) System.out.print("< options > ");
-        System.out.println(positionals + "\nOptions:");
-
-        for(var entry : namespace.map.entrySet()) {
-            var value = entry.getValue();
-            if(!value.positional && !value.ref.equals("help")){
-                for (int i = 0; i < value.names.length; i++) {
-                    System.out.print(value.names[i]);
-                    if (i < value.names.length - 1) System.out.print(", ");
-                }
-                if(value.helpMessage != null)
-                    System.out.print("\t\t" + value.helpMessage);
-                System.out.println();
+        if (optional > 0) { usage.append("< options > "); }
+        usage.append(positionals).append("\nOptions:\n");
+
+        for (var value : arguments) {
+            if (!value.positional && !value.ref.equals("help")) {
+                usage.append(String.join(", ", value.names));
+                if (value.helpMessage != null) { usage.append("\t\t").append(value.helpMessage); }
+                usage.append("\n");
             }
         }
+        if (!subcommands.isEmpty()) {
+            usage.append("Commands:\n");
+            for (var name : subcommands.keySet()) { usage.append(name).append("\n"); }
+        }
+        return usage.toString();
     }
 }
@@ -0,0 +1,37 @@
+package oop.project.cli.argparser;
+
+/**
+ * Compiled form of an argument's nArgs string - the inclusive range of how many values the argument accepts.
+ * @param min Fewest values accepted.
+ * @param max Most values accepted, {@link Integer#MAX_VALUE} if unbounded.
+ */
+public record Arity(int min, int max) {
+    private static final Arity OPTIONAL = new Arity(0, 1);
+    private static final Arity ANY = new Arity(0, Integer.MAX_VALUE);
+    private static final Arity AT_LEAST_ONE = new Arity(1, Integer.MAX_VALUE);
+
+    /**
+     * Compiles an nArgs string, as accepted by {@link ArgumentBuilder#setNArgs(String)}.
+     *
+     * @param nArgs One of ?, *, + or an integer.
+     * @return The arity described by the string.
+     */
+    public static Arity of(String nArgs) {
+        if (nArgs == null) { throw new ArgumentException("nArgs was never set."); }
+        return switch (nArgs) {
+            case "?" -> OPTIONAL;
+            case "*" -> ANY;
+            case "+" -> AT_LEAST_ONE;
+            default -> {
+                try {
+                    int count = Integer.parseInt(nArgs.trim());
+                    yield new Arity(count, count);
+                } catch (NumberFormatException e) { throw new ArgumentException("Unknown value of nArgs."); }
+            }
+        };
+    }
+
+    public boolean accepts(int count) {
+        return count >= min && count <= max;
+    }
+}
@@ -0,0 +1,15 @@
+package oop.project.cli.argparser;
+
+/**
+ * The outcome of parsing one input of a batch: either its arguments or the error that rejected it. Exactly one of
+ * <code>arguments</code> and <code>error</code> is non-null.
+ *
+ * @param input The input that was parsed.
+ * @param arguments Its parsed values, or null if it was rejected.
+ * @param error Why it was rejected - an {@link ArgParseException} or a {@link ParseException} - or null if it parsed.
+ */
+public record BatchResult(CharSequence input, ParsedArguments arguments, Exception error) {
+    public boolean isSuccess() {
+        return error == null;
+    }
+}
@@ -0,0 +1,422 @@
+package oop.project.cli.argparser;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * An immutable, precompiled form of an {@link ArgumentParser}'s schema. Everything the validator needs on every
+ * token (name lookup, the order of positional arguments, nArgs) is worked out once here. Nothing is written to the
+ * schema while parsing, so one instance can be shared by any number of threads.
+ *
+ * <p>Obtained through {@link ArgumentParser#compile()}.
+ */
+public final class CompiledParser {
+    /** Batches are split until each task parses at most this many inputs. */
+    private static final int BATCH_SPLIT_THRESHOLD = 256;
+
+    private final String programName;
+    private final Argument<?>[] arguments;  // indexed by slot, in the order they were added
+    private final Arity[] arities;
+    private final NameIndex slotsByName;
+    private final int[] shortFlagSlots = new int[52];  // slot of each single-letter name (-a..-z, -A..-Z), or -1
+    private final Map<String, Integer> slotsByRef;
+    private final PositionalPlan positionalPlan;
+    private final Lexer.TokenMode tokenMode;
+    private final PrefixTrie<LazyParser> subcommands;  // null if there are none
+    private final boolean stackless;
+    private final ParserMetrics metrics;  // null unless metrics are enabled
+    private final NamedCheck namedCheck;  // null unless specialized, or if specializing failed
+    private volatile Completer completer;  // built on first use; a race only builds an identical one twice
+
+    CompiledParser(String programName, List<Argument<?>> arguments, Map<String, LazyParser> subcommands, Lexer.TokenMode tokenMode,
+                   boolean stackless, ParserMetrics metrics, boolean specialize) {
+        this.programName = programName;
+        this.tokenMode = tokenMode;
+        this.stackless = stackless;
+        this.metrics = metrics;
+        if (subcommands.isEmpty()) {
+            this.subcommands = null;
+        } else {
+            this.subcommands = new PrefixTrie<>();
+            subcommands.forEach(this.subcommands::put);
+        }
+        this.arguments = arguments.toArray(new Argument<?>[0]);
+        this.arities = new Arity[this.arguments.length];
+
+        Arrays.fill(shortFlagSlots, -1);
+        var byName = new HashMap<String, Integer>();
+        var byRef = new HashMap<String, Integer>();
+        int positionals = 0;
+        for (int slot = 0; slot < this.arguments.length; slot++) {
+            var argument = this.arguments[slot];
+            arities[slot] = Arity.of(argument.nArgs);
+            byRef.put(argument.ref, slot);
+            for (var name : argument.names) {
+                byName.put(name, slot);
+                int letter = shortFlagIndex(name);
+                if (letter >= 0) { shortFlagSlots[letter] = slot; }
+            }
+            if (argument.positional) { positionals++; }
+        }
+        this.slotsByName = new NameIndex(byName);
+        this.slotsByRef = Map.copyOf(byRef);
+
+        var positionalSlots = new int[positionals];
+        for (int slot = 0, i = 0; slot < this.arguments.length; slot++) {
+            if (this.arguments[slot].positional) { positionalSlots[i++] = slot; }
+        }
+        this.positionalPlan = new PositionalPlan(this, positionalSlots);
+        this.namedCheck = specialize ? specialize() : null;
+    }
+
+    /** @return A check specialized for this schema, or null to fall back to the generic checks if one cannot be made. */
+    private NamedCheck specialize() {
+        try {
+            return ValidatorSpecializer.specialize(this);
+        } catch (ReflectiveOperationException | RuntimeException | LinkageError e) {
+            return null;
+        }
+    }
+
+    /**
+     * Lexes and validates the input. Each call works on its own state and returns a fresh result, so this may be
+     * called concurrently.
+     *
+     * <p>If this parser was compiled for {@link Lexer.TokenMode#SPANS}, the result refers back to the input, which
+     * must not change while the result is in use.
+     *
+     * <p>If the first word of the input names a subcommand, the rest of the input is parsed by that subcommand's
+     * parser instead, which is built on first use; see {@link ParsedArguments#getProgramName()}.
+     *
+     * @param input Arguments to parse, without the command name.
+     * @return The values of every argument in the schema.
+     * @throws ArgParseException if the input does not match the schema.
+     */
+    public ParsedArguments parse(CharSequence input) throws ArgParseException {
+        if (subcommands != null) {
+            int end = wordEnd(input);
+            var child = subcommands.get(input, 0, end);
+            if (child != null) { return child.parser(tokenMode).parse(afterWord(input, end)); }
+        }
+        long start = startTime();
+        return validate(input, lex(input, stackless, start), start);
+    }
+
+    /**
+     * Like {@link #parse(CharSequence)}, but returns errors instead of throwing them, and reports every error in the
+     * input rather than only the first. No stack traces are filled in, so rejecting input costs about as much as
+     * accepting it.
+     *
+     * <p>Lexing still stops at the first syntax error, since the tokens after it cannot be told apart; that error is
+     * then the only one reported.
+     *
+     * @param input Arguments to parse, without the command name.
+     * @return The values of every argument in the schema, or the errors found, in input order.
+     */
+    public ParseOutcome tryParse(CharSequence input) {
+        if (subcommands != null) {
+            int end = wordEnd(input);
+            var child = subcommands.get(input, 0, end);
+            if (child != null) {
+                var outcome = child.parser(tokenMode).tryParse(afterWord(input, end));
+                if (outcome instanceof ParseOutcome.Failure(var errors) && end < input.length()) {
+                    return new ParseOutcome.Failure(errors.stream().map(error -> error.shifted(end + 1)).toList());
+                }
+                return outcome;
+            }
+        }
+        long start = startTime();
+        TokenList tokens;
+        try {
+            tokens = lex(input, true, start);
+        } catch (ArgParseException e) {
+            return new ParseOutcome.Failure(List.of(e.getError()));
+        } catch (ParseException e) {
+            return new ParseOutcome.Failure(List.of(e.getError()));
+        }
+        var errors = new ArrayList<ParseError>();
+        var event = new ParseEvents.Validate();
+        event.begin();
+        var result = new Validator(this, errors).collect(tokens);
+        var first = errors.isEmpty() ? null : errors.getFirst();
+        event.finish(programName, input.length(), tokens.size(), first);
+        if (metrics != null) { metrics.record(tokens.size(), start, result == null, first); }
+        if (result != null) { return new ParseOutcome.Success(result); }
+        errors.sort(Comparator.comparingInt(error -> error.position() < 0 ? Integer.MAX_VALUE : error.position()));
+        return new ParseOutcome.Failure(List.copyOf(errors));
+    }
+
+    /**
+     * Parses every input in parallel on the common fork-join pool. An input that fails to parse does not stop the
+     * others; its error is recorded in its result instead.
+     *
+     * @param inputs Inputs to parse, each without the command name.
+     * @return One result per input, in the same order as the inputs.
+     */
+    public List<BatchResult> parseAll(List<? extends CharSequence> inputs) {
+        var results = new BatchResult[inputs.size()];
+        ForkJoinPool.commonPool().invoke(new BatchTask(List.copyOf(inputs), results, 0, results.length));
+        return Arrays.asList(results);
+    }
+
+    /**
+     * Parses a stream of inputs in parallel, recording errors per input like {@link #parseAll(List)}. Inputs are only
+     * parsed as the returned stream is consumed, but a parallel stream splits its source into batches, and results are
+     * held until a terminal operation lets go of them, so memory is not bounded by one input. For inputs that do not
+     * fit in memory, see {@link #parseFile(Path, Consumer)}.
+     *
+     * @param inputs Inputs to parse, each without the command name.
+     * @param ordered Whether results must come out in input order. Unordered results are produced as soon as they
+     *                are ready, which keeps all cores busy when some inputs take much longer than others.
+     * @return One result per input.
+     */
+    public Stream<BatchResult> parseAll(Stream<? extends CharSequence> inputs, boolean ordered) {
+        var parallel = inputs.parallel();
+        return (ordered ? parallel : parallel.unordered()).map(this::parseOne);
+    }
+
+    /**
+     * Parses every line of a newline-delimited file, in order, handing each result to <code>action</code> as soon as
+     * it is ready. The file is memory-mapped and its lines are lexed straight from the mapping, so arbitrarily large
+     * files can be processed without reading them into Strings first. As with {@link #parseAll(List)}, a line that
+     * fails to parse does not stop the others.
+     *
+     * <p>Results of a parser compiled for {@link Lexer.TokenMode#SPANS} keep the mapping alive while they are in use.
+     *
+     * @param path File of inputs, one per line, each without the command name.
+     * @param action Called with the result of each line.
+     * @throws IOException if the file cannot be read.
+     */
+    public void parseFile(Path path, Consumer<BatchResult> action) throws IOException {
+        MappedLines.forEach(path, line -> action.accept(parseOne(line)));
+    }
+
+    /**
+     * Completes a partial command line, as a shell does on tab. Where the cursor is in an argument name, the names
+     * that start with what was typed are offered, with a trailing <code>=</code> if the argument must be given a value;
+     * where it is in a value (after <code>name=</code>, in a list, or a positional value), the members of the
+     * argument's {@link DiscreteValues} range. In the first word, subcommand names are offered as well, and after it
+     * the subcommand completes the rest.
+     *
+     * <p>The candidates are looked up in tries built on the first call, so completion takes time in the length of the
+     * word and the number of candidates, however many arguments the schema has.
+     *
+     * @param line The line typed so far, without the command name.
+     * @param cursor Offset of the cursor in the line.
+     * @return Where the word being completed starts, and what it could be completed to.
+     * @throws IndexOutOfBoundsException if the cursor is not within the line.
+     */
+    public Completions complete(CharSequence line, int cursor) {
+        Objects.checkIndex(cursor, line.length() + 1);
+        if (subcommands != null) {
+            int end = wordEnd(line);
+            if (cursor <= end) {
+                var completions = completer().complete(line, cursor);
+                if (completions.start() != 0) { return completions; }
+                var candidates = new ArrayList<>(completions.candidates());
+                subcommands.keysWithPrefix(line, 0, cursor, candidates);
+                Collections.sort(candidates);
+                return new Completions(0, candidates);
+            }
+            var child = subcommands.get(line, 0, end);
+            if (child != null) {
+                var completions = child.parser(tokenMode).complete(afterWord(line, end), cursor - end - 1);
+                return new Completions(completions.start() + end + 1, completions.candidates());
+            }
+        }
+        return completer().complete(line, cursor);
+    }
+
+    private Completer completer() {
+        var completer = this.completer;
+        if (completer == null) { this.completer = completer = new Completer(this); }
+        return completer;
+    }
+
+    /** @return The time a parse starts at, as {@link ParserMetrics} wants it; not read unless metrics are enabled. */
+    long startTime() {
+        return metrics == null ? 0 : System.nanoTime();
+    }
+
+    /**
+     * Lexes the input for this parser's own schema, emitting a {@link ParseEvents.Lex} event, and recording the parse
+     * in the metrics if the input is rejected here. Always lexed as spans, so that numbers can be parsed straight into
+     * primitives; the validator decodes the rest up front if this parser is meant to produce decoded values.
+     *
+     * @param start When the parse started, from {@link #startTime()}.
+     */
+    TokenList lex(CharSequence input, boolean stackless, long start) throws ArgParseException {
+        var event = new ParseEvents.Lex();
+        event.begin();
+        try {
+            var tokens = new Lexer(input, Lexer.TokenMode.SPANS, stackless).lex();
+            event.finish(programName, input.length(), tokens.size(), null);
+            return tokens;
+        } catch (ArgParseException | ParseException e) {
+            var error = ParseEvents.errorOf(e);
+            event.finish(programName, input.length(), 0, error);
+            if (metrics != null) { metrics.record(0, start, true, error); }
+            throw e;
+        }
+    }
+
+    /**
+     * Validates the tokens of the input, emitting a {@link ParseEvents.Validate} event and recording the parse in the
+     * metrics.
+     *
+     * @param start When the parse started, from {@link #startTime()}.
+     */
+    ParsedArguments validate(CharSequence input, TokenList tokens, long start) throws ArgParseException {
+        var event = new ParseEvents.Validate();
+        event.begin();
+        try {
+            var result = new Validator(this).validate(tokens);
+            event.finish(programName, input.length(), tokens.size(), null);
+            if (metrics != null) { metrics.record(tokens.size(), start, false, null); }
+            return result;
+        } catch (ArgParseException e) {
+            event.finish(programName, input.length(), tokens.size(), e.getError());
+            if (metrics != null) { metrics.record(tokens.size(), start, true, e.getError()); }
+            throw e;
+        }
+    }
+
+    /** Parses one input of a batch, catching the errors that reject it. */
+    private BatchResult parseOne(CharSequence input) {
+        try {
+            return new BatchResult(input, parse(input), null);
+        } catch (ArgParseException | ParseException e) {
+            return new BatchResult(input, null, e);
+        }
+    }
+
+    public String getProgramName() {
+        return programName;
+    }
+
+    public List<Argument<?>> getArguments() {
+        return List.of(arguments);
+    }
+
+    public Lexer.TokenMode getTokenMode() {
+        return tokenMode;
+    }
+
+    /** @return Whether {@link #parse(CharSequence)} throws without stack traces; see {@link ArgumentParser#setStacklessErrors(boolean)}. */
+    public boolean isStackless() {
+        return stackless;
+    }
+
+    /**
+     * @return Whether named arguments are checked by code generated for this schema; see
+     * {@link ArgumentParser#setSpecializedValidation(boolean)}. False if that was asked for but the code could not be
+     * generated, in which case the generic checks are used.
+     */
+    public boolean isSpecialized() {
+        return namedCheck != null;
+    }
+
+    /** @return The specialized check of named arguments, or null. */
+    NamedCheck namedCheck() {
+        return namedCheck;
+    }
+
+    /** @return The metrics this parser records into, or null if metrics are disabled; see {@link ArgumentParser#setMetrics(MetricsRegistry)}. */
+    public ParserMetrics getMetrics() {
+        return metrics;
+    }
+
+    int size() {
+        return arguments.length;
+    }
+
+    Argument<?> argument(int slot) {
+        return arguments[slot];
+    }
+
+    Arity arity(int slot) {
+        return arities[slot];
+    }
+
+    PositionalPlan positionalPlan() {
+        return positionalPlan;
+    }
+
+    /** @return The subcommand named by the first word of the input, or null if there is none. */
+    LazyParser subcommand(CharSequence input) {
+        return subcommands == null ? null : subcommands.get(input, 0, wordEnd(input));
+    }
+
+    /** @return Where the first word of the input ends. */
+    static int wordEnd(CharSequence input) {
+        int end = 0;
+        while (end < input.length() && input.charAt(end) != ' ') { end++; }
+        return end;
+    }
+
+    /** @return The input after its first word and the space that follows it. */
+    static CharSequence afterWord(CharSequence input, int wordEnd) {
+        return wordEnd < input.length() ? input.subSequence(wordEnd + 1, input.length()) : "";
+    }
+
+    /**
+     * @return The slot of the argument that has the given name, or -1 if there is none. Single-letter names, as the
+     * lexer emits for each letter of a short flag cluster like <code>-abc</code>, are read straight from a table.
+     */
+    int slotOfName(CharSequence name) {
+        int letter = shortFlagIndex(name);
+        return letter >= 0 ? shortFlagSlots[letter] : slotsByName.get(name);
+    }
+
+    /** @return The index of a single-letter name like -a in the short flag table, or -1 for any other name. */
+    private static int shortFlagIndex(CharSequence name) {
+        if (name.length() != 2 || name.charAt(0) != '-') { return -1; }
+        char c = name.charAt(1);
+        if (c >= 'a' && c <= 'z') { return c - 'a'; }
+        if (c >= 'A' && c <= 'Z') { return 26 + c - 'A'; }
+        return -1;
+    }
+
+    /** @return The slot of the argument with the given ref. */
+    int slotOfRef(String ref) {
+        var slot = slotsByRef.get(ref);
+        if (slot == null) { throw new ArgumentException("No argument with ref " + ref + "."); }
+        return slot;
+    }
+
+    /** Parses a range of a batch, splitting it in halves until it is small enough to do directly. */
+    private final class BatchTask extends RecursiveAction {
+        private final List<? extends CharSequence> inputs;
+        private final BatchResult[] results;
+        private final int from, to;
+
+        BatchTask(List<? extends CharSequence> inputs, BatchResult[] results, int from, int to) {
+            this.inputs = inputs;
+            this.results = results;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= BATCH_SPLIT_THRESHOLD) {
+                for (int i = from; i < to; i++) { results[i] = parseOne(inputs.get(i)); }
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new BatchTask(inputs, results, from, mid), new BatchTask(inputs, results, mid, to));
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package oop.project.cli.argparser;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Completes a partial command line against one {@link CompiledParser}: argument names where a name is being typed, and
+ * the members of a {@link DiscreteValues} range where a value is. Every candidate is kept in a {@link PrefixTrie}
+ * built once per schema, so a completion only looks at the candidates that match.
+ */
+final class Completer {
+    private static final int POSITIONAL = -2;  // owner of a value that belongs to a positional argument
+
+    private final CompiledParser parser;
+    private final PrefixTrie<Boolean> names = new PrefixTrie<>();
+    private final List<PrefixTrie<Boolean>> values = new ArrayList<>();  // literals of each slot's discrete values, or null
+    private PrefixTrie<Boolean> positionalValues;  // literals of every positional argument's discrete values, or null
+
+    Completer(CompiledParser parser) {
+        this.parser = parser;
+        for (int slot = 0; slot < parser.size(); slot++) {
+            var argument = parser.argument(slot);
+            // Names that cannot stand alone - keys, and flags that must be given a value - are offered with the = that
+            // has to follow them. A short flag like -f is always lexed on its own, so it is not offered at all then.
+            boolean takesValue = !parser.arity(slot).accepts(0);
+            for (var name : argument.names) {
+                boolean shortFlag = name.startsWith("-") && !name.startsWith("--");
+                if (!name.startsWith("-") || (takesValue && !shortFlag)) { names.put(name + "=", Boolean.TRUE); }
+                else if (!takesValue) { names.put(name, Boolean.TRUE); }
+            }
+
+            PrefixTrie<Boolean> literals = null;
+            if (argument.range instanceof DiscreteValues<?> discrete) {
+                literals = new PrefixTrie<>();
+                for (var value : discrete.values()) {
+                    var literal = literal(value);
+                    if (literal == null) { continue; }
+                    literals.put(literal, Boolean.TRUE);
+                    if (argument.positional) {
+                        if (positionalValues == null) { positionalValues = new PrefixTrie<>(); }
+                        positionalValues.put(literal, Boolean.TRUE);
+                    }
+                }
+            }
+            values.add(literals);
+        }
+    }
+
+    /** @see CompiledParser#complete(CharSequence, int) */
+    Completions complete(CharSequence line, int cursor) {
+        // Find the word the cursor is in, and the list element if it is inside a list. Spaces in strings split neither.
+        int wordStart = 0, elementStart = -1, listOwner = -1;
+        boolean quoted = false;
+        for (int i = 0; i < cursor; i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '\\') { i++; }
+                else if (c == '"') {
+                    if (i + 1 < cursor && line.charAt(i + 1) == '"') { i++; }
+                    else { quoted = false; }
+                }
+            }
+            else if (c == '"') { quoted = true; }
+            else if (c == ' ') {
+                if (elementStart >= 0) { elementStart = i + 1; }
+                else { wordStart = i + 1; }
+            }
+            else if (c == '[' && elementStart < 0) {
+                elementStart = i + 1;
+                listOwner = i == wordStart ? POSITIONAL : ownerOfValue(line, wordStart, i);
+            }
+            else if (c == ']') { elementStart = -1; }
+        }
+
+        if (elementStart >= 0) { return values(listOwner, line, elementStart, cursor); }
+        if (wordStart == cursor) {
+            var candidates = new ArrayList<String>();
+            names.keysWithPrefix(line, cursor, cursor, candidates);
+            if (positionalValues != null) { positionalValues.keysWithPrefix(line, cursor, cursor, candidates); }
+            Collections.sort(candidates);
+            return new Completions(cursor, candidates);
+        }
+        char first = line.charAt(wordStart);
+        boolean negative = first == '-' && wordStart + 1 < cursor && (Character.isDigit(line.charAt(wordStart + 1)) || line.charAt(wordStart + 1) == '.');
+        if (first == '"' || Character.isDigit(first) || first == '.' || negative) {
+            return values(POSITIONAL, line, wordStart, cursor);
+        }
+        for (int i = wordStart; i < cursor; i++) {
+            if (line.charAt(i) == '=') { return values(ownerOfValue(line, wordStart, i + 1), line, i + 1, cursor); }
+        }
+        var candidates = new ArrayList<String>();
+        names.keysWithPrefix(line, wordStart, cursor, candidates);
+        return new Completions(wordStart, candidates);
+    }
+
+    /** @return The slot named by <code>name=</code> ending just before <code>valueStart</code>, or -1. */
+    private int ownerOfValue(CharSequence line, int wordStart, int valueStart) {
+        if (valueStart - 1 <= wordStart || line.charAt(valueStart - 1) != '=') { return -1; }
+        return parser.slotOfName(line.subSequence(wordStart, valueStart - 1));
+    }
+
+    private Completions values(int owner, CharSequence line, int start, int cursor) {
+        var trie = owner == POSITIONAL ? positionalValues : owner >= 0 ? values.get(owner) : null;
+        if (trie == null) { return new Completions(start, List.of()); }
+        var candidates = new ArrayList<String>();
+        trie.keysWithPrefix(line, start, cursor, candidates);
+        return new Completions(start, candidates);
+    }
+
+    /** @return How a value is written on the command line, or null if it cannot be. */
+    private static String literal(Object value) {
+        return switch (value) {
+            case String s -> '"' + s.replace("\\", "\\\\").replace("\"", "\\\"") + '"';
+            case Double d -> BigDecimal.valueOf(d).toPlainString();
+            case BigDecimal d -> d.toPlainString();
+            case Number n -> n.toString();
+            case LocalDate d -> fourDigitYear(d.toString());
+            case Instant i -> fourDigitYear(i.toString());
+            case Date d -> fourDigitYear(d.toInstant().toString());
+            case Duration d -> d.toString();
+            default -> null;
+        };
+    }
+
+    /**
+     * @return A date or instant as ISO-8601 text, or null if its year is outside 0000 to 9999: those are written with a
+     * sign, which the lexer does not read.
+     */
+    private static String fourDigitYear(String text) {
+        return Character.isDigit(text.charAt(0)) ? text : null;
+    }
+}
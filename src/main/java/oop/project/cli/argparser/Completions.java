@@ -0,0 +1,12 @@
+package oop.project.cli.argparser;
+
+import java.util.List;
+
+/**
+ * The result of {@link CompiledParser#complete(CharSequence, int)}.
+ *
+ * @param start Offset in the line where the text being completed starts; a candidate replaces the line from here up
+ *              to the cursor.
+ * @param candidates What the text could be completed to, sorted. Empty if nothing fits.
+ */
+public record Completions(int start, List<String> candidates) {}
@@ -1,6 +1,6 @@
 package oop.project.cli.argparser;
 
-public class ContinuousRange<T extends Comparable<T>> implements IRange<T> {
+public class ContinuousRange<T extends Comparable<? super T>> implements IRange<T>, PrimitiveRange {
     private final T lowerBound;
     private final T upperBound;
 
@@ -9,11 +9,92 @@ public class ContinuousRange<T extends Comparable<T>> implements IRange<T> {
         this.upperBound = upper;
     }
 
+    T lower() { return lowerBound; }
+
+    T upper() { return upperBound; }
+
     @Override
     public boolean isInRange(T value) {
         return value.compareTo(lowerBound) >= 0 && value.compareTo(upperBound) <= 0;
     }
 
+    // The primitive checks first test the whole array without branching, which the JIT can vectorize, and only
+    // look for the offending index when there is one
+
+    @Override
+    public int indexOutOfRange(int[] values) {
+        if (!(lowerBound instanceof Integer lower && upperBound instanceof Integer upper)) { return UNSUPPORTED; }
+        int lo = lower, hi = upper;
+        boolean out = false;
+        for (int value : values) { out |= value < lo | value > hi; }
+        if (!out) { return -1; }
+        for (int i = 0; ; i++) {
+            if (values[i] < lo || values[i] > hi) { return i; }
+        }
+    }
+
+    @Override
+    public int indexOutOfRange(long[] values) {
+        if (!(lowerBound instanceof Long lower && upperBound instanceof Long upper)) { return UNSUPPORTED; }
+        long lo = lower, hi = upper;
+        boolean out = false;
+        for (long value : values) { out |= value < lo | value > hi; }
+        if (!out) { return -1; }
+        for (int i = 0; ; i++) {
+            if (values[i] < lo || values[i] > hi) { return i; }
+        }
+    }
+
+    @Override
+    public int indexOutOfRange(double[] values) {
+        if (!(lowerBound instanceof Double lower && upperBound instanceof Double upper)) { return UNSUPPORTED; }
+        double lo = lower, hi = upper;
+        boolean out = false;
+        for (double value : values) { out |= !(value >= lo & value <= hi); }  // NaN is never in range
+        if (!out) { return -1; }
+        for (int i = 0; ; i++) {
+            if (!(values[i] >= lo && values[i] <= hi)) { return i; }
+        }
+    }
+
+    @Override
+    public int indexOutOfRange(LongChunks values) {
+        // Only called to find the offending value once containsAll has failed, so no need to check the whole list first
+        switch (lowerBound) {
+            case Integer lower -> {
+                long lo = lower, hi = (Integer) upperBound;
+                for (int i = 0; i < values.size(); i++) {
+                    if (values.getLong(i) < lo || values.getLong(i) > hi) { return i; }
+                }
+            }
+            case Long lower -> {
+                long lo = lower, hi = (Long) upperBound;
+                for (int i = 0; i < values.size(); i++) {
+                    if (values.getLong(i) < lo || values.getLong(i) > hi) { return i; }
+                }
+            }
+            case Double lower -> {
+                double lo = lower, hi = (Double) upperBound;
+                for (int i = 0; i < values.size(); i++) {
+                    if (!(values.getLong(i) >= lo && values.getLong(i) <= hi)) { return i; }
+                }
+            }
+            default -> { return UNSUPPORTED; }
+        }
+        return -1;
+    }
+
+    @Override
+    public boolean containsAll(long min, long max) {
+        return switch (lowerBound) {
+            case Integer lower -> min >= lower && max <= (Integer) upperBound;
+            case Long lower -> min >= lower && max <= (Long) upperBound;
+            // Converting to double never reorders values, so the converted values lie between min and max as well
+            case Double lower -> (double) min >= lower && (double) max <= (Double) upperBound;
+            default -> false;
+        };
+    }
+
     @Override
     public String toString() { return "Continuous Range: ["+lowerBound+","+upperBound+"]"; }
 }
@@ -1,17 +1,90 @@
 package oop.project.cli.argparser;
-import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
 import java.util.List;
 
-public class DiscreteValues<T extends Comparable<T>> implements IRange<T> {
-    private final ArrayList<T> values;
+public class DiscreteValues<T extends Comparable<? super T>> implements IRange<T>, PrimitiveRange {
+    private final List<T> values;  // in the order given, for toString
+    private final HashSet<T> lookup;
+    private final Class<?> elementType;  // the type of the values, or null if there are none
+    private final long[] sortedLongs;  // unboxed values, if they are Integers or Longs
+    private final double[] sortedDoubles;  // unboxed values, if they are Doubles
 
     @SafeVarargs  // is this even true? I think so...
     public DiscreteValues(T... values) {
-        this.values = new ArrayList<>(List.of(values));
+        this.values = List.of(values);
+        this.lookup = new HashSet<>(this.values);
+        this.elementType = values.length > 0 ? values[0].getClass() : null;
+        boolean integral = elementType == Integer.class || elementType == Long.class;
+        this.sortedLongs = integral ? lookup.stream().mapToLong(v -> ((Number) v).longValue()).sorted().toArray() : null;
+        boolean floating = elementType == Double.class;
+        this.sortedDoubles = floating ? lookup.stream().mapToDouble(v -> (Double) v).sorted().toArray() : null;
     }
 
     @Override
-    public boolean isInRange(T value) { return values.contains(value); }
+    public boolean isInRange(T value) { return lookup.contains(value); }
+
+    /** @return The values, in the order given. */
+    List<T> values() { return values; }
+
+    @Override
+    public int indexOutOfRange(int[] values) {
+        if (sortedLongs == null || elementType != Integer.class) { return UNSUPPORTED; }
+        for (int i = 0; i < values.length; i++) {
+            if (Arrays.binarySearch(sortedLongs, values[i]) < 0) { return i; }
+        }
+        return -1;
+    }
+
+    @Override
+    public int indexOutOfRange(long[] values) {
+        if (sortedLongs == null || elementType != Long.class) { return UNSUPPORTED; }
+        for (int i = 0; i < values.length; i++) {
+            if (Arrays.binarySearch(sortedLongs, values[i]) < 0) { return i; }
+        }
+        return -1;
+    }
+
+    @Override
+    public int indexOutOfRange(double[] values) {
+        if (sortedDoubles == null) { return UNSUPPORTED; }
+        for (int i = 0; i < values.length; i++) {
+            if (!contains(values[i])) { return i; }
+        }
+        return -1;
+    }
+
+    @Override
+    public int indexOutOfRange(LongChunks values) {
+        if (sortedLongs != null) {
+            for (int i = 0; i < values.size(); i++) {
+                if (Arrays.binarySearch(sortedLongs, values.getLong(i)) < 0) { return i; }
+            }
+            return -1;
+        }
+        if (sortedDoubles != null) {
+            for (int i = 0; i < values.size(); i++) {
+                if (!contains(values.getLong(i))) { return i; }
+            }
+            return -1;
+        }
+        return UNSUPPORTED;
+    }
+
+    @Override
+    public boolean containsAll(long min, long max) {
+        if (sortedLongs != null) {
+            // The values are distinct, so all integers from min to max are among them only if as many values lie between
+            int first = Arrays.binarySearch(sortedLongs, min), last = Arrays.binarySearch(sortedLongs, max);
+            return first >= 0 && last >= 0 && last - first == max - min;
+        }
+        return sortedDoubles != null && min == max && contains(min);
+    }
+
+    private boolean contains(double value) {
+        // binarySearch orders doubles as Double.compareTo does, so it agrees with the lookup on NaN and -0.0
+        return Arrays.binarySearch(sortedDoubles, value) >= 0;
+    }
 
     @Override
     public String toString() { return "Discrete Value Range: " + values.toString(); }
@@ -0,0 +1,92 @@
+package oop.project.cli.argparser;
+
+import java.math.BigInteger;
+import java.util.List;
+
+/**
+ * The checks and conversions that parsers generated from {@link oop.project.cli.annotations.Command} types call,
+ * kept here so that they fail with the same errors as a {@link Validator}. Not meant to be called directly.
+ */
+public final class GeneratedParsers {
+    private GeneratedParsers() {}
+
+    /** @return Whether a positional token fits a positional of the given type and arity. */
+    public static boolean fits(List<Object> values, Class<?> type, int min, int max) {
+        return values.size() >= min && values.size() <= max && Validator.typeMatches(values, type);
+    }
+
+    /** Checks the type and number of a named argument's values, as the validator does. */
+    public static void check(List<Object> values, Class<?> type, int min, int max, String nArgs, int position, String ref) throws ArgParseException {
+        if (!Validator.typeMatches(values, type))
+            { throw error(ParseError.Code.TYPE_MISMATCH, position, ref, "Got type " + Validator.typeName(values) + ", expected " + type.toString()); }
+        if (values.size() < min || values.size() > max)
+            { throw error(ParseError.Code.ARITY, position, ref, "Invalid number of arguments " + values.size() + ", expected [" + nArgs + "]"); }
+    }
+
+    public static int toInt(Object value, int position, String ref) throws ArgParseException {
+        long l = toLong(value, position, ref);
+        if ((int) l != l) { throw outOfRange(position, ref, l + " is out of range for int."); }
+        return (int) l;
+    }
+
+    public static long toLong(Object value, int position, String ref) throws ArgParseException {
+        try {
+            return ((BigInteger) value).longValueExact();
+        } catch (ArithmeticException e) {
+            throw outOfRange(position, ref, value + " is out of range for long.");
+        }
+    }
+
+    public static int[] ints(List<Object> values, int position, String ref) throws ArgParseException {
+        if (values instanceof LongChunks chunks && chunks.min() >= Integer.MIN_VALUE && chunks.max() <= Integer.MAX_VALUE)
+            { return chunks.toIntArray(); }
+        var ints = new int[values.size()];
+        for (int i = 0; i < ints.length; i++) { ints[i] = toInt(values.get(i), position, ref); }
+        return ints;
+    }
+
+    public static long[] longs(List<Object> values, int position, String ref) throws ArgParseException {
+        if (values instanceof LongChunks chunks) { return chunks.toLongArray(); }
+        var longs = new long[values.size()];
+        for (int i = 0; i < longs.length; i++) { longs[i] = toLong(values.get(i), position, ref); }
+        return longs;
+    }
+
+    public static double[] doubles(List<Object> values) {
+        if (values instanceof LongChunks chunks) { return chunks.toDoubleArray(); }
+        var doubles = new double[values.size()];
+        for (int i = 0; i < doubles.length; i++) { doubles[i] = ((Number) values.get(i)).doubleValue(); }
+        return doubles;
+    }
+
+    /** @return A copy of values whose type has been checked. */
+    @SuppressWarnings("unchecked")
+    public static <E> List<E> list(List<Object> values) {
+        return (List<E>) List.copyOf(values);
+    }
+
+    public static ArgParseException unknown(int position, String name) {
+        return error(ParseError.Code.UNKNOWN_ARGUMENT, position, null, "No such argument " + name + " found.");
+    }
+
+    public static ArgParseException duplicate(int position, String ref, String name) {
+        return error(ParseError.Code.DUPLICATE_ARGUMENT, position, ref, "Duplicate definition for " + name + ".");
+    }
+
+    public static ArgParseException outOfRange(int position, String ref, String message) {
+        return error(ParseError.Code.OUT_OF_RANGE, position, ref, message);
+    }
+
+    public static ArgParseException missing(String ref) {
+        return error(ParseError.Code.MISSING_REQUIRED, -1, ref, "Required argument not present.");
+    }
+
+    /** @return The error for a positional token that fits none of the positionals from <code>next</code> on. */
+    public static ArgParseException misfit(List<Object> values, int position, String[] refs, Class<?>[] types, int next) {
+        return PositionalPlan.misfit(values, position, refs, types, next, false);
+    }
+
+    private static ArgParseException error(ParseError.Code code, int position, String ref, String message) {
+        return new ArgParseException(new ParseError(code, position, ref, message), false);
+    }
+}
@@ -1,6 +1,6 @@
 package oop.project.cli.argparser;
 
-public interface IRange<T extends Comparable<T>> {
+public interface IRange<T extends Comparable<? super T>> {
     public boolean isInRange(T value);
     public String toString();
 }
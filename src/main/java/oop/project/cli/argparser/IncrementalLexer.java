@@ -0,0 +1,193 @@
+package oop.project.cli.argparser;
+
+import java.util.ArrayList;
+
+/**
+ * Lexes a line that is being edited, as in a REPL that checks the line on every keystroke. The line is kept as a
+ * sequence of lexemes - positional values, named arguments and clusters of short flags - each with the tokens it was
+ * lexed into. After an edit, lexing restarts at the first lexeme the edit touches and stops as soon as a lexeme ends
+ * where an old one did past the edit: the rest of the line is unchanged from there, so it would lex the same, and its
+ * tokens are kept. Lexing work is therefore proportional to the size of the edit and the lexemes around it, not to the
+ * length of the line. The offsets of the lexemes after an edit are moved lazily, only as far as the next edit.
+ *
+ * <p>Tokens are always decoded (see {@link Lexer.TokenMode#DECODED}), since the text they came from keeps changing.
+ * Not thread-safe.
+ */
+public final class IncrementalLexer {
+    private final StringBuilder text;
+    private final ArrayList<Lexeme> lexemes = new ArrayList<>();
+    private Exception error;  // what stopped lexing after the last lexeme, or null if the whole text lexed
+    // Shifting the offsets of every lexeme after an edit would cost time in the length of the line, so the lexemes from
+    // pendingFrom on are stored pendingDelta behind where they are; see start(int) and end(int)
+    private int pendingFrom, pendingDelta;
+
+    /** One lexeme of the text, with the tokens lexed from it. */
+    private static final class Lexeme {
+        int start, end;
+        final ArgToken[] tokens;
+        final int[] offsets;  // where each token starts, relative to start
+
+        Lexeme(int start, int end, TokenList tokens) {
+            this.start = start;
+            this.end = end;
+            this.tokens = tokens.toArray(new ArgToken[0]);
+            this.offsets = new int[this.tokens.length];
+            for (int i = 0; i < offsets.length; i++) { offsets[i] = tokens.position(i) - start; }
+        }
+
+        void shift(int delta) {
+            start += delta;
+            end += delta;
+        }
+    }
+
+    public IncrementalLexer(CharSequence input) {
+        this.text = new StringBuilder(input);
+        relex(0, 0, 0, 0);
+    }
+
+    /**
+     * Replaces <code>removed</code> characters at <code>offset</code> with <code>inserted</code>, and re-lexes what
+     * the change affects.
+     *
+     * @throws IndexOutOfBoundsException if the removed characters are not all within the text.
+     */
+    public void edit(int offset, int removed, CharSequence inserted) {
+        if (offset < 0 || removed < 0 || offset + removed > text.length())
+            { throw new IndexOutOfBoundsException("Cannot remove " + removed + " characters at " + offset + " from " + text.length()); }
+        text.replace(offset, offset + removed, inserted.toString());
+
+        // The first lexeme that ends at or after the edit may lex differently: the edit may be inside it, or glue a
+        // character onto its end. Every lexeme before it is kept as it is.
+        int low = 0, high = lexemes.size();
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (end(mid) < offset) { low = mid + 1; } else { high = mid; }
+        }
+        int first = low;
+        int restart = first < lexemes.size() ? Math.min(start(first), offset) : first > 0 ? end(first - 1) : 0;
+        relex(first, restart, offset + removed, inserted.length() - removed);
+    }
+
+    /**
+     * Lexes from <code>restart</code>, replacing the old lexemes from <code>first</code> on, until a lexeme ends where
+     * an old one that lies wholly after the edit did.
+     *
+     * @param editEnd Where the edit ended, in the text as it was before the edit.
+     * @param delta How far the text after the edit moved.
+     */
+    private void relex(int first, int restart, int editEnd, int delta) {
+        var lexer = new Lexer(text, Lexer.TokenMode.DECODED, true);
+        lexer.seek(restart);
+        var fresh = new ArrayList<Lexeme>();
+        int old = first;
+        var tokens = new TokenList();
+        Exception failure = null;
+        boolean resynced = false;
+        while (lexer.hasNext()) {
+            tokens.reset();
+            try {
+                int start = lexer.lexNext(tokens);
+                fresh.add(new Lexeme(start, lexer.position(), tokens));
+            } catch (ArgParseException | ParseException e) {
+                failure = e;
+                break;
+            }
+            // Back in step with the old lexemes: the text from here on is as it was, so it lexes as it did
+            int end = lexer.position();
+            while (old < lexemes.size() && end(old) + delta < end) { old++; }
+            if (old < lexemes.size() && end(old) + delta == end && end(old) >= editEnd) {
+                resynced = true;
+                old++;
+                break;
+            }
+        }
+
+        if (!resynced) {
+            moveShift(first);
+            lexemes.subList(first, lexemes.size()).clear();
+            lexemes.addAll(fresh);
+            pendingFrom = lexemes.size();
+            pendingDelta = 0;
+            error = failure;
+            return;
+        }
+        // Fresh lexemes hold true offsets, the kept ones after them offsets still to be shifted by the edit
+        moveShift(old);
+        pendingDelta += delta;
+        lexemes.subList(first, old).clear();
+        lexemes.addAll(first, fresh);
+        pendingFrom = first + fresh.size();
+        if (error != null) {
+            // The old error message quotes the old text, so lex again from the last good lexeme to get it afresh;
+            // lexing stops again at the first lexeme that fails
+            lexer.seek(end(lexemes.size() - 1));
+            error = null;
+            while (lexer.hasNext() && error == null) {
+                tokens.reset();
+                try {
+                    int start = lexer.lexNext(tokens);
+                    lexemes.add(new Lexeme(start - pendingDelta, lexer.position() - pendingDelta, tokens));
+                } catch (ArgParseException | ParseException e) {
+                    error = e;
+                }
+            }
+        }
+    }
+
+    /** @return Where the lexeme at <code>index</code> starts in the current text. */
+    private int start(int index) {
+        return lexemes.get(index).start + (index >= pendingFrom ? pendingDelta : 0);
+    }
+
+    /** @return Where the lexeme at <code>index</code> ends in the current text. */
+    private int end(int index) {
+        return lexemes.get(index).end + (index >= pendingFrom ? pendingDelta : 0);
+    }
+
+    /**
+     * Makes the pending shift apply from <code>index</code> on, by applying it to, or taking it back from, the lexemes
+     * in between. Edits close to the previous one only touch the lexemes between the two.
+     */
+    private void moveShift(int index) {
+        for (int i = pendingFrom; i < index; i++) { lexemes.get(i).shift(pendingDelta); }
+        for (int i = index; i < pendingFrom; i++) { lexemes.get(i).shift(-pendingDelta); }
+        pendingFrom = index;
+    }
+
+    /** @return The text as edited so far. */
+    public String getText() {
+        return text.toString();
+    }
+
+    /** @return The error that stops the text from lexing, or null if it lexes. */
+    public ParseError getError() {
+        return error == null ? null : ParseEvents.errorOf(error);
+    }
+
+    /**
+     * @return The tokens of the text, as {@link Lexer#lex()} would return them. Unchanged tokens are the same objects
+     * as before the last edit. Builds a new list, so costs time in the number of tokens.
+     * @throws ArgParseException if the text does not lex.
+     */
+    public TokenList tokens() throws ArgParseException {
+        switch (error) {
+            case null -> {}
+            case ArgParseException e -> throw e;
+            case ParseException e -> throw e;
+            default -> throw new AssertionError(error);
+        }
+        var tokens = new TokenList();
+        for (int index = 0; index < lexemes.size(); index++) {
+            var lexeme = lexemes.get(index);
+            int start = start(index);
+            for (int i = 0; i < lexeme.tokens.length; i++) { tokens.add(lexeme.tokens[i], start + lexeme.offsets[i]); }
+        }
+        return tokens;
+    }
+
+    /** @return How many lexemes the text has, up to the error if it does not lex. */
+    public int lexemeCount() {
+        return lexemes.size();
+    }
+}
@@ -0,0 +1,167 @@
+package oop.project.cli.argparser;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+
+/**
+ * A union of closed intervals, such as [1,1023] &cup; [8000,9000]. Overlapping intervals are merged when the range
+ * is built, as are integer intervals with no integer between them, such as [1,5] and [6,9]; the rest are kept sorted,
+ * so checking a value is a binary search over the intervals.
+ * Immutable: {@link #union(Comparable, Comparable)} returns a new range.
+ */
+public class IntervalRange<T extends Comparable<? super T>> implements IRange<T>, PrimitiveRange {
+    private final Object[] lowers;  // sorted, disjoint intervals
+    private final Object[] uppers;
+    private final long[] longLowers, longUppers;  // unboxed bounds, if they are Integers or Longs
+    private final double[] doubleLowers, doubleUppers;  // unboxed bounds, if they are Doubles
+
+    /** @param lowers Lower bounds of sorted, disjoint intervals, as {@link #union} leaves them; not checked. */
+    IntervalRange(Object[] lowers, Object[] uppers) {
+        this.lowers = lowers;
+        this.uppers = uppers;
+        boolean integral = lowers.length > 0 && (lowers[0] instanceof Integer || lowers[0] instanceof Long);
+        this.longLowers = integral ? Arrays.stream(lowers).mapToLong(b -> ((Number) b).longValue()).toArray() : null;
+        this.longUppers = integral ? Arrays.stream(uppers).mapToLong(b -> ((Number) b).longValue()).toArray() : null;
+        boolean floating = lowers.length > 0 && lowers[0] instanceof Double;
+        this.doubleLowers = floating ? Arrays.stream(lowers).mapToDouble(b -> (Double) b).toArray() : null;
+        this.doubleUppers = floating ? Arrays.stream(uppers).mapToDouble(b -> (Double) b).toArray() : null;
+    }
+
+    /** @return The range holding the values from <code>lower</code> to <code>upper</code>, inclusive. */
+    public static <T extends Comparable<? super T>> IntervalRange<T> of(T lower, T upper) {
+        return new IntervalRange<T>(new Object[0], new Object[0]).union(lower, upper);
+    }
+
+    /** @return A range holding this range's values and those from <code>lower</code> to <code>upper</code>. */
+    @SuppressWarnings("unchecked")
+    public IntervalRange<T> union(T lower, T upper) {
+        if (lower.compareTo(upper) > 0)
+            { throw new ArgumentBuilderException("Error: Interval [" + lower + "," + upper + "] is empty."); }
+        var intervals = new ArrayList<Object[]>();
+        for (int i = 0; i < lowers.length; i++) { intervals.add(new Object[] {lowers[i], uppers[i]}); }
+        intervals.add(new Object[] {lower, upper});
+        intervals.sort(Comparator.comparing(interval -> (T) interval[0]));
+
+        var merged = new ArrayList<Object[]>();
+        for (var interval : intervals) {
+            var last = merged.isEmpty() ? null : merged.getLast();
+            if (last != null && (((T) interval[0]).compareTo((T) last[1]) <= 0 || adjacent(last[1], interval[0]))) {
+                if (((T) interval[1]).compareTo((T) last[1]) > 0) { last[1] = interval[1]; }
+            } else {
+                merged.add(interval.clone());
+            }
+        }
+        return new IntervalRange<>(merged.stream().map(i -> i[0]).toArray(), merged.stream().map(i -> i[1]).toArray());
+    }
+
+    /** @return Whether <code>lower</code> is the integer right after <code>upper</code>, so no value lies between. */
+    private static boolean adjacent(Object upper, Object lower) {
+        return switch (upper) {
+            case Integer u -> lower instanceof Integer l && u != Integer.MAX_VALUE && l == u + 1;
+            case Long u -> lower instanceof Long l && u != Long.MAX_VALUE && l == u + 1;
+            case BigInteger u -> lower instanceof BigInteger l && l.equals(u.add(BigInteger.ONE));
+            default -> false;
+        };
+    }
+
+    Object[] lowers() { return lowers; }
+
+    Object[] uppers() { return uppers; }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public boolean isInRange(T value) {
+        // Find the last interval that starts at or before the value
+        int lo = 0, hi = lowers.length - 1, found = -1;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            if (((T) lowers[mid]).compareTo(value) <= 0) {
+                found = mid;
+                lo = mid + 1;
+            } else {
+                hi = mid - 1;
+            }
+        }
+        return found >= 0 && value.compareTo((T) uppers[found]) <= 0;
+    }
+
+    @Override
+    public int indexOutOfRange(int[] values) {
+        if (!(lowers[0] instanceof Integer)) { return UNSUPPORTED; }
+        for (int i = 0; i < values.length; i++) {
+            if (!contains(values[i])) { return i; }
+        }
+        return -1;
+    }
+
+    @Override
+    public int indexOutOfRange(long[] values) {
+        if (!(lowers[0] instanceof Long)) { return UNSUPPORTED; }
+        for (int i = 0; i < values.length; i++) {
+            if (!contains(values[i])) { return i; }
+        }
+        return -1;
+    }
+
+    @Override
+    public int indexOutOfRange(double[] values) {
+        if (doubleLowers == null) { return UNSUPPORTED; }
+        for (int i = 0; i < values.length; i++) {
+            int found = Arrays.binarySearch(doubleLowers, values[i]);
+            if (found < 0) { found = -found - 2; }  // the last interval starting before the value
+            if (found < 0 || !(values[i] <= doubleUppers[found])) { return i; }
+        }
+        return -1;
+    }
+
+    @Override
+    public int indexOutOfRange(LongChunks values) {
+        if (longLowers != null) {
+            for (int i = 0; i < values.size(); i++) {
+                if (!contains(values.getLong(i))) { return i; }
+            }
+            return -1;
+        }
+        if (doubleLowers != null) {
+            for (int i = 0; i < values.size(); i++) {
+                double value = values.getLong(i);
+                int found = Arrays.binarySearch(doubleLowers, value);
+                if (found < 0) { found = -found - 2; }
+                if (found < 0 || !(value <= doubleUppers[found])) { return i; }
+            }
+            return -1;
+        }
+        return UNSUPPORTED;
+    }
+
+    @Override
+    public boolean containsAll(long min, long max) {
+        // The intervals are disjoint, so all values between min and max are in range only if one interval holds both
+        if (longLowers != null) {
+            int found = Arrays.binarySearch(longLowers, min);
+            if (found < 0) { found = -found - 2; }
+            return found >= 0 && max <= longUppers[found];
+        }
+        if (doubleLowers != null) {
+            int found = Arrays.binarySearch(doubleLowers, (double) min);
+            if (found < 0) { found = -found - 2; }
+            return found >= 0 && (double) max <= doubleUppers[found];
+        }
+        return false;
+    }
+
+    private boolean contains(long value) {
+        int found = Arrays.binarySearch(longLowers, value);
+        if (found < 0) { found = -found - 2; }  // the last interval starting before the value
+        return found >= 0 && value <= longUppers[found];
+    }
+
+    @Override
+    public String toString() {
+        var intervals = new ArrayList<String>();
+        for (int i = 0; i < lowers.length; i++) { intervals.add("[" + lowers[i] + "," + uppers[i] + "]"); }
+        return "Interval Range: " + String.join(" U ", intervals);
+    }
+}
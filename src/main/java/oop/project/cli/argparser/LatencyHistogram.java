@@ -0,0 +1,66 @@
+package oop.project.cli.argparser;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts of parse latencies in power-of-two buckets of nanoseconds. Each bucket is a {@link LongAdder}, striped across
+ * threads, so recording never takes a lock and threads parsing at the same time rarely contend. Reads are not atomic
+ * across buckets: a snapshot taken while parses are recorded may miss the newest ones.
+ */
+public final class LatencyHistogram {
+    /** Number of buckets. Bucket 0 holds latencies of 0ns, bucket b &gt; 0 those in [2<sup>b-1</sup>, 2<sup>b</sup>) ns. */
+    public static final int BUCKETS = 64;
+
+    private final LongAdder[] buckets = new LongAdder[BUCKETS];
+
+    LatencyHistogram() {
+        for (int b = 0; b < BUCKETS; b++) { buckets[b] = new LongAdder(); }
+    }
+
+    void record(long nanos) {
+        buckets[BUCKETS - Long.numberOfLeadingZeros(Math.max(nanos, 0))].increment();
+    }
+
+    /** @return The number of latencies recorded in the bucket. */
+    public long count(int bucket) {
+        return buckets[bucket].sum();
+    }
+
+    /** @return The number of latencies recorded. */
+    public long count() {
+        long count = 0;
+        for (var bucket : buckets) { count += bucket.sum(); }
+        return count;
+    }
+
+    /** @return The largest latency, in nanoseconds, that falls in the bucket. */
+    public static long upperBound(int bucket) {
+        return bucket == BUCKETS - 1 ? Long.MAX_VALUE : (1L << bucket) - 1;
+    }
+
+    /**
+     * @param quantile Between 0 and 1, e.g. 0.99 for the 99th percentile.
+     * @return The upper bound of the bucket that latency falls in, in nanoseconds, or 0 if nothing was recorded.
+     */
+    public long percentile(double quantile) {
+        if (quantile < 0 || quantile > 1) { throw new IllegalArgumentException("Quantile " + quantile + " is not between 0 and 1."); }
+        var counts = snapshot();
+        long total = 0;
+        for (long count : counts) { total += count; }
+        if (total == 0) { return 0; }
+        long rank = Math.max(1, (long) Math.ceil(quantile * total));
+        long seen = 0;
+        for (int b = 0; b < BUCKETS; b++) {
+            seen += counts[b];
+            if (seen >= rank) { return upperBound(b); }
+        }
+        return upperBound(BUCKETS - 1);
+    }
+
+    /** @return The count of every bucket. */
+    public long[] snapshot() {
+        var counts = new long[BUCKETS];
+        for (int b = 0; b < BUCKETS; b++) { counts[b] = buckets[b].sum(); }
+        return counts;
+    }
+}
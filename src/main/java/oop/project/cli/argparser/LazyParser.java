@@ -0,0 +1,64 @@
+package oop.project.cli.argparser;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Supplier;
+
+/**
+ * A schema that is only built, and compiled, the first time it is needed. Used for the commands of a
+ * {@link ParserRegistry} and the subcommands of an {@link ArgumentParser}, so that declaring many commands costs
+ * nothing until one is used. Safe to share between threads.
+ */
+final class LazyParser {
+    private final Supplier<ArgumentParser> factory;
+    private volatile ArgumentParser schema;
+    private final AtomicReferenceArray<CompiledParser> compiled = new AtomicReferenceArray<>(Lexer.TokenMode.values().length);
+
+    LazyParser(Supplier<ArgumentParser> factory) {
+        this.factory = factory;
+    }
+
+    /** @return Whether the schema has been built yet. */
+    boolean isBuilt() {
+        return schema != null;
+    }
+
+    ArgumentParser schema() {
+        var built = schema;
+        if (built == null) {
+            synchronized (this) {
+                built = schema;
+                if (built == null) {
+                    built = factory.get();
+                    if (built == null) { throw new ArgumentException("Parser factory returned null."); }
+                    schema = built;
+                }
+            }
+        }
+        return built;
+    }
+
+    CompiledParser parser(Lexer.TokenMode tokenMode) {
+        var parser = compiled.get(tokenMode.ordinal());
+        if (parser == null) {
+            // ArgumentParser caches its compiled parsers without any locking, so only compile under this lock
+            synchronized (this) {
+                parser = compiled.get(tokenMode.ordinal());
+                if (parser == null) {
+                    parser = schema().compile(tokenMode);
+                    compiled.set(tokenMode.ordinal(), parser);
+                }
+            }
+        }
+        return parser;
+    }
+
+    /**
+     * Parses the input with {@link ArgumentParser#parse(String)}, writing to the schema's namespace. Held under the
+     * same lock as {@link #parser}, since the schema compiles itself, and caches the result, as it parses.
+     */
+    MappedData parse(String input) throws ArgParseException {
+        synchronized (this) {
+            return schema().parse(input);
+        }
+    }
+}
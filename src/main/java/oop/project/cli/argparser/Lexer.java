@@ -1,220 +1,432 @@
 package oop.project.cli.argparser;
-import java.math.BigDecimal;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 
 public final class Lexer {
 
+    /** How the lexer hands out the names and values of the tokens it produces. */
+    public enum TokenMode {
+        /**
+         * Names and values are copied out of the input as they are lexed, into Strings, BigIntegers, BigDecimals, and
+         * LocalDates, Instants and Durations for ISO-8601 literals (see {@link Temporals}).
+         */
+        DECODED,
+        /**
+         * Names and values are kept as spans of the input, and values are only decoded when they are read. The input
+         * must not change while the tokens, or any result built from them, are in use.
+         */
+        SPANS
+    }
+
+    // Character classes used by the scanner. Each character maps to a bit set of the classes it belongs to, so every
+    // check the lexer makes is a single table lookup instead of a regex match.
+    private static final int ALPHA = 1;
+    private static final int DIGIT = 1 << 1;
+    private static final int UNDERSCORE = 1 << 2;
+    private static final int DOT = 1 << 3;
+    private static final int DASH = 1 << 4;
+    private static final int SPACE = 1 << 5;
+    private static final int QUOTE = 1 << 6;
+    private static final int OPEN_BRACKET = 1 << 7;
+    private static final int CLOSE_BRACKET = 1 << 8;
+    private static final int EQUALS = 1 << 9;
+
+    private static final int ALNUM = ALPHA | DIGIT;
+    private static final int WORD = ALNUM | UNDERSCORE;
+    private static final int NUMERIC = DIGIT | DOT;
+
+    private static final int LONG_DIGITS = 18;  // every integer with at most this many digits fits in a long
+
+    /** Lookup table from ASCII code to character classes. Characters outside ASCII belong to no class. */
+    private static final short[] CLASSES = new short[128];
+
+    static {
+        for (char c = 'a'; c <= 'z'; c++) { CLASSES[c] |= ALPHA; }
+        for (char c = 'A'; c <= 'Z'; c++) { CLASSES[c] |= ALPHA; }
+        for (char c = '0'; c <= '9'; c++) { CLASSES[c] |= DIGIT; }
+        CLASSES['_'] |= UNDERSCORE;
+        CLASSES['.'] |= DOT;
+        CLASSES['-'] |= DASH;
+        CLASSES[' '] |= SPACE;
+        CLASSES['"'] |= QUOTE;
+        CLASSES['['] |= OPEN_BRACKET;
+        CLASSES[']'] |= CLOSE_BRACKET;
+        CLASSES['='] |= EQUALS;
+    }
+
+    /** Names of the single-letter flags, so lexing <code>-abc</code> does not build a String per letter. */
+    private static final String[] SHORT_FLAGS = new String[CLASSES.length];
+
+    static {
+        for (char c = 0; c < CLASSES.length; c++) {
+            if ((CLASSES[c] & ALPHA) != 0) { SHORT_FLAGS[c] = "-" + c; }
+        }
+    }
+
     private final CharStream chars;
-    String input;
-    public Lexer(String input) {
+    private final CharSequence input;
+    private final TokenMode mode;
+    private final boolean stackless;
+    private int[] spans = new int[3 * 8];  // (kind, start, end) of each value of the token being lexed
+    private int spanCount;
+
+    public Lexer(CharSequence input) {
+        this(input, TokenMode.DECODED);
+    }
+
+    public Lexer(CharSequence input, TokenMode mode) {
+        this(input, mode, false);
+    }
+
+    /** @param stackless Whether errors are thrown without a stack trace; see {@link ArgParseException#getError()}. */
+    Lexer(CharSequence input, TokenMode mode, boolean stackless) {
         chars = new CharStream(input);
         this.input = input;
+        this.mode = mode;
+        this.stackless = stackless;
     }
 
-    private int getSizeOfName(){
-        String[] parts = input.split("=", 2);
-        String key = parts[0];
-        return key.length() - 1;
+    /**
+     * Checks whether the word at the current position is the key of a <code>key=value</code> pair. Only that word is
+     * scanned (never the rest of the input), so deciding this for every token keeps lexing linear in the input length.
+     */
+    private boolean peekKey() {
+        int offset = 0;
+        while (peek(offset, WORD)) {
+            offset++;
+        }
+        return offset > 0 && peek(offset - 1, ALNUM, EQUALS) && !peek(0, DIGIT);
     }
 
 
-    public ArrayList<ArgToken> lex() throws ArgParseException {
-        var tokens = new ArrayList<ArgToken>();
+    public TokenList lex() throws ArgParseException {
+        var tokens = new TokenList();
         while(chars.hasNext()){
-            while (chars.hasNext() && match("[ ]")) {} // get rid of whitespace between words
-             if (peek(0,"\"") || peek(0,"[\\.0-9\\[]") || peek(0,"[\\-]", "[\\.0-9]")) {
-                tokens.add(new ArgToken(ArgToken.Type.POSITIONAL_ARG, "positional", lexPositional()));
-            } else if ((peek(getSizeOfName(),"[a-zA-Z0-9]", "=") && !peek(0, "[0-9]")) || peek(0,"\\-", "[a-zA-Z]") || peek(0,"[\\-]", "[\\-]", "[a-zA-Z]")) {
-                tokens.addAll(lexNamed());
-            } else {
-                throw new ArgParseException("Not a valid positional value, named argument, or flag. Input: " + input + " " + getSizeOfName());
-            }
-            if(chars.hasNext() && !peek(0,"[ ]"))
-                throw new ArgParseException("Required space between flags or positional values. Input: " + input);
+            lexNext(tokens);
         }
         return tokens;
     }
 
+    /**
+     * Lexes the next lexeme - a positional value, a named argument, or a cluster of short flags - after skipping the
+     * spaces before it, and checks that a space or the end of the input follows it. Nothing is carried over from one
+     * lexeme to the next but the position, which is what lets {@link IncrementalLexer} resume lexing at any lexeme.
+     *
+     * @return Where the lexeme starts.
+     */
+    int lexNext(TokenList tokens) throws ArgParseException {
+        while (chars.hasNext() && match(SPACE)) {} // get rid of whitespace between words
+        int start = chars.position();
+         if (peek(0, QUOTE | NUMERIC | OPEN_BRACKET) || peek(0, DASH, NUMERIC) || (peekDuration() && !peekKey())) {
+            tokens.add(new ArgToken(ArgToken.Type.POSITIONAL_ARG, "positional", lexPositional()), start);
+        } else if (peekKey() || peek(0, DASH, ALPHA) || peek(0, DASH, DASH, ALPHA)) {
+            lexNamed(tokens);
+        } else {
+            throw error("Not a valid positional value, named argument, or flag. Input: " + input);
+        }
+        if(chars.hasNext() && !peek(0, SPACE))
+            throw error("Required space between flags or positional values. Input: " + input);
+        return start;
+    }
+
+    /** @return Whether there is input left to lex. */
+    boolean hasNext() {
+        return chars.hasNext();
+    }
+
+    /** @return The offset in the input lexing has reached. */
+    int position() {
+        return chars.position();
+    }
+
+    /** Moves lexing to <code>position</code>, which must be the start of a lexeme or of the spaces before one. */
+    void seek(int position) {
+        chars.seek(position);
+    }
 
 
 
-    private String lexString() throws ArgParseException {
-        StringBuilder curr = new StringBuilder();
-        match("\"");
+
+    /** Lexes a quoted string. Only its span is recorded, along with whether it contains escapes to decode. */
+    private void lexString() throws ArgParseException {
+        match(QUOTE);
+        int start = chars.position();
+        int kind = SpanValues.STRING;
         while (chars.hasNext()) {
             char currentChar = chars.getNext();
             if (currentChar == '\\') { // Handle escape characters
                 if (chars.has(1)) {
                     char nextChar = chars.get(1);
                     if (nextChar == '"' || nextChar == '\\' || nextChar == 't' || nextChar == 'n') {
-                        if (nextChar == 't') {
-                            curr.append('\t');
-                        } else if (nextChar == 'n') {
-                            curr.append('\n');
-                        } else {
-                            curr.append(nextChar);
-                        }
+                        kind = SpanValues.ESCAPED_STRING;
                         chars.advance(2);
                     } else {
-                        throw new ArgParseException("Invalid escape sequence: \\" + nextChar);
+                        throw error("Invalid escape sequence: \\" + nextChar);
                     }
                 } else {
-                    throw new ArgParseException("Invalid escape character at end of input");
+                    throw error("Invalid escape character at end of input");
                 }
             } else if (currentChar == '"') { // Handle nested quotes
                 if (chars.has(1) && chars.get(1) == '"') {
-                    curr.append("\"");
+                    kind = SpanValues.ESCAPED_STRING;
                     chars.advance(2);
                 } else {
                     break;
                 }
             } else {
-                curr.append(currentChar);
                 chars.advance(1);
             }
         }
-        if (peek(0,"\"")) {
+        int end = chars.position();
+        if (peek(0, QUOTE)) {
             chars.advance(1);
         } else {
-            throw new ArgParseException("Missing closing quotation mark");
+            throw error("Missing closing quotation mark");
         }
-        return curr.toString();
+        addValue(kind, start, end);
     }
 
 
 
 
-    private Object lexNumber() throws ArgParseException { //will store all numbers as decimals and later check if expecting int that number is valid int
-        StringBuilder curr = new StringBuilder();
-        if (peek(0,"-", "[0-9]") || peek(0,"-", "\\.", "[0-9]")) {
-            curr.append(chars.getNext());
+    /**
+     * Lexes a number. Anything with digits after the decimal point is a decimal, everything else an integer - the
+     * same split <code>BigDecimal.scale()</code> would make, without building the BigDecimal here.
+     */
+    private void lexNumber() throws ArgParseException {
+        int start = chars.position();
+        if (peek(0, DASH, DIGIT) || peek(0, DASH, DOT, DIGIT)) {
             chars.advance(1);
         }
-        while(chars.hasNext() && peek(0,"[0-9\\.]")){
-            curr.append(chars.getNext());
+        int digits = 0;
+        int dots = 0;
+        int fractionDigits = 0;
+        while(chars.hasNext() && peek(0, NUMERIC)){
+            if (peek(0, DOT)) {
+                dots++;
+            } else {
+                digits++;
+                if (dots > 0) { fractionDigits++; }
+            }
             chars.advance(1);
         }
-        try{
-            var res = new BigDecimal(curr.toString());
-            if(res.scale() <= 0)
-                return res.toBigInteger();
-            else return res;
-        }catch(Exception e){
-            throw new ArgParseException("Invalid number value");
+        if (digits == 0 || dots > 1) {
+            throw error("Invalid number value");
         }
+        addValue(fractionDigits > 0 ? SpanValues.DECIMAL : SpanValues.INTEGER, start, chars.position());
     }
 
-    private Object lexObject() throws ArgParseException {
-        //TODO: Need to differentiate between dates and negative values. Should dates be passed as strings and then type coerced later?
-        if (peek(0,"\"")) { // Check if string
-            return lexString();
-        } else if(peek(0,"[0-9-\\.]")){
-            return lexNumber();
-        }else{
-            throw new ParseException("Unsupported type or invalid input for value");
+    /**
+     * Checks whether a duration starts at the current position: a 'P' followed by a number, or by the 'T' of a duration
+     * that only has a time part.
+     */
+    private boolean peekDuration() {
+        return chars.has(1) && chars.get(0) == 'P' && (peek(1, DIGIT | DASH) || chars.get(1) == 'T');
+    }
+
+    /**
+     * Lexes a date or an instant, which both start with a four digit year and a '-' - something no number can be
+     * followed by, so they are told apart from numbers by their first five characters. The literal runs up to the
+     * next space or closing bracket, and is checked as a whole.
+     */
+    private void lexDateTime() throws ArgParseException {
+        int start = chars.position();
+        int end = skipLiteral();
+        if (Temporals.epochDay(input, start, end) != Temporals.INVALID) {
+            addValue(SpanValues.DATE, start, end);
+        } else if (Temporals.instantSeconds(input, start, end) != Temporals.INVALID) {
+            addValue(SpanValues.INSTANT, start, end);
+        } else {
+            throw error("Invalid date value");
         }
     }
 
-    private ArrayList<Object> lexList() throws ArgParseException {
-        ArrayList<Object> list = new ArrayList<>();
-        match("[\\[]");
-        while(match("[ ]")) {}; //want to ignore whitespace
-        while (!peek(0,"[\\]]")) {
-            list.add(lexObject());
-            while(match("[ ]")) {};
+    /** Lexes a duration, such as <code>PT1H30M</code>, up to the next space or closing bracket. */
+    private void lexDuration() throws ArgParseException {
+        int start = chars.position();
+        int end = skipLiteral();
+        if (Temporals.durationSeconds(input, start, end) == Temporals.INVALID) {
+            throw error("Invalid duration value");
         }
-        match("[\\]]");
-        return list;
+        addValue(SpanValues.DURATION, start, end);
     }
-    private ArrayList<Object> lexPositional() throws ArgParseException {
-        ArrayList<Object> vals = new ArrayList<>();
-        if (peek(0,"[\\[]")) { // lexing positional multiple values
-            vals.addAll(lexList());
-        }else{ // lexing string or number
-            vals.add(lexObject());
+
+    /** Advances to the next space or closing bracket, or to the end of the input. @return Where it stopped. */
+    private int skipLiteral() {
+        while (chars.hasNext() && !peek(0, SPACE | CLOSE_BRACKET)) {
+            chars.advance(1);
         }
-        return vals;
-        /** return new ArgToken(ArgToken.Type.POSITIONAL_ARG, vals);
-        / By return vals instead of argtoken, can reuse structure for lexNamed that does --flag=[], --flag=1 or --flag="word"*/
-    };
+        return chars.position();
+    }
 
-    private ArrayList<ArgToken> lexNamed() throws ArgParseException {
-        ArrayList<ArgToken> tokens = new ArrayList<>();
-        ArrayList<Object> vals = new ArrayList<>();
-        StringBuilder name = new StringBuilder();
-        if(peek(0,"[\\-]", "[\\-]", "[a-zA-Z]")){ // --flag
-            chars.advance(2);
-            name.append("--");
-            while(chars.hasNext() && peek(0,"[a-zA-Z0-9_]")){
-                name.append(chars.getNext());
+    private void lexObject() throws ArgParseException {
+        if (peek(0, QUOTE)) { // Check if string
+            lexString();
+        } else if (peek(0, DIGIT, DIGIT, DIGIT) && peek(3, DIGIT, DASH)) {
+            lexDateTime();
+        } else if (peekDuration()) {
+            lexDuration();
+        } else if(peek(0, NUMERIC | DASH)){
+            lexNumber();
+        }else{
+            throw new ParseException(new ParseError(ParseError.Code.UNSUPPORTED_VALUE, chars.position(), null,
+                    "Unsupported type or invalid input for value"), stackless);
+        }
+    }
+
+    /**
+     * Lexes a list of integers that each fit a long straight into {@link LongChunks}, parsing every value as it is
+     * scanned instead of recording its span - the common case for long lists, such as lists of IDs. Gives up on any
+     * other list, an empty one included, and leaves the position at its opening bracket for {@link #lexList()}, which
+     * also reports any syntax error in it.
+     *
+     * @return The values, or null if the list is not one of integers.
+     */
+    private LongChunks lexLongList() {
+        int start = chars.position();
+        chars.advance(1);
+        while (match(SPACE)) {}
+        var values = new LongChunks();
+        while (!peek(0, CLOSE_BRACKET)) {
+            boolean negative = match(DASH);
+            int digits = 0;
+            long value = 0;
+            while (peek(0, DIGIT)) {
+                value = 10 * value + (chars.get(0) - '0');
                 chars.advance(1);
+                digits++;
             }
-            if (match("=")){
-                vals.addAll(lexPositional());
-                tokens.add(new ArgToken(ArgToken.Type.NAMED_ARG, name.toString(), vals));
-            }
-            else {
-                tokens.add(new ArgToken(ArgToken.Type.FLAG, name.toString(), vals));
+            if (digits == 0 || digits > LONG_DIGITS || !peek(0, SPACE | CLOSE_BRACKET)) {
+                chars.seek(start);
+                return null;
             }
-            return tokens;
-        }else if(peek(0, "[\\-]", "[a-zA-Z]")) { //flag with one -
+            values.add(negative ? -value : value);
+            while (match(SPACE)) {}
+        }
+        if (values.isEmpty()) {
+            chars.seek(start);
+            return null;
+        }
+        chars.advance(1);
+        return values;
+    }
+
+    private void lexList() throws ArgParseException {
+        match(OPEN_BRACKET);
+        while(match(SPACE)) {}; //want to ignore whitespace
+        while (!peek(0, CLOSE_BRACKET)) {
+            lexObject();
+            while(match(SPACE)) {};
+        }
+        match(CLOSE_BRACKET);
+    }
+
+    private List<Object> lexPositional() throws ArgParseException {
+        spanCount = 0;
+        if (peek(0, OPEN_BRACKET)) { // lexing positional multiple values
+            var longs = lexLongList();
+            if (longs != null) { return longs; }
+            lexList();
+        }else{ // lexing string or number
+            lexObject();
+        }
+        return values();
+        /* By returning values instead of an ArgToken, can reuse structure for lexNamed that does --flag=[], --flag=1 or --flag="word"*/
+    };
+
+    private void lexNamed(TokenList tokens) throws ArgParseException {
+        if(peek(0, DASH, ALPHA)) { //flag with one -
             chars.advance(1);
-            while (chars.hasNext() && peek(0, "[a-zA-Z]")) {
-                tokens.add(new ArgToken(ArgToken.Type.FLAG, "-" + chars.get(0), vals));
+            while (chars.hasNext() && peek(0, ALPHA)) {
+                tokens.add(new ArgToken(ArgToken.Type.FLAG, SHORT_FLAGS[chars.getNext()], List.of()), chars.position());
                 chars.advance(1);
             }
+            return;
+        }
+        // --flag, or the key of key=value
+        int start = chars.position();
+        if(peek(0, DASH, DASH, ALPHA)){
+            chars.advance(2);
+        }
+        while(chars.hasNext() && peek(0, WORD)){
+            chars.advance(1);
+        }
+        var name = name(start, chars.position());
+        if (match(EQUALS)){
+            tokens.add(new ArgToken(ArgToken.Type.NAMED_ARG, name, lexPositional()), start);
         }
         else {
-            while (chars.has(0) && peek(0, "[a-zA-Z0-9_]")) {
-                name.append(chars.get(0));
-                chars.advance(1);
-            }
-            if (match("=")) {
-                vals.addAll(lexPositional());
-                tokens.add(new ArgToken(ArgToken.Type.NAMED_ARG, name.toString(), vals));
-                return tokens;
-            }
+            tokens.add(new ArgToken(ArgToken.Type.FLAG, name, List.of()), start);
         }
-            return tokens;
     };
 
-    /** Given a list of regexes / characters, will peek forward that list's length and test each character against each regex.**/
-    private boolean peek(int offset, Object... objects) {
-        for (var i = 0; i < objects.length; i++) {
-            if (!chars.has(offset + i) || !test(objects[i], chars.get(offset + i))) {
-                return false;
-            }
+    /** @return A syntax error at the current position, to be thrown. */
+    private ArgParseException error(String message) {
+        return new ArgParseException(new ParseError(ParseError.Code.SYNTAX, chars.position(), null, message), stackless);
+    }
+
+    private CharSequence name(int start, int end) {
+        return mode == TokenMode.SPANS ? new Span(input, start, end) : input.subSequence(start, end).toString();
+    }
+
+    private void addValue(int kind, int start, int end) {
+        if (3 * spanCount == spans.length) {
+            spans = Arrays.copyOf(spans, 2 * spans.length);
+        }
+        spans[3 * spanCount] = kind;
+        spans[3 * spanCount + 1] = start;
+        spans[3 * spanCount + 2] = end;
+        spanCount++;
+    }
+
+    /** Builds the value list of the current token from the recorded spans, decoding them unless lexing spans. */
+    private List<Object> values() {
+        if (mode == TokenMode.SPANS) {
+            return new SpanValues(input, Arrays.copyOf(spans, 3 * spanCount));
+        }
+        var values = new ArrayList<Object>(spanCount);
+        for (int i = 0; i < spanCount; i++) {
+            values.add(SpanValues.decode(input, spans[3 * i], spans[3 * i + 1], spans[3 * i + 2]));
+        }
+        return values;
+    }
+
+    /** Tests whether the character <code>offset</code> ahead of the current position belongs to any of the given classes. **/
+    private boolean peek(int offset, int classes) {
+        if (!chars.has(offset)) {
+            return false;
         }
-        return true;
+        char c = chars.get(offset);
+        return c < CLASSES.length && (CLASSES[c] & classes) != 0;
     }
 
-    private boolean match(Object... objects) {
-        var peek = peek(0, objects);
+    /** Peeks a run of consecutive characters, each tested against its own set of classes. **/
+    private boolean peek(int offset, int first, int second) {
+        return peek(offset, first) && peek(offset + 1, second);
+    }
+
+    private boolean peek(int offset, int first, int second, int third) {
+        return peek(offset, first) && peek(offset + 1, second) && peek(offset + 2, third);
+    }
+
+    private boolean match(int classes) {
+        var peek = peek(0, classes);
         if (peek) {
-            chars.advance(objects.length);
+            chars.advance(1);
         }
         return peek;
     }
-    
-     private static boolean test(Object object, char character) {
-        return switch (object) {
-            case Character c -> character == c;
-            case String regex -> Character.toString(character).matches(regex);
-            case List<?> options -> options.stream().anyMatch(o -> test(o, character));
-            default -> throw new AssertionError(object);
-        };
-    }
 
 
     private static final class CharStream {
 
-        private final String input;
+        private final CharSequence input;
         private int index = 0;
         private int length = 0;
 
-        private CharStream(String input) {
+        private CharStream(CharSequence input) {
             this.input = input;
         }
 
@@ -242,11 +454,21 @@ public final class Lexer {
             return get(0);
         }
 
+        /** The index in the input of the current position */
+        public int position() {
+            return index + length;
+        }
+
         public void advance(int chars) {
             length += chars;
         }
 
-        public ArgToken emit(ArgToken.Type type, String name, ArrayList<Object> vals) {
+        private void seek(int position) {
+            index = position;
+            length = 0;
+        }
+
+        public ArgToken emit(ArgToken.Type type, CharSequence name, List<Object> vals) {
             var token = new ArgToken(type, name, vals);
             index += length;
             length = 0;
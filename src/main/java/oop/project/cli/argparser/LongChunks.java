@@ -0,0 +1,125 @@
+package oop.project.cli.argparser;
+
+import java.math.BigInteger;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.RandomAccess;
+
+/**
+ * The values of a list literal of integers, which {@link Lexer} parses straight into chunks of longs. The chunks are
+ * never copied as the list grows, and values are only boxed when they are read: as the BigIntegers the lexer produces
+ * for integers, or as the type of the argument they were given to through {@link #boxed(Class)}. The least and
+ * greatest values are kept as values are added, so the whole list can be checked against an argument's type and range
+ * without looking at each value again.
+ *
+ * <p>Only the lexer adds values; once lexed, a list is never modified, so Integer, Long and Double arguments store it
+ * as it is rather than copying it into an array.
+ */
+final class LongChunks extends AbstractList<Object> implements RandomAccess {
+    private static final int SHIFT = 12;
+    private static final int CHUNK = 1 << SHIFT;  // longs per chunk; only the first chunk starts out smaller
+    private static final int MASK = CHUNK - 1;
+
+    private long[][] chunks = {new long[8]};
+    private int size;
+    private long min = Long.MAX_VALUE, max = Long.MIN_VALUE;
+
+    void add(long value) {
+        int chunk = size >>> SHIFT, offset = size & MASK;
+        if (chunk == chunks.length) { chunks = Arrays.copyOf(chunks, 2 * chunks.length); }  // copies references only
+        var current = chunks[chunk];
+        if (current == null) {
+            current = chunks[chunk] = new long[CHUNK];
+        } else if (offset == current.length) {
+            current = chunks[chunk] = Arrays.copyOf(current, 2 * current.length);
+        }
+        current[offset] = value;
+        size++;
+        min = Math.min(min, value);
+        max = Math.max(max, value);
+    }
+
+    @Override
+    public Object get(int index) {
+        return BigInteger.valueOf(getLong(index));
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    long getLong(int index) {
+        Objects.checkIndex(index, size);
+        return chunks[index >>> SHIFT][index & MASK];
+    }
+
+    /** @return The least value; only meaningful if the list is not empty. */
+    long min() {
+        return min;
+    }
+
+    /** @return The greatest value; only meaningful if the list is not empty. */
+    long max() {
+        return max;
+    }
+
+    /** @return The index of the first value less than <code>lo</code> or greater than <code>hi</code>, or -1. */
+    int indexOutside(long lo, long hi) {
+        if (min >= lo && max <= hi) { return -1; }
+        for (int i = 0; ; i++) {
+            long value = chunks[i >>> SHIFT][i & MASK];
+            if (value < lo || value > hi) { return i; }
+        }
+    }
+
+    long[] toLongArray() {
+        var longs = new long[size];
+        for (int start = 0; start < size; start += CHUNK) {
+            System.arraycopy(chunks[start >>> SHIFT], 0, longs, start, Math.min(CHUNK, size - start));
+        }
+        return longs;
+    }
+
+    /** @return The values as ints, truncating any that do not fit; check {@link #indexOutside} first. */
+    int[] toIntArray() {
+        var ints = new int[size];
+        for (int i = 0; i < size; i++) { ints[i] = (int) chunks[i >>> SHIFT][i & MASK]; }
+        return ints;
+    }
+
+    double[] toDoubleArray() {
+        var doubles = new double[size];
+        for (int i = 0; i < size; i++) { doubles[i] = chunks[i >>> SHIFT][i & MASK]; }
+        return doubles;
+    }
+
+    /**
+     * @param type {@link Integer}, {@link Long} or {@link Double}.
+     * @return A read-only view of the values as the given type, boxing each one as it is read.
+     */
+    List<Object> boxed(Class<?> type) {
+        return new Boxed(type);
+    }
+
+    private final class Boxed extends AbstractList<Object> implements RandomAccess {
+        private final Class<?> type;
+
+        Boxed(Class<?> type) {
+            this.type = type;
+        }
+
+        @Override
+        public Object get(int index) {
+            long value = getLong(index);
+            return type == Integer.class ? (Object) (int) value : type == Double.class ? (Object) (double) value : value;
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+}
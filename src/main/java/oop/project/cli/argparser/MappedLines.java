@@ -0,0 +1,113 @@
+package oop.project.cli.argparser;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Objects;
+import java.util.function.Consumer;
+
+/**
+ * Reads the lines of a newline-delimited file by memory-mapping it, without copying them into Strings. The file is
+ * mapped in windows of at most {@link #MAX_WINDOW} bytes (a single mapping cannot be larger), each starting at a line
+ * boundary, so files of any size can be read as long as no single line is longer than a window.
+ *
+ * <p>Lines made only of ASCII bytes - which is all the lexer accepts outside of quoted strings - are handed out as
+ * views of the mapped bytes. Lines with other bytes are decoded as UTF-8 into a String.
+ */
+final class MappedLines {
+    static final long MAX_WINDOW = Integer.MAX_VALUE;
+
+    private MappedLines() {}
+
+    /**
+     * Calls <code>action</code> with every line of the file, in order. Lines end with '\n' or "\r\n", neither of
+     * which is part of the line, and the last line need not end with either.
+     *
+     * @throws IOException if the file cannot be read, or has a line longer than a window.
+     */
+    static void forEach(Path path, Consumer<CharSequence> action) throws IOException {
+        forEach(path, MAX_WINDOW, action);
+    }
+
+    static void forEach(Path path, long window, Consumer<CharSequence> action) throws IOException {
+        try (var channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            long base = 0;
+            while (base < size) {
+                long length = Math.min(window, size - base);
+                var buffer = channel.map(FileChannel.MapMode.READ_ONLY, base, length);
+                boolean last = base + length == size;
+                int consumed = forEachLine(buffer, last, action);
+                if (consumed == 0) { throw new IOException("Line at byte " + base + " of " + path + " is too long to map."); }
+                base += consumed;
+            }
+        }
+    }
+
+    /** @return How many bytes of the buffer were handed out as complete lines. */
+    private static int forEachLine(ByteBuffer buffer, boolean last, Consumer<CharSequence> action) {
+        int limit = buffer.limit();
+        int start = 0;
+        boolean ascii = true;
+        for (int i = 0; i < limit; i++) {
+            byte b = buffer.get(i);
+            if (b == '\n') {
+                action.accept(line(buffer, start, i, ascii));
+                start = i + 1;
+                ascii = true;
+            } else if (b < 0) {
+                ascii = false;
+            }
+        }
+        // An unterminated line is only complete at the end of the file, otherwise it is read again in the next window
+        if (last && start < limit) {
+            action.accept(line(buffer, start, limit, ascii));
+            start = limit;
+        }
+        return start;
+    }
+
+    private static CharSequence line(ByteBuffer buffer, int start, int end, boolean ascii) {
+        if (end > start && buffer.get(end - 1) == '\r') { end--; }
+        return ascii ? new AsciiLine(buffer, start, end) : StandardCharsets.UTF_8.decode(buffer.slice(start, end - start)).toString();
+    }
+
+    /** A view of ASCII bytes as chars. */
+    private static final class AsciiLine implements CharSequence {
+        private final ByteBuffer buffer;
+        private final int start, end;
+
+        AsciiLine(ByteBuffer buffer, int start, int end) {
+            this.buffer = buffer;
+            this.start = start;
+            this.end = end;
+        }
+
+        @Override
+        public int length() {
+            return end - start;
+        }
+
+        @Override
+        public char charAt(int index) {
+            Objects.checkIndex(index, length());
+            return (char) buffer.get(start + index);
+        }
+
+        @Override
+        public CharSequence subSequence(int from, int to) {
+            Objects.checkFromToIndex(from, to, length());
+            return new AsciiLine(buffer, start + from, start + to);
+        }
+
+        @Override
+        public String toString() {
+            var bytes = new byte[end - start];
+            buffer.get(start, bytes);
+            return new String(bytes, StandardCharsets.US_ASCII);
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package oop.project.cli.argparser;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Collects {@link ParserMetrics} for every parser it is given to through {@link ArgumentParser#setMetrics}, keyed by
+ * program name. Parsers without a registry record nothing, so metrics cost nothing unless they are asked for. Safe to
+ * share between threads and parsers.
+ */
+public final class MetricsRegistry {
+    private final ConcurrentHashMap<String, ParserMetrics> parsers = new ConcurrentHashMap<>();
+
+    /** @return The metrics of the parser with the given program name, created empty if there are none yet. */
+    public ParserMetrics forParser(String programName) {
+        return parsers.computeIfAbsent(programName, ParserMetrics::new);
+    }
+
+    /** @return A live, read-only view of the metrics of every parser, by program name. */
+    public Map<String, ParserMetrics> getParsers() {
+        return Collections.unmodifiableMap(parsers);
+    }
+}
@@ -0,0 +1,47 @@
+package oop.project.cli.argparser;
+
+import java.util.Map;
+
+/**
+ * Open-addressing hash table from argument names to slots. Lookups take any CharSequence and hash it the way String
+ * does, so names that are still spans of the input are looked up without copying them into a String first.
+ */
+final class NameIndex {
+    private final String[] names;
+    private final int[] slots;
+    private final int mask;
+
+    NameIndex(Map<String, Integer> slotsByName) {
+        // Keep the table at most half full so probe sequences stay short
+        int capacity = Integer.highestOneBit(Math.max(1, slotsByName.size()) * 2 - 1) << 1;
+        this.names = new String[capacity];
+        this.slots = new int[capacity];
+        this.mask = capacity - 1;
+        for (var entry : slotsByName.entrySet()) {
+            int i = spread(entry.getKey().hashCode()) & mask;
+            while (names[i] != null) { i = (i + 1) & mask; }
+            names[i] = entry.getKey();
+            slots[i] = entry.getValue();
+        }
+    }
+
+    /** @return The slot of the argument with the given name, or -1 if there is none. */
+    int get(CharSequence name) {
+        for (int i = spread(hash(name)) & mask; names[i] != null; i = (i + 1) & mask) {
+            if (names[i].length() == name.length() && CharSequence.compare(names[i], name) == 0) { return slots[i]; }
+        }
+        return -1;
+    }
+
+    /** Same hash as {@link String#hashCode()}, for any CharSequence. */
+    static int hash(CharSequence s) {
+        if (s instanceof String string) { return string.hashCode(); }
+        int h = 0;
+        for (int i = 0; i < s.length(); i++) { h = 31 * h + s.charAt(i); }
+        return h;
+    }
+
+    private static int spread(int h) {
+        return h ^ (h >>> 16);
+    }
+}
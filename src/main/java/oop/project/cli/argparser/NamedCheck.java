@@ -0,0 +1,16 @@
+package oop.project.cli.argparser;
+
+import java.util.List;
+
+/**
+ * The checks of a named token that depend only on the schema: that its name is known, and that its values are of the
+ * argument's type and number. Implemented by the hidden classes of {@link ValidatorSpecializer}, with the schema
+ * written into the code.
+ */
+interface NamedCheck {
+    /**
+     * @return The slot of the argument with the given name, if its values are of the argument's type and number;
+     * otherwise -1, and the validator works out which check failed.
+     */
+    int slotIfValid(CharSequence name, List<Object> values);
+}
@@ -0,0 +1,94 @@
+package oop.project.cli.argparser;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+
+/**
+ * Parses number literals straight from the characters of the input, as lexed by {@link Lexer}: an optional '-',
+ * digits, and at most one '.'. The arbitrary-precision parsers are only used for literals too long to fit a long.
+ */
+final class Numbers {
+    /** Every literal with at most this many digits fits in a long. */
+    private static final int LONG_DIGITS = 18;
+    /** Every literal with at most this many digits is exactly representable as a double. */
+    private static final int DOUBLE_DIGITS = 15;
+    private static final double[] POWERS_OF_TEN = new double[23];  // all exactly representable as doubles
+
+    static {
+        POWERS_OF_TEN[0] = 1;
+        for (int i = 1; i < POWERS_OF_TEN.length; i++) { POWERS_OF_TEN[i] = POWERS_OF_TEN[i - 1] * 10; }
+    }
+
+    private Numbers() {}
+
+    /** Decodes an integer literal, which may end with a '.' that has no digits after it. */
+    static BigInteger decodeInteger(CharSequence s, int start, int end) {
+        int stop = s.charAt(end - 1) == '.' ? end - 1 : end;
+        if (digits(s, start, stop) <= LONG_DIGITS) { return BigInteger.valueOf(parseLong(s, start, stop)); }
+        return new BigInteger(s.subSequence(start, stop).toString());
+    }
+
+    /** Decodes a decimal literal, keeping its scale (1.10 has a scale of 2), just as <code>new BigDecimal(s)</code>. */
+    static BigDecimal decodeDecimal(CharSequence s, int start, int end) {
+        if (digits(s, start, end) > LONG_DIGITS) { return new BigDecimal(s.subSequence(start, end).toString()); }
+        long unscaled = 0;
+        int scale = -1;
+        for (int i = s.charAt(start) == '-' ? start + 1 : start; i < end; i++) {
+            char c = s.charAt(i);
+            if (c == '.') {
+                scale = 0;
+            } else {
+                unscaled = unscaled * 10 + (c - '0');
+                if (scale >= 0) { scale++; }
+            }
+        }
+        return BigDecimal.valueOf(s.charAt(start) == '-' ? -unscaled : unscaled, Math.max(scale, 0));
+    }
+
+    /**
+     * Parses an integer literal into a long.
+     * @throws ArithmeticException if it does not fit.
+     */
+    static long parseLong(CharSequence s, int start, int end) {
+        boolean negative = s.charAt(start) == '-';
+        long value = 0;  // accumulated negatively, so that Long.MIN_VALUE fits
+        for (int i = negative ? start + 1 : start; i < end; i++) {
+            char c = s.charAt(i);
+            if (c == '.') { break; }
+            value = Math.subtractExact(Math.multiplyExact(value, 10), c - '0');
+        }
+        return negative ? value : Math.negateExact(value);
+    }
+
+    /**
+     * Parses any number literal into the closest double. Short literals are computed exactly with a single division;
+     * only long ones go through {@link Double#parseDouble(String)}.
+     */
+    static double parseDouble(CharSequence s, int start, int end) {
+        boolean negative = s.charAt(start) == '-';
+        if (digits(s, start, end) > DOUBLE_DIGITS) { return Double.parseDouble(s.subSequence(start, end).toString()); }
+        long unscaled = 0;
+        int scale = -1;
+        for (int i = negative ? start + 1 : start; i < end; i++) {
+            char c = s.charAt(i);
+            if (c == '.') {
+                scale = 0;
+            } else {
+                unscaled = unscaled * 10 + (c - '0');
+                if (scale >= 0) { scale++; }
+            }
+        }
+        double value = unscaled / POWERS_OF_TEN[Math.max(scale, 0)];
+        return negative ? -value : value;
+    }
+
+    /** Counts the digits of a literal, leading zeros included. */
+    private static int digits(CharSequence s, int start, int end) {
+        int digits = end - start;
+        if (s.charAt(start) == '-') { digits--; }
+        for (int i = start; i < end; i++) {
+            if (s.charAt(i) == '.') { digits--; }
+        }
+        return digits;
+    }
+}
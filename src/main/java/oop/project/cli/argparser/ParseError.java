@@ -0,0 +1,39 @@
+package oop.project.cli.argparser;
+
+/**
+ * One reason an input was rejected, as reported by {@link CompiledParser#tryParse(CharSequence)} and carried by
+ * {@link ArgParseException} and {@link ParseException}.
+ *
+ * @param code What kind of error it is.
+ * @param position Offset in the input of the token the error is about, or -1 if it is not about any one token (a
+ *                 required argument that was never given).
+ * @param ref Ref of the argument the error is about, or null if it could not be tied to one.
+ * @param message Human-readable description, the same text the exceptions carry.
+ */
+public record ParseError(Code code, int position, String ref, String message) {
+    public enum Code {
+        /** The input is not made of valid positional values, named arguments and flags. */
+        SYNTAX,
+        /** A value is neither a string nor a number. */
+        UNSUPPORTED_VALUE,
+        /** A named argument or flag is not in the schema. */
+        UNKNOWN_ARGUMENT,
+        /** A named argument or flag was given twice. */
+        DUPLICATE_ARGUMENT,
+        /** A value has a type the argument does not take. */
+        TYPE_MISMATCH,
+        /** An argument was given a number of values its nArgs does not allow. */
+        ARITY,
+        /** A value is outside the argument's range, or too large for its primitive type. */
+        OUT_OF_RANGE,
+        /** A positional value fits none of the positional arguments that are left. */
+        UNKNOWN_POSITIONAL,
+        /** A required argument was not given. */
+        MISSING_REQUIRED
+    }
+
+    /** @return This error with its position moved by <code>offset</code>, for input that was parsed as part of a longer one. */
+    ParseError shifted(int offset) {
+        return position < 0 ? this : new ParseError(code, position + offset, ref, message);
+    }
+}
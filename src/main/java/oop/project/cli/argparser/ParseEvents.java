@@ -0,0 +1,97 @@
+package oop.project.cli.argparser;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JDK Flight Recorder events for the phases of a parse. While no recording has them enabled, creating and finishing an
+ * event costs next to nothing, so they are always emitted. Record them with, for example,
+ * <code>-XX:StartFlightRecording</code> and look for the <code>oop.project.cli</code> events.
+ */
+final class ParseEvents {
+    private ParseEvents() {}
+
+    /** What the outcome field of an event that succeeded holds. */
+    static final String SUCCESS = "SUCCESS";
+
+    /** Fields shared by the lex and validate events. */
+    @Category({"CLI", "Parse"})
+    @StackTrace(false)
+    abstract static class Phase extends Event {
+        @Label("Parser")
+        String parser;
+
+        @Label("Input Length")
+        int inputLength;
+
+        @Label("Token Count")
+        int tokenCount;
+
+        @Label("Outcome")
+        @Description("SUCCESS, or the code of the error that rejected the input")
+        String outcome;
+
+        /** Ends the event, and commits it if a recording wants it. */
+        void finish(String parser, int inputLength, int tokenCount, ParseError error) {
+            end();
+            if (shouldCommit()) {
+                this.parser = parser;
+                this.inputLength = inputLength;
+                this.tokenCount = tokenCount;
+                this.outcome = error == null ? SUCCESS : error.code().name();
+                commit();
+            }
+        }
+    }
+
+    @Name("oop.project.cli.Lex")
+    @Label("Lex")
+    static final class Lex extends Phase {}
+
+    @Name("oop.project.cli.Validate")
+    @Label("Validate")
+    static final class Validate extends Phase {}
+
+    @Name("oop.project.cli.Help")
+    @Label("Help")
+    @Category({"CLI", "Help"})
+    @StackTrace(false)
+    static final class Help extends Event {
+        @Label("Parser")
+        String parser;
+
+        @Label("Arguments")
+        int arguments;
+
+        @Label("Help Length")
+        int helpLength;
+
+        @Label("Outcome")
+        @Description("RENDERED, or CACHED if the help was already rendered")
+        String outcome;
+
+        void finish(String parser, int arguments, String help, boolean cached) {
+            end();
+            if (shouldCommit()) {
+                this.parser = parser;
+                this.arguments = arguments;
+                this.helpLength = help.length();
+                this.outcome = cached ? "CACHED" : "RENDERED";
+                commit();
+            }
+        }
+    }
+
+    /** @return The error an exception thrown by a parse carries, or null if it carries none. */
+    static ParseError errorOf(Exception e) {
+        return switch (e) {
+            case ArgParseException argParse -> argParse.getError();
+            case ParseException parse -> parse.getError();
+            default -> null;
+        };
+    }
+}
@@ -1,7 +1,21 @@
 package oop.project.cli.argparser;
 
 public final class ParseException extends RuntimeException {
+    private final ParseError error;
+
     public ParseException(String message) {
         super("Parse error:" + message);
+        this.error = null;
+    }
+
+    /** Like {@link ArgParseException#ArgParseException(ParseError, boolean)}. */
+    public ParseException(ParseError error, boolean stackless) {
+        super("Parse error:" + error.message(), null, !stackless, !stackless);
+        this.error = error;
+    }
+
+    /** @return What went wrong, or null if this was thrown with only a message. */
+    public ParseError getError() {
+        return error;
     }
-}
\ No newline at end of file
+}
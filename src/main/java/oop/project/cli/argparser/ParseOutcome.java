@@ -0,0 +1,22 @@
+package oop.project.cli.argparser;
+
+import java.util.List;
+
+/**
+ * The result of {@link CompiledParser#tryParse(CharSequence)}: either the parsed values, or every error found in the
+ * input. Meant to be taken apart with a switch:
+ * <pre>{@code
+ * switch (parser.tryParse(input)) {
+ *     case ParseOutcome.Success(var arguments) -> ...
+ *     case ParseOutcome.Failure(var errors) -> ...
+ * }
+ * }</pre>
+ */
+public sealed interface ParseOutcome {
+
+    /** @param arguments The values of every argument in the schema. */
+    record Success(ParsedArguments arguments) implements ParseOutcome {}
+
+    /** @param errors The errors found, in input order; never empty. */
+    record Failure(List<ParseError> errors) implements ParseOutcome {}
+}
@@ -0,0 +1,160 @@
+package oop.project.cli.argparser;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The result of a single parse: the values given for every argument of a {@link CompiledParser}, looked up by ref.
+ * Instances are immutable and do not share any state with other parses.
+ *
+ * <p>Values of {@link Integer}, {@link Long} and {@link Double} arguments are stored in primitive arrays. Read them
+ * with the typed accessors ({@link #getInt(String)}, {@link #getLongs(String)}, ...) to avoid boxing;
+ * {@link #getValue(String)} works for them too, but boxes every value. Arguments given a list of integers keep the
+ * chunks the lexer parsed it into (see {@link LongChunks}) instead of copying them into an array.
+ */
+public final class ParsedArguments {
+    private final CompiledParser parser;
+    private final Object[] values;  // indexed by slot; a List<Object> (LongChunks for integer lists), or an int[], long[] or double[]
+    private final boolean[] present;
+
+    ParsedArguments(CompiledParser parser, Object[] values, boolean[] present) {
+        this.parser = parser;
+        this.values = values;
+        this.present = present;
+    }
+
+    /**
+     * @param ref Ref of an argument in the schema.
+     * @return The values given for the argument, empty if it was not given any.
+     * @throws ArgumentException if the schema has no argument with that ref.
+     */
+    public List<Object> getValue(String ref) {
+        return view(parser.slotOfRef(ref));
+    }
+
+    /**
+     * @param ref Ref of an argument in the schema.
+     * @return Whether the argument appeared in the input, with or without values.
+     * @throws ArgumentException if the schema has no argument with that ref.
+     */
+    public boolean isPresent(String ref) {
+        return present[parser.slotOfRef(ref)];
+    }
+
+    /**
+     * @param ref Ref of an {@link Integer} argument.
+     * @return Its first value.
+     * @throws ArgumentException if the argument is not an Integer argument or was given no value.
+     */
+    public int getInt(String ref) {
+        var ints = primitives(ref, Integer.class);
+        if (size(ints) == 0) { throw new ArgumentException("No value given for " + ref + "."); }
+        return ints instanceof LongChunks chunks ? (int) chunks.getLong(0) : ((int[]) ints)[0];
+    }
+
+    /** @return All values of an {@link Integer} argument. */
+    public int[] getInts(String ref) {
+        var ints = primitives(ref, Integer.class);
+        return ints instanceof LongChunks chunks ? chunks.toIntArray() : ((int[]) ints).clone();
+    }
+
+    /**
+     * @param ref Ref of a {@link Long} argument.
+     * @return Its first value.
+     * @throws ArgumentException if the argument is not a Long argument or was given no value.
+     */
+    public long getLong(String ref) {
+        var longs = primitives(ref, Long.class);
+        if (size(longs) == 0) { throw new ArgumentException("No value given for " + ref + "."); }
+        return longs instanceof LongChunks chunks ? chunks.getLong(0) : ((long[]) longs)[0];
+    }
+
+    /** @return All values of a {@link Long} argument. */
+    public long[] getLongs(String ref) {
+        var longs = primitives(ref, Long.class);
+        return longs instanceof LongChunks chunks ? chunks.toLongArray() : ((long[]) longs).clone();
+    }
+
+    /**
+     * @param ref Ref of a {@link Double} argument.
+     * @return Its first value.
+     * @throws ArgumentException if the argument is not a Double argument or was given no value.
+     */
+    public double getDouble(String ref) {
+        var doubles = primitives(ref, Double.class);
+        if (size(doubles) == 0) { throw new ArgumentException("No value given for " + ref + "."); }
+        return doubles instanceof LongChunks chunks ? chunks.getLong(0) : ((double[]) doubles)[0];
+    }
+
+    /** @return All values of a {@link Double} argument. */
+    public double[] getDoubles(String ref) {
+        var doubles = primitives(ref, Double.class);
+        return doubles instanceof LongChunks chunks ? chunks.toDoubleArray() : ((double[]) doubles).clone();
+    }
+
+    /**
+     * @return The program name of the parser that produced this result - for a subcommand, the name it was added
+     * under when built through {@link ArgumentParser#addSubcommand(String, String, java.util.function.Consumer)}.
+     */
+    public String getProgramName() {
+        return parser.getProgramName();
+    }
+
+    /** @return Every argument's values keyed by ref, in the order the arguments were added to the parser. */
+    public Map<String, List<Object>> toMap() {
+        var map = new LinkedHashMap<String, List<Object>>();
+        for (int slot = 0; slot < values.length; slot++) {
+            map.put(parser.argument(slot).ref, view(slot));
+        }
+        return map;
+    }
+
+    @Override
+    public String toString() {
+        return toMap().toString();
+    }
+
+    private Object primitives(String ref, Class<?> type) {
+        int slot = parser.slotOfRef(ref);
+        if (parser.argument(slot).type != type)
+            { throw new ArgumentException(ref + " is a " + parser.argument(slot).type.getSimpleName() + " argument, not " + type.getSimpleName() + "."); }
+        return values[slot];
+    }
+
+    /**
+     * @return A read-only view of a slot: chunks hold the argument's type for an Integer, Long or Double argument, and
+     * BigIntegers, as lexed, otherwise.
+     */
+    private List<Object> view(int slot) {
+        var type = parser.argument(slot).type;
+        if (values[slot] instanceof LongChunks chunks && (type == Integer.class || type == Long.class || type == Double.class))
+            { return chunks.boxed(type); }
+        return asList(values[slot]);
+    }
+
+    /** @return How many values a stored slot holds. */
+    static int size(Object stored) {
+        return switch (stored) {
+            case List<?> list -> list.size();
+            case int[] ints -> ints.length;
+            case long[] longs -> longs.length;
+            case double[] doubles -> doubles.length;
+            default -> throw new AssertionError(stored);
+        };
+    }
+
+    /** @return A read-only view of a stored slot, boxing primitive values. */
+    @SuppressWarnings("unchecked")
+    static List<Object> asList(Object stored) {
+        return switch (stored) {
+            case List<?> list -> Collections.unmodifiableList((List<Object>) list);
+            case int[] ints -> Arrays.stream(ints).<Object>mapToObj(Integer::valueOf).toList();
+            case long[] longs -> Arrays.stream(longs).<Object>mapToObj(Long::valueOf).toList();
+            case double[] doubles -> Arrays.stream(doubles).<Object>mapToObj(Double::valueOf).toList();
+            default -> throw new AssertionError(stored);
+        };
+    }
+}
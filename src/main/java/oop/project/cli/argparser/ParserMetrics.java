@@ -0,0 +1,86 @@
+package oop.project.cli.argparser;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counters for every parse made with one parser, kept by a {@link MetricsRegistry}. All counters are
+ * {@link LongAdder}s, so parses on any number of threads record into them without locking.
+ */
+public final class ParserMetrics {
+    private static final ParseError.Code[] CODES = ParseError.Code.values();
+
+    private final String parser;
+    private final LongAdder parses = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private final LongAdder[] failuresByCode = new LongAdder[CODES.length];
+    private final LongAdder tokens = new LongAdder();
+    private final LatencyHistogram latency = new LatencyHistogram();
+
+    ParserMetrics(String parser) {
+        this.parser = parser;
+        for (int i = 0; i < CODES.length; i++) { failuresByCode[i] = new LongAdder(); }
+    }
+
+    /**
+     * Records a finished parse.
+     *
+     * @param tokenCount How many tokens were lexed.
+     * @param start When the parse started, from {@link System#nanoTime()}.
+     * @param failed Whether the input was rejected.
+     * @param error Why it was rejected, if known.
+     */
+    void record(int tokenCount, long start, boolean failed, ParseError error) {
+        latency.record(System.nanoTime() - start);
+        parses.increment();
+        tokens.add(tokenCount);
+        if (failed) {
+            failures.increment();
+            if (error != null) { failuresByCode[error.code().ordinal()].increment(); }
+        }
+    }
+
+    /** @return The program name of the parser. */
+    public String getParser() {
+        return parser;
+    }
+
+    /** @return How many inputs were parsed, whether they were accepted or not. */
+    public long getParses() {
+        return parses.sum();
+    }
+
+    /** @return How many inputs were rejected. */
+    public long getFailures() {
+        return failures.sum();
+    }
+
+    /** @return How many inputs were rejected with the given error (the first one, when several were found). */
+    public long getFailures(ParseError.Code code) {
+        return failuresByCode[code.ordinal()].sum();
+    }
+
+    /** @return {@link #getFailures(ParseError.Code)} for every code. */
+    public Map<ParseError.Code, Long> getFailuresByCode() {
+        var byCode = new EnumMap<ParseError.Code, Long>(ParseError.Code.class);
+        for (var code : CODES) { byCode.put(code, getFailures(code)); }
+        return byCode;
+    }
+
+    /** @return How many tokens were lexed, over all parses. */
+    public long getTokens() {
+        return tokens.sum();
+    }
+
+    /** @return The latency of every parse, from the start of lexing to the end of validation. */
+    public LatencyHistogram getLatency() {
+        return latency;
+    }
+
+    @Override
+    public String toString() {
+        return parser + ": " + getParses() + " parses, " + getFailures() + " failures, " + getTokens() + " tokens, p50 "
+                + latency.percentile(0.5) + "ns, p99 " + latency.percentile(0.99) + "ns";
+    }
+}
@@ -0,0 +1,92 @@
+package oop.project.cli.argparser;
+
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.function.Supplier;
+
+/**
+ * A set of commands, each with its own schema, dispatched on the first word of a command line. A command's schema is
+ * only built the first time the command is used; after that its compiled parser is reused, so parsing a command line
+ * costs no more than the lex and validation of its arguments. The command word is looked up in a trie, straight from
+ * the command line.
+ *
+ * <p>Commands must all be registered before the registry is shared between threads. After that, every method may be
+ * called concurrently.
+ */
+public final class ParserRegistry {
+    private final PrefixTrie<LazyParser> entries = new PrefixTrie<>();
+    private final Set<String> commands = new LinkedHashSet<>();
+
+    /**
+     * Registers a command.
+     *
+     * @param command The command word.
+     * @param schema Builds the command's parser. Called at most once, the first time the command is used.
+     * @return This registry.
+     */
+    public ParserRegistry register(String command, Supplier<ArgumentParser> schema) {
+        if (!commands.add(command)) { throw new ArgumentException("Command already registered: " + command); }
+        entries.put(command, new LazyParser(schema));
+        return this;
+    }
+
+    public Set<String> getCommands() {
+        return Set.copyOf(commands);
+    }
+
+    /**
+     * @param command A registered command word.
+     * @return The command's schema, built on first use.
+     * @throws IllegalArgumentException if no such command is registered.
+     */
+    public ArgumentParser getSchema(String command) {
+        return entry(command, 0, command.length()).schema();
+    }
+
+    /**
+     * @param command A registered command word.
+     * @return The command's compiled parser, compiled on first use.
+     * @throws IllegalArgumentException if no such command is registered.
+     */
+    public CompiledParser getParser(String command) {
+        return entry(command, 0, command.length()).parser(Lexer.TokenMode.DECODED);
+    }
+
+    /**
+     * Parses a command line of the form <code>command [arguments...]</code> with the parser of its command. Prints the
+     * command's usage if the arguments are invalid, as {@link ArgumentParser#parse(String)} does, unless the
+     * command's parser has help on errors turned off.
+     *
+     * @param commandLine The command word, optionally followed by a space and its arguments.
+     * @return The parsed arguments.
+     * @throws IllegalArgumentException if the command is not registered.
+     * @throws ArgParseException if the arguments do not match the command's schema.
+     */
+    public ParsedArguments parse(String commandLine) throws ArgParseException {
+        return parse(commandLine, true);
+    }
+
+    /**
+     * Parses a command line as {@link #parse(String)} does.
+     *
+     * @param helpOnError Whether to print the command's usage if its arguments are invalid. If false, no usage is
+     * printed, whatever the command's parser is set to; as a server answering clients would have it.
+     */
+    public ParsedArguments parse(String commandLine, boolean helpOnError) throws ArgParseException {
+        int space = commandLine.indexOf(' ');
+        var entry = entry(commandLine, 0, space < 0 ? commandLine.length() : space);
+        var arguments = space < 0 ? "" : commandLine.substring(space + 1);
+        try {
+            return entry.parser(Lexer.TokenMode.DECODED).parse(arguments);
+        } catch (ArgParseException e) {
+            if (helpOnError) { entry.schema().invokeHelpOnError(); }
+            throw e;
+        }
+    }
+
+    private LazyParser entry(CharSequence s, int start, int end) {
+        var entry = entries.get(s, start, end);
+        if (entry == null) { throw new IllegalArgumentException("Unknown command."); }
+        return entry;
+    }
+}
@@ -0,0 +1,157 @@
+package oop.project.cli.argparser;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The positional arguments of a schema in declaration order, with what each accepts, worked out once per
+ * {@link CompiledParser}. Assigns the positional tokens of a parse to these slots, keeping both in order: each token
+ * goes to a later slot than the token before it, optional slots may be skipped, and required ones may not.
+ *
+ * <p>When several slots could take a token - for example <code>source*</code> followed by <code>dest?</code> - the
+ * earliest is chosen that still leaves a valid assignment for the remaining tokens. If no optional positional comes
+ * before a required one, the earliest slot that takes a token always does, so tokens are assigned in one pass without
+ * allocating anything but the result. Otherwise, whether a valid assignment exists is read from a table filled
+ * backwards over tokens and slots, so an assignment costs O(tokens &times; slots) however many variadic slots there
+ * are, with no backtracking.
+ */
+final class PositionalPlan {
+    private final int[] slots;  // schema slots of the positional arguments, in declaration order
+    private final Class<?>[] types;
+    private final String[] refs;
+    private final Arity[] arities;
+    private final boolean[] required;
+    private final int[] requiredFrom;  // requiredFrom[p] = how many of positionals p.. are required
+    private final Class<?>[] distinctTypes;  // the types of the positionals, each once
+    private final int[] typeIndex;  // typeIndex[p] = index of types[p] in distinctTypes
+    private final boolean greedy;  // whether no optional positional comes before a required one
+
+    PositionalPlan(CompiledParser parser, int[] slots) {
+        this.slots = slots;
+        this.types = new Class<?>[slots.length];
+        this.refs = new String[slots.length];
+        this.arities = new Arity[slots.length];
+        this.required = new boolean[slots.length];
+        this.requiredFrom = new int[slots.length + 1];
+        for (int p = slots.length - 1; p >= 0; p--) {
+            var argument = parser.argument(slots[p]);
+            types[p] = argument.type;
+            refs[p] = argument.ref;
+            arities[p] = parser.arity(slots[p]);
+            required[p] = argument.required;
+            requiredFrom[p] = requiredFrom[p + 1] + (required[p] ? 1 : 0);
+        }
+        var distinct = new ArrayList<Class<?>>();
+        this.typeIndex = new int[slots.length];
+        for (int p = 0; p < slots.length; p++) {
+            if (!distinct.contains(types[p])) { distinct.add(types[p]); }
+            typeIndex[p] = distinct.indexOf(types[p]);
+        }
+        this.distinctTypes = distinct.toArray(new Class<?>[0]);
+        boolean optionalSeen = false, greedy = true;
+        for (boolean isRequired : required) {
+            if (isRequired && optionalSeen) { greedy = false; }
+            optionalSeen |= !isRequired;
+        }
+        this.greedy = greedy;
+    }
+
+    /**
+     * Assigns each positional token to a slot.
+     *
+     * @param tokenValues The values of each positional token, in input order.
+     * @param positions The offset in the input of each positional token, or null if unknown.
+     * @param stackless Whether the exception is thrown without a stack trace.
+     * @return The schema slot of each token.
+     * @throws ArgParseException if a token fits no slot that is left. A plan that leaves a required slot empty is not
+     * reported here, but by the validator's check for required arguments.
+     */
+    int[] assign(List<List<Object>> tokenValues, int[] positions, boolean stackless) throws ArgParseException {
+        return greedy ? assignGreedily(tokenValues, positions, stackless) : assignByTable(tokenValues, positions, stackless);
+    }
+
+    /**
+     * Assigns each token to the earliest slot that takes it. With the required positionals all first, each of them
+     * can only take the token of its own index, and once past them any slot left can be skipped, so taking the
+     * earliest slot never leaves a later token without one that a later slot would have left it.
+     */
+    private int[] assignGreedily(List<List<Object>> tokenValues, int[] positions, boolean stackless) throws ArgParseException {
+        var assigned = new int[tokenValues.size()];
+        int next = 0;
+        for (int t = 0; t < assigned.length; t++) {
+            var values = tokenValues.get(t);
+            int chosen = next;
+            while (chosen < slots.length && !(arities[chosen].accepts(values.size()) && Validator.typeMatches(values, types[chosen]))) {
+                chosen++;
+            }
+            if (chosen == slots.length) { throw misfit(values, positions == null ? -1 : positions[t], refs, types, next, stackless); }
+            assigned[t] = slots[chosen];
+            next = chosen + 1;
+        }
+        return assigned;
+    }
+
+    private int[] assignByTable(List<List<Object>> tokenValues, int[] positions, boolean stackless) throws ArgParseException {
+        int tokens = tokenValues.size(), positionals = slots.length, width = positionals + 1;
+        // fits[t * positionals + p]: token t fits positional p. Each token is checked against each distinct type once.
+        var fits = new boolean[tokens * positionals];
+        var typeMatches = new boolean[distinctTypes.length];
+        for (int t = 0; t < tokens; t++) {
+            var values = tokenValues.get(t);
+            for (int d = 0; d < distinctTypes.length; d++) { typeMatches[d] = Validator.typeMatches(values, distinctTypes[d]); }
+            for (int p = 0; p < positionals; p++) {
+                fits[t * positionals + p] = typeMatches[typeIndex[p]] && arities[p].accepts(values.size());
+            }
+        }
+
+        // feasible[t * width + p]: tokens t.. can be assigned to positionals p.., leaving none of them required and empty
+        var feasible = new boolean[(tokens + 1) * width];
+        for (int p = 0; p <= positionals; p++) { feasible[tokens * width + p] = requiredFrom[p] == 0; }
+        for (int t = tokens - 1; t >= 0; t--) {
+            for (int p = positionals - 1; p >= 0; p--) {
+                feasible[t * width + p] = (fits[t * positionals + p] && feasible[(t + 1) * width + p + 1])
+                        || (!required[p] && feasible[t * width + p + 1]);
+            }
+        }
+
+        var assigned = new int[tokens];
+        int next = 0;
+        for (int t = 0; t < tokens; t++) {
+            int chosen = -1;
+            for (int p = next; p < positionals; p++) {
+                if (fits[t * positionals + p] && feasible[(t + 1) * width + p + 1]) {
+                    chosen = p;
+                    break;
+                }
+                if (required[p]) { break; }
+            }
+            // No valid assignment is left: carry on with the first slot that fits, to report the first token that
+            // fits nowhere, or else the required slot that ends up empty
+            if (chosen < 0) {
+                for (int p = next; p < positionals && chosen < 0; p++) {
+                    if (fits[t * positionals + p]) { chosen = p; }
+                }
+            }
+            if (chosen < 0) { throw misfit(tokenValues.get(t), positions == null ? -1 : positions[t], refs, types, next, stackless); }
+            assigned[t] = slots[chosen];
+            next = chosen + 1;
+        }
+        return assigned;
+    }
+
+    /**
+     * @return The error for a positional token that fits none of the positionals from <code>next</code> on: of arity if
+     * one of them takes its type, else of an unknown positional.
+     */
+    static ArgParseException misfit(List<Object> values, int position, String[] refs, Class<?>[] types, int next, boolean stackless) {
+        // Maybe it's the number of arguments...?
+        for (int p = next; p < refs.length; p++) {
+            if (Validator.typeMatches(values, types[p])) {
+                return new ArgParseException(new ParseError(ParseError.Code.ARITY, position, refs[p],
+                        "Invalid number of arguments " + values.size() + "."), stackless);
+            }
+        }
+        return new ArgParseException(new ParseError(ParseError.Code.UNKNOWN_POSITIONAL, position, null,
+                "Unknown positional argument with type " + Validator.typeName(values)), stackless);
+    }
+}
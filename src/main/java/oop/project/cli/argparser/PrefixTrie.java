@@ -0,0 +1,105 @@
+package oop.project.cli.argparser;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A map from strings to values, stored as a trie so that keys can be looked up straight from a region of a larger
+ * CharSequence (such as the first word of a command line) without cutting it out first. Each node keeps its children
+ * in a sorted array, so lookups cost one binary search per character of the key, however many keys there are, and
+ * the keys that share a prefix can be listed in sorted order without looking at any others.
+ *
+ * <p>Not thread-safe while being filled; once filled it may be read concurrently.
+ *
+ * @param <V> Type of the values.
+ */
+final class PrefixTrie<V> {
+    private static final char[] NO_KEYS = {};
+
+    private final Node<V> root = new Node<>();
+    private int size;
+
+    /**
+     * Maps <code>key</code> to <code>value</code>.
+     * @return The value previously mapped to the key, or null.
+     */
+    V put(String key, V value) {
+        var node = root;
+        for (int i = 0; i < key.length(); i++) { node = node.childOrCreate(key.charAt(i)); }
+        var previous = node.value;
+        node.value = value;
+        if (previous == null) { size++; }
+        return previous;
+    }
+
+    /** @return The value mapped to the whole of <code>key</code>, or null. */
+    V get(CharSequence key) {
+        return get(key, 0, key.length());
+    }
+
+    /** @return The value mapped to the characters of <code>s</code> from <code>start</code> to <code>end</code>, or null. */
+    V get(CharSequence s, int start, int end) {
+        var node = find(s, start, end);
+        return node == null ? null : node.value;
+    }
+
+    /**
+     * Adds every key that starts with the characters of <code>s</code> from <code>start</code> to <code>end</code> to
+     * <code>keys</code>, in sorted order. Costs time in the length of the prefix and the size of the keys found, not in
+     * the number of keys in the trie.
+     */
+    void keysWithPrefix(CharSequence s, int start, int end, List<String> keys) {
+        var node = find(s, start, end);
+        if (node != null) { collect(node, new StringBuilder().append(s, start, end), keys); }
+    }
+
+    int size() {
+        return size;
+    }
+
+    private static void collect(Node<?> node, StringBuilder key, List<String> keys) {
+        if (node.value != null) { keys.add(key.toString()); }
+        for (int i = 0; i < node.keys.length; i++) {
+            key.append(node.keys[i]);
+            collect(node.children[i], key, keys);
+            key.setLength(key.length() - 1);
+        }
+    }
+
+    private Node<V> find(CharSequence s, int start, int end) {
+        var node = root;
+        for (int i = start; i < end && node != null; i++) { node = node.child(s.charAt(i)); }
+        return node;
+    }
+
+    private static final class Node<V> {
+        private char[] keys = NO_KEYS;  // sorted
+        private Node<V>[] children;
+        private V value;
+
+        Node<V> child(char c) {
+            int i = Arrays.binarySearch(keys, c);
+            return i < 0 ? null : children[i];
+        }
+
+        @SuppressWarnings("unchecked")
+        Node<V> childOrCreate(char c) {
+            int i = Arrays.binarySearch(keys, c);
+            if (i >= 0) { return children[i]; }
+            i = -i - 1;
+            var grownKeys = new char[keys.length + 1];
+            var grownChildren = (Node<V>[]) new Node<?>[keys.length + 1];
+            System.arraycopy(keys, 0, grownKeys, 0, i);
+            System.arraycopy(keys, i, grownKeys, i + 1, keys.length - i);
+            if (children != null) {
+                System.arraycopy(children, 0, grownChildren, 0, i);
+                System.arraycopy(children, i, grownChildren, i + 1, keys.length - i);
+            }
+            grownKeys[i] = c;
+            grownChildren[i] = new Node<>();
+            keys = grownKeys;
+            children = grownChildren;
+            return grownChildren[i];
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package oop.project.cli.argparser;
+
+/**
+ * A range that can check the primitive values of {@link Integer}, {@link Long} and {@link Double} arguments without
+ * boxing them. Each method returns the index of the first value out of range, or -1 if all are in range, or
+ * {@link #UNSUPPORTED} if the range's bounds are not of the array's type, in which case the caller falls back to
+ * {@link IRange#isInRange}.
+ */
+interface PrimitiveRange {
+    int UNSUPPORTED = -2;
+
+    int indexOutOfRange(int[] values);
+
+    int indexOutOfRange(long[] values);
+
+    int indexOutOfRange(double[] values);
+
+    /** Checks a list of integers as lexed, as ints or longs, or as doubles, depending on the type of the bounds. */
+    int indexOutOfRange(LongChunks values);
+
+    /**
+     * @return Whether every integer from <code>min</code> to <code>max</code> is in range - as an int or long, or as
+     * a double, depending on the type of the bounds - so that values known to lie between the two need not be checked
+     * one by one. False if they are not all in range, or the bounds are of another type.
+     */
+    boolean containsAll(long min, long max);
+}
@@ -0,0 +1,218 @@
+package oop.project.cli.argparser;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.lang.reflect.Array;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Date;
+
+/**
+ * Reads and writes the binary snapshots of {@link ArgumentParser#writeSnapshot(OutputStream)}. A snapshot holds
+ * exactly what the builders were given, already checked, so loading one builds each argument directly, skipping
+ * {@link ArgumentBuilder}'s checks.
+ *
+ * <p>Layout, all in {@link DataOutputStream} encoding: a magic number and format version; the program name and
+ * description; the arguments, each as its type code (its index in <code>ArgumentBuilder.validTypes</code>), ref,
+ * names, nArgs, help message, help name, required and positional flags, and range; then the subcommands, each as its
+ * name and a nested snapshot of its schema. The help flag every parser starts with is not written.
+ */
+final class SchemaSnapshot {
+    private static final int MAGIC = 0x434c4953;  // "CLIS"
+    private static final int VERSION = 1;
+
+    private static final int NO_RANGE = 0, DISCRETE = 1, CONTINUOUS = 2, INTERVAL = 3;
+
+    private SchemaSnapshot() {}
+
+    static void write(ArgumentParser parser, OutputStream out) throws IOException {
+        var data = new DataOutputStream(out);
+        data.writeInt(MAGIC);
+        data.writeShort(VERSION);
+        writeSchema(parser, data);
+        data.flush();
+    }
+
+    static ArgumentParser read(InputStream in) throws IOException {
+        var data = new DataInputStream(in);
+        if (data.readInt() != MAGIC) { throw new IOException("Not a schema snapshot."); }
+        int version = data.readUnsignedShort();
+        if (version != VERSION) { throw new IOException("Unsupported schema snapshot version " + version + "."); }
+        return readSchema(data);
+    }
+
+    private static void writeSchema(ArgumentParser parser, DataOutputStream out) throws IOException {
+        out.writeUTF(parser.programName());
+        writeNullable(out, parser.description);
+        var arguments = parser.arguments.subList(1, parser.arguments.size());  // all but the help flag
+        out.writeInt(arguments.size());
+        for (var argument : arguments) { writeArgument(argument, out); }
+
+        var subcommands = parser.subcommandParsers();
+        out.writeInt(subcommands.size());
+        for (var subcommand : subcommands.entrySet()) {
+            out.writeUTF(subcommand.getKey());
+            var nested = new ByteArrayOutputStream();
+            writeSchema(subcommand.getValue().schema(), new DataOutputStream(nested));
+            out.writeInt(nested.size());
+            nested.writeTo(out);
+        }
+    }
+
+    private static ArgumentParser readSchema(DataInputStream in) throws IOException {
+        var parser = new ArgumentParser(in.readUTF(), readNullable(in));
+        int count = in.readInt();
+        var arguments = new ArrayList<Argument<?>>(count);
+        for (int i = 0; i < count; i++) { arguments.add(readArgument(in)); }
+        parser.addArguments(arguments);
+
+        int subcommands = in.readInt();
+        for (int i = 0; i < subcommands; i++) {
+            var name = in.readUTF();
+            var nested = in.readNBytes(in.readInt());
+            parser.addSubcommand(name, () -> {
+                try {
+                    return readSchema(new DataInputStream(new ByteArrayInputStream(nested)));
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        }
+        return parser;
+    }
+
+    private static void writeArgument(Argument<?> argument, DataOutputStream out) throws IOException {
+        out.writeByte(ArgumentBuilder.validTypes.indexOf(argument.type));
+        out.writeUTF(argument.ref);
+        out.writeInt(argument.names.length);
+        for (var name : argument.names) { out.writeUTF(name); }
+        writeNullable(out, argument.nArgs);
+        writeNullable(out, argument.helpMessage);
+        writeNullable(out, argument.helpName);
+        out.writeBoolean(argument.required);
+        out.writeBoolean(argument.positional);
+
+        switch (argument.range) {
+            case null -> out.writeByte(NO_RANGE);
+            case DiscreteValues<?> discrete -> {
+                out.writeByte(DISCRETE);
+                out.writeInt(discrete.values().size());
+                for (var value : discrete.values()) { writeValue(out, value, argument); }
+            }
+            case ContinuousRange<?> continuous -> {
+                out.writeByte(CONTINUOUS);
+                writeValue(out, continuous.lower(), argument);
+                writeValue(out, continuous.upper(), argument);
+            }
+            case IntervalRange<?> intervals -> {
+                out.writeByte(INTERVAL);
+                out.writeInt(intervals.lowers().length);
+                for (int i = 0; i < intervals.lowers().length; i++) {
+                    writeValue(out, intervals.lowers()[i], argument);
+                    writeValue(out, intervals.uppers()[i], argument);
+                }
+            }
+            default -> throw new ArgumentException("Cannot snapshot " + argument.ref + ": its range is a "
+                    + argument.range.getClass().getName() + ".");
+        }
+    }
+
+    private static Argument<?> readArgument(DataInputStream in) throws IOException {
+        int code = in.readUnsignedByte();
+        if (code >= ArgumentBuilder.validTypes.size()) { throw new IOException("Unknown type code " + code + "."); }
+        return readArgument(in, ArgumentBuilder.validTypes.get(code));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T extends Comparable<? super T>> Argument<T> readArgument(DataInputStream in, Class<?> type) throws IOException {
+        var ref = in.readUTF();
+        var names = new String[in.readInt()];
+        for (int i = 0; i < names.length; i++) { names[i] = in.readUTF(); }
+        var builder = ArgumentBuilder.unchecked((Class<T>) type, ref, names)
+                .setNArgsUnchecked(readNullable(in))
+                .setHelpMessage(readNullable(in))
+                .setHelpName(readNullable(in))
+                .setRequired(in.readBoolean())
+                .setPositional(in.readBoolean());
+
+        int range = in.readUnsignedByte();
+        switch (range) {
+            case NO_RANGE -> {}
+            case DISCRETE -> {
+                var values = (T[]) Array.newInstance(type, in.readInt());
+                for (int i = 0; i < values.length; i++) { values[i] = (T) readValue(in, type); }
+                builder.setRange(new DiscreteValues<>(values));
+            }
+            case CONTINUOUS -> builder.setRange(new ContinuousRange<>((T) readValue(in, type), (T) readValue(in, type)));
+            case INTERVAL -> {
+                var lowers = new Object[in.readInt()];
+                var uppers = new Object[lowers.length];
+                for (int i = 0; i < lowers.length; i++) {
+                    lowers[i] = readValue(in, type);
+                    uppers[i] = readValue(in, type);
+                }
+                builder.setRange(new IntervalRange<>(lowers, uppers));
+            }
+            default -> throw new IOException("Unknown range kind " + range + ".");
+        }
+        return builder.build();
+    }
+
+    private static void writeValue(DataOutputStream out, Object value, Argument<?> argument) throws IOException {
+        // Values are read back as the argument's type
+        if (value.getClass() != argument.type)
+            { throw new ArgumentException("Cannot snapshot " + argument.ref + ": its range holds a " + value.getClass().getName() + "."); }
+        switch (value) {
+            case String s -> out.writeUTF(s);
+            case Integer i -> out.writeInt(i);
+            case Long l -> out.writeLong(l);
+            case Double d -> out.writeDouble(d);
+            case BigInteger i -> out.writeUTF(i.toString());
+            case BigDecimal d -> out.writeUTF(d.toString());
+            case Date d -> out.writeLong(d.getTime());
+            case LocalDate d -> out.writeLong(d.toEpochDay());
+            case Instant i -> {
+                out.writeLong(i.getEpochSecond());
+                out.writeInt(i.getNano());
+            }
+            case Duration d -> {
+                out.writeLong(d.getSeconds());
+                out.writeInt(d.getNano());
+            }
+            default -> throw new ArgumentException("Cannot snapshot a value of type " + value.getClass().getName() + ".");
+        }
+    }
+
+    private static Object readValue(DataInputStream in, Class<?> type) throws IOException {
+        if (type == String.class) { return in.readUTF(); }
+        if (type == Integer.class) { return in.readInt(); }
+        if (type == Long.class) { return in.readLong(); }
+        if (type == Double.class) { return in.readDouble(); }
+        if (type == BigInteger.class) { return new BigInteger(in.readUTF()); }
+        if (type == BigDecimal.class) { return new BigDecimal(in.readUTF()); }
+        if (type == Date.class) { return new Date(in.readLong()); }
+        if (type == LocalDate.class) { return LocalDate.ofEpochDay(in.readLong()); }
+        if (type == Instant.class) { return Instant.ofEpochSecond(in.readLong(), in.readInt()); }
+        if (type == Duration.class) { return Duration.ofSeconds(in.readLong(), in.readInt()); }
+        throw new IOException("Unknown value type " + type.getName() + ".");
+    }
+
+    private static void writeNullable(DataOutputStream out, String s) throws IOException {
+        out.writeBoolean(s != null);
+        if (s != null) { out.writeUTF(s); }
+    }
+
+    private static String readNullable(DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+}
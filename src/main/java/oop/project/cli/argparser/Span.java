@@ -0,0 +1,47 @@
+package oop.project.cli.argparser;
+
+/**
+ * A name lexed in {@link Lexer.TokenMode#SPANS} mode: a view of part of the input rather than a copy of it. Hashes
+ * the same way a String with the same characters would.
+ */
+final class Span implements CharSequence {
+    private final CharSequence source;
+    private final int start;
+    private final int end;
+
+    Span(CharSequence source, int start, int end) {
+        this.source = source;
+        this.start = start;
+        this.end = end;
+    }
+
+    @Override
+    public int length() {
+        return end - start;
+    }
+
+    @Override
+    public char charAt(int index) {
+        return source.charAt(start + index);
+    }
+
+    @Override
+    public CharSequence subSequence(int start, int end) {
+        return new Span(source, this.start + start, this.start + end);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof Span span && CharSequence.compare(this, span) == 0;
+    }
+
+    @Override
+    public int hashCode() {
+        return NameIndex.hash(this);
+    }
+
+    @Override
+    public String toString() {
+        return source.subSequence(start, end).toString();
+    }
+}
@@ -0,0 +1,111 @@
+package oop.project.cli.argparser;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.AbstractList;
+import java.util.Objects;
+import java.util.RandomAccess;
+
+/**
+ * The values of a token lexed in {@link Lexer.TokenMode#SPANS} mode. Every value is kept as a span of the input and
+ * is only decoded into a String, BigInteger, BigDecimal, LocalDate, Instant or Duration when it is read, so values
+ * that are never read cost nothing beyond their span. Values are decoded again on every read.
+ */
+final class SpanValues extends AbstractList<Object> implements RandomAccess {
+    // Kinds of span, as recorded by the lexer
+    static final int STRING = 0;
+    static final int ESCAPED_STRING = 1;
+    static final int INTEGER = 2;
+    static final int DECIMAL = 3;
+    static final int DATE = 4;
+    static final int INSTANT = 5;
+    static final int DURATION = 6;
+
+    private final CharSequence source;
+    private final int[] spans;  // (kind, start, end) of each value
+
+    SpanValues(CharSequence source, int[] spans) {
+        this.source = source;
+        this.spans = spans;
+    }
+
+    @Override
+    public Object get(int index) {
+        Objects.checkIndex(index, size());
+        return decode(source, spans[3 * index], spans[3 * index + 1], spans[3 * index + 2]);
+    }
+
+    @Override
+    public int size() {
+        return spans.length / 3;
+    }
+
+    /** @return The class the value at <code>index</code> decodes to, without decoding it. */
+    Class<?> typeOf(int index) {
+        Objects.checkIndex(index, size());
+        return switch (spans[3 * index]) {
+            case STRING, ESCAPED_STRING -> String.class;
+            case INTEGER -> BigInteger.class;
+            case DECIMAL -> BigDecimal.class;
+            case DATE -> LocalDate.class;
+            case INSTANT -> Instant.class;
+            case DURATION -> Duration.class;
+            default -> throw new AssertionError(spans[3 * index]);
+        };
+    }
+
+    /** @return The kind of span the value at <code>index</code> was lexed from. */
+    int kindOf(int index) {
+        Objects.checkIndex(index, size());
+        return spans[3 * index];
+    }
+
+    /**
+     * Parses the number at <code>index</code> straight into a long, without decoding it first.
+     * @throws ArithmeticException if it does not fit.
+     */
+    long getLong(int index) {
+        Objects.checkIndex(index, size());
+        return Numbers.parseLong(source, spans[3 * index + 1], spans[3 * index + 2]);
+    }
+
+    /** Parses the number at <code>index</code> straight into a double, without decoding it first. */
+    double getDouble(int index) {
+        Objects.checkIndex(index, size());
+        return Numbers.parseDouble(source, spans[3 * index + 1], spans[3 * index + 2]);
+    }
+
+    /** Decodes one span, which the lexer has already checked to be well-formed. */
+    static Object decode(CharSequence source, int kind, int start, int end) {
+        return switch (kind) {
+            case STRING -> source.subSequence(start, end).toString();
+            case ESCAPED_STRING -> unescape(source, start, end);
+            case INTEGER -> Numbers.decodeInteger(source, start, end);
+            case DECIMAL -> Numbers.decodeDecimal(source, start, end);
+            case DATE -> Temporals.decodeDate(source, start, end);
+            case INSTANT -> Temporals.decodeInstant(source, start, end);
+            case DURATION -> Temporals.decodeDuration(source, start, end);
+            default -> throw new AssertionError(kind);
+        };
+    }
+
+    private static String unescape(CharSequence source, int start, int end) {
+        var builder = new StringBuilder(end - start);
+        for (int i = start; i < end; i++) {
+            char c = source.charAt(i);
+            if (c == '\\') {
+                char escaped = source.charAt(++i);
+                builder.append(escaped == 't' ? '\t' : escaped == 'n' ? '\n' : escaped);
+            } else if (c == '"') { // a doubled quote stands for one quote
+                builder.append(c);
+                i++;
+            } else {
+                builder.append(c);
+            }
+        }
+        return builder.toString();
+    }
+}
@@ -0,0 +1,203 @@
+package oop.project.cli.argparser;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+
+/**
+ * Parses ISO-8601 date and time literals straight from the characters of the input, as lexed by {@link Lexer}, without
+ * going through a <code>DateTimeFormatter</code>. Only the forms the lexer recognizes are accepted:
+ * <ul>
+ *     <li>dates, <code>2024-04-18</code>, as {@link LocalDate}s;</li>
+ *     <li>instants, <code>2024-04-18T10:15:30Z</code>, with an optional fraction of up to nine digits and an offset
+ *     of <code>Z</code> or <code>+hh:mm</code>/<code>-hh:mm</code>, as {@link Instant}s;</li>
+ *     <li>durations, <code>P2DT3H4M5.5S</code>, in days, hours, minutes and seconds, each of which may be signed, as
+ *     {@link Duration}s.</li>
+ * </ul>
+ * The checks return {@link #INVALID} for a malformed literal instead of throwing, so the lexer can check a literal
+ * without allocating anything; the decoders assume the literal has already been checked.
+ */
+final class Temporals {
+    /** What the checks return for a malformed literal. No literal that is accepted stands for this many seconds. */
+    static final long INVALID = Long.MIN_VALUE;
+
+    private static final int DATE_LENGTH = "0000-00-00".length();
+    private static final int SECONDS_END = "0000-00-00T00:00:00".length();
+    private static final long DAYS_0000_TO_1970 = 719_528;
+    private static final int SECONDS_PER_DAY = 86_400;
+    private static final int MAX_OFFSET_SECONDS = 18 * 3600;
+    private static final int FRACTION_DIGITS = 9;
+
+    private Temporals() {}
+
+    /** @return The epoch day of the date from <code>start</code> to <code>end</code>, or {@link #INVALID}. */
+    static long epochDay(CharSequence s, int start, int end) {
+        return end - start == DATE_LENGTH ? dateAt(s, start) : INVALID;
+    }
+
+    /** @return The epoch second of the instant from <code>start</code> to <code>end</code>, or {@link #INVALID}. */
+    static long instantSeconds(CharSequence s, int start, int end) {
+        if (end - start < SECONDS_END + 1) { return INVALID; }  // too short even for a Z offset
+        long day = dateAt(s, start);
+        if (day == INVALID || s.charAt(start + 10) != 'T' || s.charAt(start + 13) != ':' || s.charAt(start + 16) != ':')
+            { return INVALID; }
+        int hour = number(s, start + 11, 2), minute = number(s, start + 14, 2), second = number(s, start + 17, 2);
+        if (hour < 0 || hour > 23 || minute < 0 || minute > 59 || second < 0 || second > 59) { return INVALID; }
+
+        int i = start + SECONDS_END;
+        if (s.charAt(i) == '.') {
+            int digits = 0;
+            while (i + 1 + digits < end && isDigit(s.charAt(i + 1 + digits))) { digits++; }
+            if (digits == 0 || digits > FRACTION_DIGITS) { return INVALID; }
+            i += 1 + digits;
+        }
+        int offset;
+        if (i == end - 1 && s.charAt(i) == 'Z') {
+            offset = 0;
+        } else if (i == end - 6 && (s.charAt(i) == '+' || s.charAt(i) == '-') && s.charAt(i + 3) == ':') {
+            int offsetHours = number(s, i + 1, 2), offsetMinutes = number(s, i + 4, 2);
+            if (offsetHours < 0 || offsetMinutes < 0 || offsetMinutes > 59) { return INVALID; }
+            offset = offsetHours * 3600 + offsetMinutes * 60;
+            if (offset > MAX_OFFSET_SECONDS) { return INVALID; }
+            if (s.charAt(i) == '-') { offset = -offset; }
+        } else {
+            return INVALID;
+        }
+        return day * SECONDS_PER_DAY + hour * 3600 + minute * 60 + second - offset;
+    }
+
+    /** @return The nanosecond of the second of an instant that {@link #instantSeconds} accepted. */
+    static int instantNanos(CharSequence s, int start, int end) {
+        int i = start + SECONDS_END;
+        return s.charAt(i) == '.' ? fraction(s, i + 1) : 0;
+    }
+
+    /**
+     * @return The whole seconds of the duration from <code>start</code> to <code>end</code>, rounded towards zero, or
+     * {@link #INVALID}, also if it does not fit a long.
+     */
+    static long durationSeconds(CharSequence s, int start, int end) {
+        if (end - start < 3 || s.charAt(start) != 'P') { return INVALID; }
+        // Components must come in order: days, then 'T', then hours, minutes and seconds
+        final int none = 0, days = 1, time = 2, hours = 3, minutes = 4, seconds = 5;
+        int last = none;
+        long total = 0;
+        int i = start + 1;
+        try {
+            while (i < end) {
+                if (s.charAt(i) == 'T') {
+                    if (last >= time) { return INVALID; }
+                    last = time;
+                    i++;
+                    continue;
+                }
+                boolean negative = s.charAt(i) == '-';
+                if (negative || s.charAt(i) == '+') { i++; }
+                int digitsStart = i;
+                long value = 0;
+                while (i < end && isDigit(s.charAt(i))) { value = Math.addExact(Math.multiplyExact(value, 10), s.charAt(i++) - '0'); }
+                if (i == digitsStart || i == end) { return INVALID; }
+                if (negative) { value = -value; }
+
+                boolean fractional = s.charAt(i) == '.';
+                if (fractional) {
+                    int digits = 0;
+                    while (i + 1 + digits < end && isDigit(s.charAt(i + 1 + digits))) { digits++; }
+                    if (digits == 0 || digits > FRACTION_DIGITS || i + 1 + digits == end) { return INVALID; }
+                    i += 1 + digits;
+                }
+                int unit = switch (s.charAt(i)) {
+                    case 'D' -> last == none ? days : -1;
+                    case 'H' -> last == time ? hours : -1;
+                    case 'M' -> last == time || last == hours ? minutes : -1;
+                    case 'S' -> last >= time && last < seconds ? seconds : -1;
+                    default -> -1;
+                };
+                if (unit < 0 || (fractional && unit != seconds)) { return INVALID; }
+                long unitSeconds = unit == days ? SECONDS_PER_DAY : unit == hours ? 3600 : unit == minutes ? 60 : 1;
+                total = Math.addExact(total, Math.multiplyExact(value, unitSeconds));
+                last = unit;
+                i++;
+            }
+        } catch (ArithmeticException e) {
+            return INVALID;
+        }
+        // At least one component, and one after a 'T'
+        return last == none || last == time ? INVALID : total;
+    }
+
+    /** @return The nanoseconds of a duration that {@link #durationSeconds} accepted, negative if its seconds are. */
+    static int durationNanos(CharSequence s, int start, int end) {
+        if (s.charAt(end - 1) != 'S') { return 0; }
+        int dot = end - 2;
+        while (isDigit(s.charAt(dot))) { dot--; }
+        if (s.charAt(dot) != '.') { return 0; }
+        int sign = dot - 1;
+        while (isDigit(s.charAt(sign))) { sign--; }
+        int nanos = fraction(s, dot + 1);
+        return s.charAt(sign) == '-' ? -nanos : nanos;
+    }
+
+    /** Decodes a date that {@link #epochDay} accepted. */
+    static LocalDate decodeDate(CharSequence s, int start, int end) {
+        return LocalDate.ofEpochDay(epochDay(s, start, end));
+    }
+
+    /** Decodes an instant that {@link #instantSeconds} accepted. */
+    static Instant decodeInstant(CharSequence s, int start, int end) {
+        return Instant.ofEpochSecond(instantSeconds(s, start, end), instantNanos(s, start, end));
+    }
+
+    /** Decodes a duration that {@link #durationSeconds} accepted. */
+    static Duration decodeDuration(CharSequence s, int start, int end) {
+        return Duration.ofSeconds(durationSeconds(s, start, end), durationNanos(s, start, end));
+    }
+
+    /** @return The epoch day of the <code>yyyy-mm-dd</code> date at <code>start</code>, or {@link #INVALID}. */
+    private static long dateAt(CharSequence s, int start) {
+        if (s.charAt(start + 4) != '-' || s.charAt(start + 7) != '-') { return INVALID; }
+        int year = number(s, start, 4), month = number(s, start + 5, 2), day = number(s, start + 8, 2);
+        if (year < 0 || month < 1 || month > 12 || day < 1 || day > lengthOfMonth(year, month)) { return INVALID; }
+
+        // As LocalDate.toEpochDay does it, for years from 0 on
+        long total = 365L * year + (year + 3) / 4 - (year + 99) / 100 + (year + 399) / 400;
+        total += (367 * month - 362) / 12 + day - 1;
+        if (month > 2) { total -= isLeap(year) ? 1 : 2; }
+        return total - DAYS_0000_TO_1970;
+    }
+
+    private static int lengthOfMonth(int year, int month) {
+        return switch (month) {
+            case 2 -> isLeap(year) ? 29 : 28;
+            case 4, 6, 9, 11 -> 30;
+            default -> 31;
+        };
+    }
+
+    private static boolean isLeap(int year) {
+        return (year & 3) == 0 && (year % 100 != 0 || year % 400 == 0);
+    }
+
+    /** @return The number written with exactly <code>count</code> digits at <code>start</code>, or -1. */
+    private static int number(CharSequence s, int start, int count) {
+        int value = 0;
+        for (int i = start; i < start + count; i++) {
+            char c = s.charAt(i);
+            if (!isDigit(c)) { return -1; }
+            value = 10 * value + (c - '0');
+        }
+        return value;
+    }
+
+    /** @return The nanoseconds of the run of digits after a decimal point at <code>start</code>. */
+    private static int fraction(CharSequence s, int start) {
+        int nanos = 0, digits = 0;
+        for (int i = start; i < s.length() && isDigit(s.charAt(i)); i++, digits++) { nanos = 10 * nanos + (s.charAt(i) - '0'); }
+        for (; digits < FRACTION_DIGITS; digits++) { nanos *= 10; }
+        return nanos;
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+}
@@ -0,0 +1,50 @@
+package oop.project.cli.argparser;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.RandomAccess;
+
+/**
+ * The tokens produced by {@link Lexer#lex()}, along with the offset in the input at which each one starts, so that
+ * errors found later by the {@link Validator} can point back at the token they are about. Only the lexer adds tokens;
+ * to everyone else the list is read-only, so a token and its position can never get out of step.
+ */
+public final class TokenList extends AbstractList<ArgToken> implements RandomAccess {
+    private ArgToken[] tokens = new ArgToken[8];
+    private int[] positions = new int[8];
+    private int size;
+
+    void add(ArgToken token, int position) {
+        if (size == tokens.length) {
+            tokens = Arrays.copyOf(tokens, 2 * size);
+            positions = Arrays.copyOf(positions, 2 * size);
+        }
+        tokens[size] = token;
+        positions[size] = position;
+        size++;
+    }
+
+    /** Empties the list, for the lexer to reuse it. */
+    void reset() {
+        Arrays.fill(tokens, 0, size, null);
+        size = 0;
+    }
+
+    @Override
+    public ArgToken get(int index) {
+        Objects.checkIndex(index, size);
+        return tokens[index];
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /** @return The offset in the input at which the token at <code>index</code> starts. */
+    public int position(int index) {
+        Objects.checkIndex(index, size);
+        return positions[index];
+    }
+}
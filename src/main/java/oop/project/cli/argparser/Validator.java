@@ -1,182 +1,334 @@
 package oop.project.cli.argparser;
 
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.time.Instant;
+import java.time.LocalDate;
 import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.HashSet;
-import java.util.Optional;
+import java.util.Date;
+import java.util.List;
 
 import static oop.project.cli.argparser.ArgToken.Type.*;
 
+/**
+ * Validates the tokens of one parse against a {@link CompiledParser}. Values are collected here rather than in the
+ * schema's arguments, so the schema is never modified - a validator is created per parse, and if validation fails it
+ * is simply thrown away.
+ *
+ * <p>Values of {@link Integer}, {@link Long} and {@link Double} arguments are parsed straight from the input into
+ * primitive arrays; integer literals are accepted by all three, decimal literals only by Double. A list of integers the
+ * lexer parsed into {@link LongChunks} is checked as a whole, from its least and greatest values, and kept as it is.
+ * {@link Date} arguments take date and instant literals, adapted to Dates; a date stands for its midnight in UTC.
+ *
+ * <p>A validator created by {@link CompiledParser#tryParse(CharSequence)} collects errors instead of throwing at the
+ * first one: a token that is rejected is skipped, and validation carries on with the next.
+ */
 public class Validator {
-    ArrayList<Argument<?>> tempArguments;  // for use as a transaction - either it all completes, or none of it
-    ArrayList<Argument<?>> argumentsReference;
-    HashSet<String> consumedArguments;
+    private static final long MILLIS_PER_DAY = 86_400_000;
 
-    public Validator(ArrayList<Argument<?>> arguments) {
-        this.argumentsReference = arguments;
+    private final CompiledParser parser;
+    private final Object[] values;  // indexed by slot, as stored in ParsedArguments
+    private final boolean[] consumed;
+    private final List<ParseError> errors;  // where errors are collected, or null to throw the first one
+    private final boolean stackless;
+    private boolean[] rejected;  // slots that errors were collected for, if any
 
-        this.tempArguments = new ArrayList<>();
-        this.tempArguments.addAll(arguments);  // deep copy
+    public Validator(CompiledParser parser) {
+        this(parser, null);
+    }
 
-        this.consumedArguments = new HashSet<>();
+    /** @param errors Where to collect errors instead of throwing them, or null to throw. */
+    Validator(CompiledParser parser, List<ParseError> errors) {
+        this.parser = parser;
+        this.values = new Object[parser.size()];
+        this.consumed = new boolean[parser.size()];
+        this.errors = errors;
+        this.stackless = errors != null || parser.isStackless();
     }
 
     /**
-     * Validates the tokens with the arguments currently in the namespace.
+     * Validates the tokens against the schema.
      *
      * @param tokens List of tokens, as generated from lex.
+     * @return The values of every argument in the schema.
      * @throws ArgParseException if validation fails.
      */
-    public void validate(ArrayList<ArgToken> tokens) throws ArgParseException {
-        // Validate all tokens
-        for (ArgToken token : tokens) { validateToken(token); }
+    public ParsedArguments validate(List<ArgToken> tokens) throws ArgParseException {
+        var positions = tokens instanceof TokenList list ? list : null;
 
-        // Make sure stuff that's required is all accounted for
-        if (tempArguments.stream().anyMatch(argument -> argument.required && argument.value.isEmpty()))
-            { throw  new ArgParseException("Required argument not present."); }
+        // Plan where the positional tokens go, then validate all tokens in order
+        var positionalValues = new ArrayList<List<Object>>();
+        var positionalPositions = new int[tokens.size()];
+        for (int i = 0; i < tokens.size(); i++) {
+            var token = tokens.get(i);
+            if (token.type() != POSITIONAL_ARG) { continue; }
+            positionalPositions[positionalValues.size()] = positions == null ? -1 : positions.position(i);
+            positionalValues.add(token.value());
+        }
+        int[] positionalSlots;
+        try {
+            positionalSlots = parser.positionalPlan().assign(positionalValues, positionalPositions, stackless);
+        } catch (ArgParseException e) {
+            if (errors == null) { throw e; }
+            errors.add(e.getError());
+            positionalSlots = null;  // positionals are not validated, nor checked for being required
+        }
+        int positionals = 0;
+        for (int i = 0; i < tokens.size(); i++) {
+            var token = tokens.get(i);
+            int position = positions == null ? -1 : positions.position(i);
+            try {
+                if (token.type() == POSITIONAL_ARG) {
+                    if (positionalSlots != null) { validatePositionalArgument(token, positionalSlots[positionals++], position); }
+                }
+                else if (token.type() == NAMED_ARG || token.type() == FLAG) { validateNamedArgument(token, position); }
+                else { throw new NotImplementedException("Token of type " + token.type() + " has not been implemented yet."); }
+            } catch (ArgParseException e) {
+                if (errors == null) { throw e; }
+                reject(e.getError());
+            }
+        }
 
-        // Once tokens are validated, we can start assigning our arguments values
-        argumentsReference = tempArguments;
+        // Make sure stuff that's required is all accounted for
+        for (int slot = 0; slot < values.length; slot++) {
+            var argument = parser.argument(slot);
+            if (values[slot] == null) { values[slot] = store(slot, List.of(), -1); }
+            if (argument.required && ParsedArguments.size(values[slot]) == 0 && !rejected(slot, positionalSlots == null)) {
+                var error = error(ParseError.Code.MISSING_REQUIRED, -1, argument.ref, "Required argument not present.");
+                if (errors == null) { throw error; }
+                errors.add(error.getError());
+            }
+        }
+        return new ParsedArguments(parser, values, consumed);
     }
 
-    /**
-     * Finds the argument with the given name in the list of arguments.
-     *
-     * @param name Name of the argument to find.
-     * @return The argument with the given name, or null if not found.
-     */
-    private Argument<?> findArgument(String name) {
-        for (var arg : tempArguments) {
-            if (Arrays.asList(arg.names).contains(name)) { return arg; }
+    /** Collects an error, remembering the argument it is about so it is not also reported as missing. */
+    private void reject(ParseError error) {
+        errors.add(error);
+        if (error.ref() != null) {
+            if (rejected == null) { rejected = new boolean[values.length]; }
+            rejected[parser.slotOfRef(error.ref())] = true;
         }
-        return null;
+    }
+
+    /** @return Whether errors were already collected for the argument in <code>slot</code>. */
+    private boolean rejected(int slot, boolean positionalsRejected) {
+        return (positionalsRejected && parser.argument(slot).positional) || (rejected != null && rejected[slot]);
     }
 
     /**
-     * Validates a token against the corresponding argument.
+     * Validates the tokens, collecting errors into the list this validator was created with.
      *
-     * @param token The token to validate.
-     * @throws ArgParseException if validation fails.
+     * @return The values of every argument in the schema, or null if any errors were found.
      */
-    private void validateToken(ArgToken token) throws ArgParseException {
-        // Perform validation based on the type of argument
-        if (token.type() == POSITIONAL_ARG) { validatePositionalArgument(token); }
-        else if (token.type() == NAMED_ARG) { validateNamedArgument(token); }
-        else if(token.type() == FLAG) { validateFlag(token);}
-        else { throw new NotImplementedException("Token of type " + token.type() + " has not been implemented yet."); }
-    }
-
-    private void validatePositionalArgument(ArgToken token) throws ArgParseException {
-        // Get the first argument that fits the criteria and is required
-        Optional<Argument<?>> argument = tempArguments.stream()
-                .filter(arg -> !consumedArguments.contains(arg.ref)
-                        && arg.positional
-                        && arg.required
-                        && checkNArgs(token.value().size(), arg.nArgs)
-                        && token.value().getFirst().getClass().equals(arg.type))
-                .findFirst();
-
-        // We found a match!
-        if (argument.isPresent()) {
-            validateObjectRange(argument.get());
-            consumedArguments.add(argument.get().ref);
-            argument.get().value = token.value();
-        }
-        // No such *required* argument? Let's look if there's a non-required one
-        else {
-            argument = tempArguments.stream()
-                    .filter(arg -> !consumedArguments.contains(arg.ref)
-                            && arg.positional
-                            && checkNArgs(token.value().size(), arg.nArgs)
-                            && token.value().getFirst().getClass().equals(arg.type))
-                    .findFirst();
-            // We found a match!
-            if (argument.isPresent()) {
-                validateObjectRange(argument.get());
-                consumedArguments.add(argument.get().ref);
-                argument.get().value = token.value();
-            }
-            // Maybe it's the number of arguments...?
-            else {
-                if (tempArguments.stream().anyMatch(arg -> !consumedArguments.contains(arg.ref)
-                                && arg.positional
-                                && token.value().getFirst().getClass().equals(arg.type)
-                                && !checkNArgs(token.value().size(), arg.nArgs)))
-                    { throw new ArgParseException("Invalid number of arguments " + token.value().size() + "."); }
-                else
-                    { throw new ArgParseException("Unknown positional argument with type " + token.value().getFirst().getClass().getSimpleName()); }
-            }
+    ParsedArguments collect(List<ArgToken> tokens) {
+        try {
+            var result = validate(tokens);
+            return errors.isEmpty() ? result : null;
+        } catch (ArgParseException e) {
+            throw new AssertionError("Errors are collected, not thrown", e);
         }
     }
 
-    private void validateNamedArgument(ArgToken token) throws ArgParseException {
-        // Store and verify that this token's name is valid
-        String name = token.name();
-        if (consumedArguments.contains(name)) { throw new ArgParseException("Duplicate definition for " + name + "."); }
-
-        // Get the argument, verify that it exists
-        var argument = findArgument(name);
-        if (argument == null) { throw new ArgParseException("No such argument " + name + " found."); }
+    private void validatePositionalArgument(ArgToken token, int slot, int position) throws ArgParseException {
+        values[slot] = store(slot, token.value(), position);
+        consumed[slot] = true;
+    }
 
-        // Type validation
-        for(var val : token.value()){
-            if(!val.getClass().equals(argument.type))
-            { throw new ArgParseException("Got type " + token.value().getFirst().getClass() + ", expected " + argument.type.toString()); }
+    private void validateNamedArgument(ArgToken token, int position) throws ArgParseException {
+        var name = token.name();
+        var check = parser.namedCheck();
+        if (check != null) {
+            int slot = check.slotIfValid(name, token.value());
+            if (slot >= 0 && !consumed[slot]) {
+                // Known, and of the right type and number: only the range is left to check
+                values[slot] = store(slot, token.value(), position);
+                consumed[slot] = true;
+                return;
+            }
+            // Otherwise the checks below find what is wrong
         }
 
-        // Validate its range
-        validateObjectRange(argument);
+        // Get the argument, verify that it exists and was not already given
+        int slot = parser.slotOfName(name);
+        if (slot < 0) { throw error(ParseError.Code.UNKNOWN_ARGUMENT, position, null, "No such argument " + name + " found."); }
+        var argument = parser.argument(slot);
+        if (consumed[slot]) { throw error(ParseError.Code.DUPLICATE_ARGUMENT, position, argument.ref, "Duplicate definition for " + name + "."); }
+        var tokenValues = token.value();
+
+        // Type validation
+        if (!typeMatches(tokenValues, argument.type))
+            { throw error(ParseError.Code.TYPE_MISMATCH, position, argument.ref, "Got type " + typeName(tokenValues) + ", expected " + argument.type.toString()); }
 
         // Validate its nargs
-        if (!checkNArgs(token.value().size(), argument.nArgs))
-            { throw new ArgParseException("Invalid number of arguments " + token.value().size() + ", expected [" + argument.nArgs + "]"); }
+        if (!parser.arity(slot).accepts(tokenValues.size()))
+            { throw error(ParseError.Code.ARITY, position, argument.ref, "Invalid number of arguments " + tokenValues.size() + ", expected [" + argument.nArgs + "]"); }
 
-        consumedArguments.add(name);
-        argument.value = token.value();
+        // Convert and validate its range
+        values[slot] = store(slot, tokenValues, position);
+        consumed[slot] = true;
     }
 
-    private <U extends Comparable<U>> void validateObjectRange(Argument<U> argument) throws ArgParseException {
-        for (var val : argument.value) {
-            if (!argument.range.isInRange((U) val))
-            { throw new ArgParseException(val + " is not in range" + argument.range.toString()); }
+    /**
+     * Converts a token's values to the form they are kept in for the argument in <code>slot</code>, and checks them
+     * against its range.
+     */
+    private Object store(int slot, List<Object> tokenValues, int position) throws ArgParseException {
+        var argument = parser.argument(slot);
+        if (argument.type == Integer.class || argument.type == Long.class || argument.type == Double.class) {
+            if (tokenValues instanceof LongChunks chunks) { return storeChunks(argument, chunks, position); }
+            Object stored = argument.type == Integer.class ? toInts(argument, tokenValues, position)
+                    : argument.type == Long.class ? toLongs(argument, tokenValues, position)
+                    : toDoubles(tokenValues);
+            validatePrimitiveRange(argument, stored, position);
+            return stored;
         }
+        if (argument.type == Date.class) {
+            var dates = toDates(tokenValues);
+            validateObjectRange(argument, dates, position);
+            return dates;
+        }
+        // Spans are decoded up front unless the parser was compiled to keep them; chunks never refer to the input
+        var stored = tokenValues instanceof SpanValues && parser.getTokenMode() == Lexer.TokenMode.DECODED
+                ? new ArrayList<>(tokenValues)
+                : tokenValues;
+        validateObjectRange(argument, stored, position);
+        return stored;
     }
 
-    private void validateFlag(ArgToken token) throws ArgParseException {
-        var name = token.name();
-        if(consumedArguments.contains(name)) { throw new ArgParseException("Duplicate definition for " + name + "."); }
+    /**
+     * Stores a list of integers for an Integer, Long or Double argument as it was lexed, without copying it. When its
+     * least and greatest values fit the argument's type and range, so do all the others, and no value is checked on
+     * its own; only otherwise are the values checked one by one, in place, to find the one to report.
+     */
+    private Object storeChunks(Argument<?> argument, LongChunks chunks, int position) throws ArgParseException {
+        if (argument.type == Integer.class) {
+            int index = chunks.indexOutside(Integer.MIN_VALUE, Integer.MAX_VALUE);
+            if (index >= 0) { throw outOfRange(argument, position, chunks.getLong(index) + " is out of range for int."); }
+        }
+        if (argument.range == null) { return chunks; }
+        var values = chunks.boxed(argument.type);
+        if (!(argument.range instanceof PrimitiveRange range)) {
+            validateObjectRange(argument, values, position);
+            return chunks;
+        }
+        if (range.containsAll(chunks.min(), chunks.max())) { return chunks; }
+        int index = range.indexOutOfRange(chunks);
+        if (index == PrimitiveRange.UNSUPPORTED) { validateObjectRange(argument, values, position); }
+        else if (index >= 0)
+            { throw outOfRange(argument, position, values.get(index) + " is not in range" + argument.range.toString()); }
+        return chunks;
+    }
 
-        Argument<?> argument = null;
-        for (var arg : tempArguments) {
-            if (Arrays.asList(arg.names).contains(name)) {
-                argument = arg;
-                break;
+    /** Checks a primitive array against the argument's range, without boxing it if the range allows. */
+    private void validatePrimitiveRange(Argument<?> argument, Object stored, int position) throws ArgParseException {
+        if (argument.range == null) { return; }
+        int index = PrimitiveRange.UNSUPPORTED;
+        if (argument.range instanceof PrimitiveRange range) {
+            index = switch (stored) {
+                case int[] ints -> range.indexOutOfRange(ints);
+                case long[] longs -> range.indexOutOfRange(longs);
+                case double[] doubles -> range.indexOutOfRange(doubles);
+                default -> throw new AssertionError(stored);
+            };
+        }
+        if (index == PrimitiveRange.UNSUPPORTED) { validateObjectRange(argument, ParsedArguments.asList(stored), position); }
+        else if (index >= 0)
+            { throw outOfRange(argument, position, ParsedArguments.asList(stored).get(index) + " is not in range" + argument.range.toString()); }
+    }
+
+    static boolean typeMatches(List<Object> tokenValues, Class<?> type) {
+        if (tokenValues instanceof LongChunks) { return accepts(type, BigInteger.class); }  // every value is an integer
+        if (tokenValues instanceof SpanValues spans) {
+            // Check the kind of each span rather than decoding it
+            for (int i = 0; i < spans.size(); i++) {
+                if (!accepts(type, spans.typeOf(i))) { return false; }
             }
+            return true;
         }
-        if (argument == null) { throw new ArgParseException("No such argument " + name + " found."); }
-        for(var val : token.value()){
-            if(!val.getClass().equals(argument.type))
-            { throw new ArgParseException("Got type " + token.value().getFirst().getClass() + ", expected " + argument.type.toString()); }
+        for (var val : tokenValues) {
+            if (!accepts(type, val.getClass())) { return false; }
         }
+        return true;
+    }
 
-        // Validate its nargs
-        if (!checkNArgs(token.value().size(), argument.nArgs))
-            { throw new ArgParseException("Invalid number of arguments " + token.value().size() + ", expected [" + argument.nArgs + "]"); }
+    /** Whether an argument of the given type takes a value lexed as <code>lexed</code>. */
+    private static boolean accepts(Class<?> type, Class<?> lexed) {
+        if (type == lexed) { return true; }
+        if (lexed == BigInteger.class) { return type == Integer.class || type == Long.class || type == Double.class; }
+        if (lexed == LocalDate.class || lexed == Instant.class) { return type == Date.class; }
+        return lexed == BigDecimal.class && type == Double.class;
+    }
 
-        consumedArguments.add(name);
-        argument.value = token.value();
+    private int[] toInts(Argument<?> argument, List<Object> tokenValues, int position) throws ArgParseException {
+        var longs = toLongs(argument, tokenValues, position);
+        var ints = new int[longs.length];
+        for (int i = 0; i < longs.length; i++) {
+            if ((int) longs[i] != longs[i]) { throw outOfRange(argument, position, longs[i] + " is out of range for int."); }
+            ints[i] = (int) longs[i];
+        }
+        return ints;
     }
 
-    private static boolean checkNArgs(int length, String nArgs) throws ArgumentException {
-        return switch (nArgs) {
-            case "?" -> (length == 0 || length == 1);
-            case "*" -> (length >= 0);
-            case "+" -> (length >= 1);
-            default -> {
-                try { yield length == Integer.parseInt(nArgs); }
-                catch (Exception e) { throw new ArgumentException("Unknown value of nArgs."); }
+    private long[] toLongs(Argument<?> argument, List<Object> tokenValues, int position) throws ArgParseException {
+        var longs = new long[tokenValues.size()];
+        for (int i = 0; i < longs.length; i++) {
+            try {
+                longs[i] = switch (tokenValues) {
+                    case SpanValues spans -> spans.getLong(i);
+                    case LongChunks chunks -> chunks.getLong(i);
+                    default -> ((BigInteger) tokenValues.get(i)).longValueExact();
+                };
+            } catch (ArithmeticException e) {
+                throw outOfRange(argument, position, tokenValues.get(i) + " is out of range for long.");
             }
-        };
+        }
+        return longs;
+    }
+
+    private static List<Object> toDates(List<Object> tokenValues) {
+        var dates = new ArrayList<Object>(tokenValues.size());
+        for (var value : tokenValues) {
+            dates.add(value instanceof LocalDate date ? new Date(date.toEpochDay() * MILLIS_PER_DAY) : Date.from((Instant) value));
+        }
+        return dates;
+    }
+
+    private static double[] toDoubles(List<Object> tokenValues) {
+        var doubles = new double[tokenValues.size()];
+        for (int i = 0; i < doubles.length; i++) {
+            doubles[i] = tokenValues instanceof SpanValues spans
+                    ? spans.getDouble(i)
+                    : ((Number) tokenValues.get(i)).doubleValue();
+        }
+        return doubles;
+    }
+
+    @SuppressWarnings("unchecked")
+    private <U extends Comparable<? super U>> void validateObjectRange(Argument<U> argument, List<?> tokenValues, int position) throws ArgParseException {
+        if (argument.range == null) { return; }
+        for (var val : tokenValues) {
+            if (!argument.range.isInRange((U) val))
+            { throw outOfRange(argument, position, val + " is not in range" + argument.range.toString()); }
+        }
+    }
+
+    private ArgParseException outOfRange(Argument<?> argument, int position, String message) {
+        return error(ParseError.Code.OUT_OF_RANGE, position, argument.ref, message);
+    }
+
+    /**
+     * @return The exception for an error, to be thrown. It is caught again by {@link #validate(List)} when errors
+     * are being collected, which is why it is stackless then.
+     */
+    private ArgParseException error(ParseError.Code code, int position, String ref, String message) {
+        return new ArgParseException(new ParseError(code, position, ref, message), stackless);
+    }
+
+    static String typeName(List<Object> tokenValues) {
+        if (tokenValues.isEmpty()) { return "none"; }
+        var type = tokenValues instanceof SpanValues spans ? spans.typeOf(0) : tokenValues.getFirst().getClass();
+        return type.getSimpleName();
     }
 
 }
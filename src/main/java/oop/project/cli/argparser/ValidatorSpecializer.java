@@ -0,0 +1,250 @@
+package oop.project.cli.argparser;
+
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.Label;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Type;
+
+import java.lang.invoke.MethodHandles;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.TreeMap;
+
+import static org.objectweb.asm.Opcodes.*;
+
+/**
+ * Writes a {@link NamedCheck} for one schema as a hidden class. It switches on the hash of the name to the argument's
+ * slot, compares the number of values against the arity's bounds as constants, and checks the values' type with a call
+ * chosen for that argument's type - so each call site sees one type, and the JIT can inline it. The generic checks of
+ * {@link Validator} look up every one of these in tables instead.
+ *
+ * <p>Large schemas are split into methods of at most {@link #GROUP_SIZE} names, found by a binary search on the hash:
+ * HotSpot never compiles a method of more than 8000 bytes of bytecode, and one method for a few hundred names would
+ * be interpreted.
+ */
+final class ValidatorSpecializer {
+    private static final String CHECK = Type.getInternalName(NamedCheck.class);
+    private static final String SELF = Type.getInternalName(ValidatorSpecializer.class);
+    private static final String LIST = Type.getInternalName(List.class);
+    private static final String GROUP_DESCRIPTOR = "(Ljava/lang/CharSequence;Ljava/util/List;I)I";
+    /** Most names checked by one method: small enough that its code stays well under the JIT's limit for a method. */
+    private static final int GROUP_SIZE = 16;
+
+    private ValidatorSpecializer() {}
+
+    /**
+     * @return A check specialized for the parser's named arguments.
+     * @throws ReflectiveOperationException if the class cannot be defined or created.
+     */
+    static NamedCheck specialize(CompiledParser parser) throws ReflectiveOperationException {
+        var lookup = MethodHandles.lookup().defineHiddenClass(write(parser), true);
+        return (NamedCheck) lookup.lookupClass().getDeclaredConstructor().newInstance();
+    }
+
+    private static byte[] write(CompiledParser parser) {
+        var writer = new ClassWriter(ClassWriter.COMPUTE_FRAMES | ClassWriter.COMPUTE_MAXS);
+        writer.visit(V16, ACC_FINAL | ACC_SYNTHETIC, SELF + "$Check", null, "java/lang/Object", new String[] {CHECK});
+
+        var constructor = writer.visitMethod(0, "<init>", "()V", null, null);
+        constructor.visitCode();
+        constructor.visitVarInsn(ALOAD, 0);
+        constructor.visitMethodInsn(INVOKESPECIAL, "java/lang/Object", "<init>", "()V", false);
+        constructor.visitInsn(RETURN);
+        constructor.visitMaxs(0, 0);
+        constructor.visitEnd();
+
+        // Names sorted by hash, in groups small enough for the JIT to compile each group's method
+        var namesByHash = new TreeMap<Integer, List<String>>();
+        for (int slot = 0; slot < parser.size(); slot++) {
+            for (var name : parser.argument(slot).names) { namesByHash.computeIfAbsent(name.hashCode(), h -> new ArrayList<>()).add(name); }
+        }
+        var groups = new ArrayList<TreeMap<Integer, List<String>>>();
+        for (var entry : namesByHash.entrySet()) {
+            if (groups.isEmpty() || groups.getLast().size() == GROUP_SIZE) { groups.add(new TreeMap<>()); }
+            groups.getLast().put(entry.getKey(), entry.getValue());
+        }
+
+        var method = writer.visitMethod(ACC_PUBLIC, "slotIfValid", "(Ljava/lang/CharSequence;Ljava/util/List;)I", null, null);
+        method.visitCode();
+        method.visitVarInsn(ALOAD, 1);
+        method.visitMethodInsn(INVOKESTATIC, Type.getInternalName(NameIndex.class), "hash", "(Ljava/lang/CharSequence;)I", false);
+        method.visitVarInsn(ISTORE, 3);
+        if (groups.isEmpty()) {
+            method.visitInsn(ICONST_M1);
+            method.visitInsn(IRETURN);
+        } else {
+            writeSearch(method, groups, 0, groups.size());
+        }
+        method.visitMaxs(0, 0);
+        method.visitEnd();
+
+        for (int g = 0; g < groups.size(); g++) {
+            var group = writer.visitMethod(ACC_PRIVATE | ACC_STATIC, "group" + g, GROUP_DESCRIPTOR, null, null);
+            group.visitCode();
+            writeGroup(parser, group, groups.get(g));
+            group.visitMaxs(0, 0);
+            group.visitEnd();
+        }
+        writer.visitEnd();
+        return writer.toByteArray();
+    }
+
+    /** Binary search on the hash, in slotIfValid, for the group whose method checks the name. */
+    private static void writeSearch(MethodVisitor method, List<TreeMap<Integer, List<String>>> groups, int from, int to) {
+        if (to - from == 1) {
+            method.visitVarInsn(ALOAD, 1);
+            method.visitVarInsn(ALOAD, 2);
+            method.visitVarInsn(ILOAD, 3);
+            method.visitMethodInsn(INVOKESTATIC, SELF + "$Check", "group" + from, GROUP_DESCRIPTOR, false);
+            method.visitInsn(IRETURN);
+            return;
+        }
+        int middle = (from + to) >>> 1;
+        var upper = new Label();
+        method.visitVarInsn(ILOAD, 3);
+        method.visitLdcInsn(groups.get(middle).firstKey());
+        method.visitJumpInsn(IF_ICMPGE, upper);
+        writeSearch(method, groups, from, middle);
+        method.visitLabel(upper);
+        writeSearch(method, groups, middle, to);
+    }
+
+    /**
+     * The method for one group of names. Locals: 0 is the name, 1 the values, 2 the name's hash, and 3 the number of
+     * values.
+     */
+    private static void writeGroup(CompiledParser parser, MethodVisitor method, TreeMap<Integer, List<String>> namesByHash) {
+        var blocks = new Label[parser.size()];  // the checks of each slot with a name in the group
+        var slots = new ArrayList<Integer>();
+        for (var names : namesByHash.values()) {
+            for (var name : names) {
+                int slot = parser.slotOfName(name);
+                if (blocks[slot] == null) {
+                    blocks[slot] = new Label();
+                    slots.add(slot);
+                }
+            }
+        }
+        var fail = new Label();
+
+        method.visitVarInsn(ALOAD, 1);
+        method.visitMethodInsn(INVOKEINTERFACE, LIST, "size", "()I", true);
+        method.visitVarInsn(ISTORE, 3);
+        method.visitVarInsn(ILOAD, 2);
+        var hashes = new int[namesByHash.size()];
+        var cases = new Label[hashes.length];
+        int c = 0;
+        for (int hash : namesByHash.keySet()) {
+            hashes[c] = hash;
+            cases[c++] = new Label();
+        }
+        method.visitLookupSwitchInsn(fail, hashes, cases);
+
+        // Names that share a hash are told apart by comparing them in turn
+        c = 0;
+        for (var names : namesByHash.values()) {
+            method.visitLabel(cases[c++]);
+            for (var name : names) {
+                method.visitVarInsn(ALOAD, 0);
+                method.visitLdcInsn(name);
+                method.visitMethodInsn(INVOKESTATIC, SELF, "nameIs", "(Ljava/lang/CharSequence;Ljava/lang/String;)Z", false);
+                method.visitJumpInsn(IFNE, blocks[parser.slotOfName(name)]);
+            }
+            method.visitJumpInsn(GOTO, fail);
+        }
+
+        for (int slot : slots) {
+            method.visitLabel(blocks[slot]);
+            var arity = parser.arity(slot);
+            if (arity.min() > 0) {
+                method.visitVarInsn(ILOAD, 3);
+                method.visitLdcInsn(arity.min());
+                method.visitJumpInsn(IF_ICMPLT, fail);
+            }
+            if (arity.max() != Integer.MAX_VALUE) {
+                method.visitVarInsn(ILOAD, 3);
+                method.visitLdcInsn(arity.max());
+                method.visitJumpInsn(IF_ICMPGT, fail);
+            }
+            var type = parser.argument(slot).type;
+            method.visitVarInsn(ALOAD, 1);
+            if (type == Double.class) {
+                method.visitMethodInsn(INVOKESTATIC, SELF, "allNumbers", "(Ljava/util/List;)Z", false);
+            } else if (type == Date.class) {
+                method.visitMethodInsn(INVOKESTATIC, SELF, "allDates", "(Ljava/util/List;)Z", false);
+            } else {
+                // What the lexer produces for each type; see Validator.accepts
+                var lexed = type == Integer.class || type == Long.class ? BigInteger.class : type;
+                method.visitLdcInsn(Type.getType(lexed));
+                method.visitMethodInsn(INVOKESTATIC, SELF, "allOf", "(Ljava/util/List;Ljava/lang/Class;)Z", false);
+            }
+            method.visitJumpInsn(IFEQ, fail);
+            method.visitLdcInsn(slot);
+            method.visitInsn(IRETURN);
+        }
+
+        method.visitLabel(fail);
+        method.visitInsn(ICONST_M1);
+        method.visitInsn(IRETURN);
+    }
+
+    // Called by the hidden classes
+
+    static boolean nameIs(CharSequence name, String expected) {
+        return expected.length() == name.length() && CharSequence.compare(expected, name) == 0;
+    }
+
+    /** @return Whether every value was lexed as <code>lexed</code>. */
+    static boolean allOf(List<Object> values, Class<?> lexed) {
+        if (values instanceof LongChunks) { return lexed == BigInteger.class; }
+        if (values instanceof SpanValues spans) {
+            for (int i = 0; i < spans.size(); i++) {
+                if (spans.typeOf(i) != lexed) { return false; }
+            }
+            return true;
+        }
+        for (int i = 0; i < values.size(); i++) {
+            if (values.get(i).getClass() != lexed) { return false; }
+        }
+        return true;
+    }
+
+    /** @return Whether every value was lexed as a date or an instant, which is what a Date argument takes. */
+    static boolean allDates(List<Object> values) {
+        if (values instanceof LongChunks) { return false; }
+        if (values instanceof SpanValues spans) {
+            for (int i = 0; i < spans.size(); i++) {
+                var lexed = spans.typeOf(i);
+                if (lexed != LocalDate.class && lexed != Instant.class) { return false; }
+            }
+            return true;
+        }
+        for (int i = 0; i < values.size(); i++) {
+            var lexed = values.get(i).getClass();
+            if (lexed != LocalDate.class && lexed != Instant.class) { return false; }
+        }
+        return true;
+    }
+
+    /** @return Whether every value was lexed as a number, which is what a Double argument takes. */
+    static boolean allNumbers(List<Object> values) {
+        if (values instanceof LongChunks) { return true; }
+        if (values instanceof SpanValues spans) {
+            for (int i = 0; i < spans.size(); i++) {
+                var lexed = spans.typeOf(i);
+                if (lexed != BigInteger.class && lexed != BigDecimal.class) { return false; }
+            }
+            return true;
+        }
+        for (int i = 0; i < values.size(); i++) {
+            var lexed = values.get(i).getClass();
+            if (lexed != BigInteger.class && lexed != BigDecimal.class) { return false; }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,152 @@
+package oop.project.cli;
+
+import oop.project.cli.argparser.*;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+public class ArgumentParserTests {
+
+    private static Argument<String> option(String ref, String... names) {
+        return new ArgumentBuilder<>(String.class, ref, names)
+                .setPositional(false)
+                .setRequired(false)
+                .setNArgs("?")
+                .build();
+    }
+
+    @Test
+    public void testAddArgumentsInBulk() throws ArgParseException {
+        ArgumentParser parser = new ArgumentParser("bulk", "many options");
+        var batch = new ArrayList<Argument<?>>();
+        for (int i = 0; i < 5000; i++) { batch.add(option("option" + i, "--option" + i)); }
+        parser.addArguments(batch);
+
+        Assertions.assertEquals(List.of("x"), parser.compile().parse("--option4999=\"x\"").getValue("option4999"));
+        Assertions.assertThrows(ArgumentException.class, () -> parser.addArgument(option("option0", "--fresh")));
+        Assertions.assertThrows(ArgumentException.class, () -> parser.addArgument(option("fresh", "--option0")));
+    }
+
+    @Test
+    public void testEveryConflictReported() {
+        ArgumentParser parser = new ArgumentParser("conflicts", "conflicting options");
+        parser.addArgument(option("taken", "--taken"));
+
+        var e = Assertions.assertThrows(ArgumentException.class, () -> parser.addArguments(List.of(
+                option("first", "--taken"),
+                option("taken", "--second"),
+                option("third", "--twice"),
+                option("fourth", "--twice"),
+                option("fine", "--fine"))));
+        for (var conflict : List.of("--taken", "Reference already exists: taken", "--twice")) {
+            Assertions.assertTrue(e.getMessage().contains(conflict), e.getMessage());
+        }
+        Assertions.assertFalse(e.getMessage().contains("fine"));
+
+        // Nothing from the failed batch was added
+        Assertions.assertNull(parser.getArgument("fine"));
+        parser.addArgument(option("fine", "--fine"));
+    }
+
+    @Test
+    public void testHelp() {
+        ArgumentParser parser = new ArgumentParser("cp", "copy files");
+        parser.addArgument(new ArgumentBuilder<>(String.class, "verbose", "-v", "--verbose")
+                .setPositional(false)
+                .setRequired(false)
+                .setNArgs("0")
+                .setHelpMessage("Print each file")
+                .build());
+        parser.addArgument(new ArgumentBuilder<>(String.class, "source")
+                .setPositional(true)
+                .setRequired(true)
+                .setNArgs("+")
+                .build());
+        parser.addArgument(new ArgumentBuilder<>(String.class, "mode", "--mode")
+                .setPositional(false)
+                .setRequired(true)
+                .setNArgs("1")
+                .setHelpName("MODE")
+                .build());
+
+        var help = parser.getHelp();
+        Assertions.assertEquals("Usage: <MODE: String> < options > [source: String] \nOptions:\n"
+                + "-v, --verbose\t\tPrint each file\n--mode\n", help);
+        Assertions.assertSame(help, parser.getHelp());
+
+        parser.addArgument(option("dry", "--dry"));
+        Assertions.assertTrue(parser.getHelp().endsWith("--dry\n"));
+
+        var writes = new ArrayList<CharSequence>();
+        parser.setHelpOutput(new Appendable() {
+            public Appendable append(CharSequence csq) { writes.add(csq); return this; }
+            public Appendable append(CharSequence csq, int start, int end) { return append(csq.subSequence(start, end)); }
+            public Appendable append(char c) { return append(String.valueOf(c)); }
+        });
+        Assertions.assertThrows(ArgParseException.class, () -> parser.parse("--unknown"));
+        Assertions.assertEquals(List.of(parser.getHelp()), writes);
+
+        parser.setHelpOnError(false);
+        Assertions.assertThrows(ArgParseException.class, () -> parser.parse("--unknown"));
+        Assertions.assertEquals(1, writes.size());
+    }
+
+    @Test
+    public void testTemporalArguments() throws Exception {
+        ArgumentParser parser = new ArgumentParser("backup", "back up on a schedule");
+        parser.addArgument(new ArgumentBuilder<>(LocalDate.class, "since", "--since")
+                .setPositional(false)
+                .setRequired(false)
+                .setNArgs("1")
+                .setRange(new ContinuousRange<>(LocalDate.of(2000, 1, 1), LocalDate.of(2099, 12, 31)))
+                .build());
+        parser.addArgument(new ArgumentBuilder<>(Duration.class, "every", "--every")
+                .setPositional(false)
+                .setRequired(false)
+                .setNArgs("1")
+                .build());
+        parser.addArgument(new ArgumentBuilder<>(Date.class, "at", "--at")
+                .setPositional(false)
+                .setRequired(false)
+                .setNArgs("+")
+                .build());
+        parser.addArgument(new ArgumentBuilder<>(Instant.class, "times")
+                .setPositional(true)
+                .setRequired(true)
+                .setNArgs("+")
+                .build());
+        var out = new ByteArrayOutputStream();
+        parser.writeSnapshot(out);
+        var loaded = ArgumentParser.readSnapshot(new ByteArrayInputStream(out.toByteArray()));
+
+        var input = "--since=2024-04-18 --every=PT6H --at=[2024-04-18 2024-04-18T12:00:00+02:00] 2024-04-18T10:00:00Z";
+        for (var schema : List.of(parser, loaded)) {
+            for (boolean specialized : new boolean[] {false, true}) {
+                schema.setSpecializedValidation(specialized);
+                for (var mode : Lexer.TokenMode.values()) {
+                    var compiled = schema.compile(mode);
+                    var result = compiled.parse(input);
+                    Assertions.assertEquals(List.of(LocalDate.of(2024, 4, 18)), result.getValue("since"));
+                    Assertions.assertEquals(List.of(Duration.ofHours(6)), result.getValue("every"));
+                    // Date arguments take dates, at midnight UTC, and instants
+                    Assertions.assertEquals(List.of(new Date(Instant.parse("2024-04-18T00:00:00Z").toEpochMilli()),
+                            new Date(Instant.parse("2024-04-18T10:00:00Z").toEpochMilli())), result.getValue("at"));
+                    Assertions.assertEquals(List.of(Instant.parse("2024-04-18T10:00:00Z")), result.getValue("times"));
+
+                    for (var bad : List.of("--since=1999-12-31 2024-04-18T10:00:00Z", "--every=2024-04-18 2024-04-18T10:00:00Z",
+                            "--at=PT1H 2024-04-18T10:00:00Z", "--since=2024-04-18T10:00:00Z 2024-04-18T10:00:00Z", "2024-04-18")) {
+                        Assertions.assertThrows(ArgParseException.class, () -> compiled.parse(bad), bad);
+                    }
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,461 @@
+package oop.project.cli;
+
+import oop.project.cli.argparser.*;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+public class CompiledParserTests {
+
+    private static CompiledParser copy() {
+        ArgumentParser parser = new ArgumentParser("copy", "copies files");
+        parser.addArgument(new ArgumentBuilder<>(String.class, "source")
+                .setPositional(true)
+                .setRequired(false)
+                .setNArgs("*")
+                .build());
+        parser.addArgument(new ArgumentBuilder<>(String.class, "dest")
+                .setPositional(true)
+                .setRequired(true)
+                .setNArgs("?")
+                .build());
+        parser.addArgument(new ArgumentBuilder<>(BigInteger.class, "count", "-c", "--count")
+                .setPositional(false)
+                .setRequired(false)
+                .setNArgs("1")
+                .build());
+        return parser.compile();
+    }
+
+    @Test
+    public void testParseReturnsFreshResults() throws ArgParseException {
+        var parser = copy();
+        var first = parser.parse("[\"a.txt\" \"b.txt\"] \"out\" --count=2");
+        var second = parser.parse("\"c.txt\"");
+
+        Assertions.assertEquals(List.of("a.txt", "b.txt"), first.getValue("source"));
+        Assertions.assertEquals(List.of(new BigInteger("2")), first.getValue("count"));
+        Assertions.assertTrue(first.isPresent("count"));
+        Assertions.assertEquals(List.of("c.txt"), second.getValue("dest"));
+        Assertions.assertEquals(List.of(), second.getValue("count"));
+        Assertions.assertFalse(second.isPresent("count"));
+    }
+
+    @Test
+    public void testSpansDecodeLikeDecoded() throws ArgParseException {
+        ArgumentParser schema = new ArgumentParser("spans", "span tokens");
+        schema.addArgument(new ArgumentBuilder<>(String.class, "names", "-n", "--names")
+                .setPositional(false)
+                .setRequired(false)
+                .setNArgs("*")
+                .build());
+        schema.addArgument(new ArgumentBuilder<>(BigDecimal.class, "ratio", "ratio")
+                .setPositional(false)
+                .setRequired(false)
+                .setNArgs("?")
+                .build());
+        schema.addArgument(new ArgumentBuilder<>(BigInteger.class, "ids")
+                .setPositional(true)
+                .setRequired(false)
+                .setNArgs("*")
+                .build());
+        var input = "--names=[\"plain\" \"tab\\there\" \"say \"\"hi\"\"\"] ratio=-0.25 [1 -2 00003 4.]";
+        var decoded = schema.compile().parse(input);
+        var spans = schema.compile(Lexer.TokenMode.SPANS).parse(new StringBuilder(input));
+
+        Assertions.assertEquals(decoded.toMap(), spans.toMap());
+        Assertions.assertEquals(List.of("plain", "tab\there", "say \"hi\""), spans.getValue("names"));
+        Assertions.assertEquals(List.of(new BigDecimal("-0.25")), spans.getValue("ratio"));
+        Assertions.assertThrows(ArgParseException.class,
+                () -> schema.compile(Lexer.TokenMode.SPANS).parse("--names=[\"a\" 1]"));
+    }
+
+    @Test
+    public void testPrimitiveArguments() throws ArgParseException {
+        ArgumentParser schema = new ArgumentParser("server", "primitive values");
+        schema.addArgument(new ArgumentBuilder<>(Integer.class, "port", "-p", "--port")
+                .setPositional(false)
+                .setRequired(true)
+                .setNArgs("1")
+                .setRange(new ContinuousRange<>(1, 65535))
+                .build());
+        schema.addArgument(new ArgumentBuilder<>(Long.class, "offsets", "--offsets")
+                .setPositional(false)
+                .setRequired(false)
+                .setNArgs("*")
+                .build());
+        schema.addArgument(new ArgumentBuilder<>(Double.class, "ratios")
+                .setPositional(true)
+                .setRequired(false)
+                .setNArgs("*")
+                .build());
+
+        for (var mode : Lexer.TokenMode.values()) {
+            var parser = schema.compile(mode);
+            var result = parser.parse("--port=8080 --offsets=[-9223372036854775808 0 42] [0.5 -2 1.25]");
+            Assertions.assertEquals(8080, result.getInt("port"));
+            Assertions.assertArrayEquals(new long[] {Long.MIN_VALUE, 0, 42}, result.getLongs("offsets"));
+            Assertions.assertArrayEquals(new double[] {0.5, -2, 1.25}, result.getDoubles("ratios"));
+            Assertions.assertEquals(List.of(8080), result.getValue("port"));
+
+            var empty = parser.parse("--port=1");
+            Assertions.assertArrayEquals(new long[0], empty.getLongs("offsets"));
+            Assertions.assertThrows(ArgumentException.class, () -> empty.getLong("offsets"));
+            Assertions.assertThrows(ArgumentException.class, () -> empty.getDouble("port"));
+
+            Assertions.assertThrows(ArgParseException.class, () -> parser.parse("--port=70000"));
+            Assertions.assertThrows(ArgParseException.class, () -> parser.parse("--port=2147483648"));
+            Assertions.assertThrows(ArgParseException.class, () -> parser.parse("--port=1.5"));
+            Assertions.assertThrows(ArgParseException.class, () -> parser.parse("--port=1 --offsets=[9223372036854775808]"));
+        }
+    }
+
+    @Test
+    public void testIntegerLists() throws ArgParseException {
+        ArgumentParser schema = new ArgumentParser("fetch", "fetch records by id");
+        schema.addArgument(new ArgumentBuilder<>(Long.class, "ids", "--ids")
+                .setPositional(false)
+                .setRequired(false)
+                .setNArgs("*")
+                .setRange(new ContinuousRange<>(0L, 1_000_000L))
+                .build());
+        schema.addArgument(new ArgumentBuilder<>(Integer.class, "shards", "--shards")
+                .setPositional(false)
+                .setRequired(false)
+                .setNArgs("*")
+                .setRange(IntervalRange.of(0, 9).union(100, 109))
+                .build());
+        schema.addArgument(new ArgumentBuilder<>(Integer.class, "levels", "--levels")
+                .setPositional(false)
+                .setRequired(false)
+                .setNArgs("*")
+                .setRange(new DiscreteValues<>(1, 2, 3, 5))
+                .build());
+        schema.addArgument(new ArgumentBuilder<>(BigInteger.class, "tags", "--tags")
+                .setPositional(false)
+                .setRequired(false)
+                .setNArgs("*")
+                .build());
+        schema.addArgument(new ArgumentBuilder<>(Double.class, "weights")
+                .setPositional(true)
+                .setRequired(false)
+                .setNArgs("*")
+                .build());
+
+        var ids = new long[10_000];
+        var input = new StringBuilder("--ids=[");
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = i * 97L;
+            input.append(i == 0 ? "" : " ").append(ids[i]);
+        }
+        input.append("] --shards=[ 3 105 0 ] --levels=[3 1 2] --tags=[-1 12345678901234] [1 2 -3]");
+        for (boolean specialized : new boolean[] {false, true}) {
+            schema.setSpecializedValidation(specialized);
+            for (var mode : Lexer.TokenMode.values()) {
+                var parser = schema.compile(mode);
+                var result = parser.parse(input);
+                Assertions.assertArrayEquals(ids, result.getLongs("ids"));
+                Assertions.assertEquals(97L, result.getValue("ids").get(1));
+                Assertions.assertEquals(0L, result.getLong("ids"));
+                Assertions.assertArrayEquals(new int[] {3, 105, 0}, result.getInts("shards"));
+                Assertions.assertEquals(List.of(3, 105, 0), result.getValue("shards"));
+                Assertions.assertEquals(3, result.getInt("shards"));
+                Assertions.assertArrayEquals(new int[] {3, 1, 2}, result.getInts("levels"));
+                Assertions.assertEquals(List.of(BigInteger.valueOf(-1), new BigInteger("12345678901234")), result.getValue("tags"));
+                Assertions.assertArrayEquals(new double[] {1, 2, -3}, result.getDoubles("weights"));
+                Assertions.assertEquals(List.of(1.0, 2.0, -3.0), result.getValue("weights"));
+                Assertions.assertEquals(1.0, result.getDouble("weights"));
+
+                // Lists the lexer does not take as integer lists lex and validate as before
+                Assertions.assertArrayEquals(new double[] {1, 2.5}, parser.parse("[1 2.5]").getDoubles("weights"));
+                Assertions.assertArrayEquals(new long[0], parser.parse("--ids=[]").getLongs("ids"));
+                Assertions.assertThrows(ParseException.class, () -> parser.parse("--ids=[1 2"));
+                Assertions.assertThrows(ParseException.class, () -> parser.parse("--ids=[1 2a]"));
+
+                // The first value out of range is reported, as it is for any other list
+                var range = Assertions.assertThrows(ArgParseException.class, () -> parser.parse("--ids=[5 1000001 -1]"));
+                Assertions.assertEquals("1000001 is not in range" + schema.getArgument("ids").range.toString(), range.getError().message());
+                var gap = Assertions.assertThrows(ArgParseException.class, () -> parser.parse("--shards=[9 100 50 10]"));
+                Assertions.assertEquals("50 is not in range" + schema.getArgument("shards").range.toString(), gap.getError().message());
+                var missing = Assertions.assertThrows(ArgParseException.class, () -> parser.parse("--levels=[1 2 4 5]"));
+                Assertions.assertEquals("4 is not in range" + schema.getArgument("levels").range.toString(), missing.getError().message());
+                var overflow = Assertions.assertThrows(ArgParseException.class, () -> parser.parse("--shards=[1 2147483648]"));
+                Assertions.assertEquals("2147483648 is out of range for int.", overflow.getError().message());
+                Assertions.assertThrows(ArgParseException.class, () -> parser.parse("--ids=[1 9223372036854775808]"));
+            }
+        }
+    }
+
+    @Test
+    public void testPositionalsAssignedInOrder() throws ArgParseException {
+        var parser = copy();
+        var both = parser.parse("[\"a.txt\"] \"out\"");
+        Assertions.assertEquals(List.of("a.txt"), both.getValue("source"));
+        Assertions.assertEquals(List.of("out"), both.getValue("dest"));
+        var destOnly = parser.parse("\"out\"");
+        Assertions.assertEquals(List.of(), destOnly.getValue("source"));
+        Assertions.assertEquals(List.of("out"), destOnly.getValue("dest"));
+        Assertions.assertThrows(ArgParseException.class, () -> parser.parse("\"a\" \"b\" \"c\""));
+
+        // Many variadic positionals, each optional but the last
+        ArgumentParser schema = new ArgumentParser("many", "variadic positionals");
+        for (int i = 0; i < 40; i++) {
+            var builder = i % 2 == 0 ? new ArgumentBuilder<>(String.class, "p" + i) : new ArgumentBuilder<>(BigInteger.class, "p" + i);
+            schema.addArgument(builder.setPositional(true).setRequired(i == 39).setNArgs("*").build());
+        }
+        var input = new StringBuilder();
+        for (int i = 0; i < 39; i++) { input.append(i % 2 == 0 ? "\"s\" " : "1 "); }
+        var result = schema.compile().parse(input.append("2").toString());
+        Assertions.assertEquals(List.of(BigInteger.TWO), result.getValue("p39"));
+        Assertions.assertEquals(List.of("s"), result.getValue("p0"));
+        Assertions.assertThrows(ArgParseException.class, () -> schema.compile().parse("\"s\""));
+
+        // Required positionals first, then optional ones
+        ArgumentParser ordered = new ArgumentParser("ordered", "required positionals first");
+        ordered.addArgument(new ArgumentBuilder<>(String.class, "name").setPositional(true).setRequired(true).setNArgs("1").build());
+        ordered.addArgument(new ArgumentBuilder<>(BigInteger.class, "count").setPositional(true).setRequired(true).setNArgs("1").build());
+        ordered.addArgument(new ArgumentBuilder<>(String.class, "extra").setPositional(true).setRequired(false).setNArgs("*").build());
+        ordered.addArgument(new ArgumentBuilder<>(BigInteger.class, "limit").setPositional(true).setRequired(false).setNArgs("?").build());
+        var orderedParser = ordered.compile();
+        var full = orderedParser.parse("\"a\" 2 [\"x\" \"y\"] 5");
+        Assertions.assertEquals(List.of("x", "y"), full.getValue("extra"));
+        Assertions.assertEquals(List.of(BigInteger.valueOf(5)), full.getValue("limit"));
+        var skipped = orderedParser.parse("\"a\" 2 5");
+        Assertions.assertEquals(List.of(), skipped.getValue("extra"));
+        Assertions.assertEquals(List.of(BigInteger.valueOf(5)), skipped.getValue("limit"));
+        Assertions.assertThrows(ArgParseException.class, () -> orderedParser.parse("\"a\" \"b\""));
+        Assertions.assertThrows(ArgParseException.class, () -> orderedParser.parse("2 \"a\""));
+        Assertions.assertThrows(ArgParseException.class, () -> orderedParser.parse("\"a\" 2 5 6"));
+    }
+
+    @Test
+    public void testShortFlagClusters() throws ArgParseException {
+        ArgumentParser schema = new ArgumentParser("flags", "many options");
+        for (char c : "abcXYZ".toCharArray()) {
+            schema.addArgument(new ArgumentBuilder<>(String.class, "flag" + c, "-" + c, "--flag" + c)
+                    .setPositional(false)
+                    .setRequired(false)
+                    .setNArgs("0")
+                    .build());
+        }
+        for (int i = 0; i < 300; i++) {
+            schema.addArgument(new ArgumentBuilder<>(String.class, "option" + i, "--option" + i)
+                    .setPositional(false)
+                    .setRequired(false)
+                    .setNArgs("?")
+                    .build());
+        }
+
+        for (var mode : Lexer.TokenMode.values()) {
+            var result = schema.compile(mode).parse("-abZ --flagX --option299=\"last\"");
+            for (char c : "abXZ".toCharArray()) { Assertions.assertTrue(result.isPresent("flag" + c)); }
+            Assertions.assertFalse(result.isPresent("flagc"));
+            Assertions.assertEquals(List.of("last"), result.getValue("option299"));
+            Assertions.assertThrows(ArgParseException.class, () -> schema.compile(mode).parse("-aq"));
+            Assertions.assertThrows(ArgParseException.class, () -> schema.compile(mode).parse("-aa"));
+        }
+    }
+
+    @Test
+    public void testTryParse() {
+        var parser = copy();
+        var success = Assertions.assertInstanceOf(ParseOutcome.Success.class, parser.tryParse("\"a.txt\" --count=3"));
+        Assertions.assertEquals(List.of("a.txt"), success.arguments().getValue("dest"));
+
+        // Every error is reported, in input order, with the token and argument it is about
+        var failure = Assertions.assertInstanceOf(ParseOutcome.Failure.class,
+                parser.tryParse("--count=\"x\" --size=1 --count=1 -c"));
+        Assertions.assertEquals(List.of(
+                new ParseError(ParseError.Code.TYPE_MISMATCH, 0, "count", "Got type String, expected " + BigInteger.class),
+                new ParseError(ParseError.Code.UNKNOWN_ARGUMENT, 12, null, "No such argument --size found."),
+                new ParseError(ParseError.Code.DUPLICATE_ARGUMENT, 32, "count", "Duplicate definition for -c."),
+                new ParseError(ParseError.Code.MISSING_REQUIRED, -1, "dest", "Required argument not present.")),
+                failure.errors());
+
+        var syntax = Assertions.assertInstanceOf(ParseOutcome.Failure.class, parser.tryParse("\"a.txt\" \"open"));
+        Assertions.assertEquals(ParseError.Code.SYNTAX, syntax.errors().getFirst().code());
+        var plan = Assertions.assertInstanceOf(ParseOutcome.Failure.class, parser.tryParse("\"a\" \"b\" 5"));
+        Assertions.assertEquals(List.of(new ParseError(ParseError.Code.UNKNOWN_POSITIONAL, 8, null,
+                "Unknown positional argument with type BigInteger")), plan.errors());
+    }
+
+    @Test
+    public void testStacklessErrors() {
+        ArgumentParser schema = new ArgumentParser("port", "stackless errors");
+        schema.setHelpOnError(false);
+        schema.addArgument(new ArgumentBuilder<>(Integer.class, "port", "--port")
+                .setPositional(false)
+                .setRequired(true)
+                .setNArgs("1")
+                .setRange(new ContinuousRange<>(1, 65535))
+                .build());
+        var withTrace = Assertions.assertThrows(ArgParseException.class, () -> schema.parse("--port=0"));
+        Assertions.assertNotEquals(0, withTrace.getStackTrace().length);
+
+        schema.setStacklessErrors(true);
+        var stackless = Assertions.assertThrows(ArgParseException.class, () -> schema.compile().parse("--port=0"));
+        Assertions.assertEquals(0, stackless.getStackTrace().length);
+        Assertions.assertEquals(withTrace.getMessage(), stackless.getMessage());
+        Assertions.assertEquals(new ParseError(ParseError.Code.OUT_OF_RANGE, 0, "port", "0 is not in range" + schema.compile().getArguments().get(1).range),
+                stackless.getError());
+        var syntax = Assertions.assertThrows(ArgParseException.class, () -> schema.parse("--port=1\""));
+        Assertions.assertEquals(0, syntax.getStackTrace().length);
+    }
+
+    @Test
+    public void testFailedParseLeavesNoState() throws ArgParseException {
+        var parser = copy();
+        Assertions.assertThrows(ArgParseException.class, () -> parser.parse("--count=1 --count=2 \"out.txt\""));
+        Assertions.assertEquals(List.of(), parser.parse("\"out.txt\"").getValue("count"));
+    }
+
+    @Test
+    public void testParseAll() {
+        var parser = copy();
+        var inputs = new ArrayList<String>();
+        for (int i = 0; i < 5000; i++) {
+            inputs.add(i % 7 == 0 ? "--count=" + i : "\"file" + i + "\" --count=" + i);
+        }
+
+        var results = parser.parseAll(inputs);
+        Assertions.assertEquals(inputs.size(), results.size());
+        for (int i = 0; i < results.size(); i++) {
+            var result = results.get(i);
+            Assertions.assertSame(inputs.get(i), result.input());
+            if (i % 7 == 0) {
+                Assertions.assertInstanceOf(ArgParseException.class, result.error());
+            } else {
+                Assertions.assertTrue(result.isSuccess());
+                Assertions.assertEquals(List.of(BigInteger.valueOf(i)), result.arguments().getValue("count"));
+            }
+        }
+
+        Assertions.assertEquals(results.stream().map(BatchResult::input).toList(),
+                parser.parseAll(inputs.stream(), true).map(BatchResult::input).toList());
+        Assertions.assertEquals(results.stream().filter(BatchResult::isSuccess).count(),
+                parser.parseAll(inputs.stream(), false).filter(BatchResult::isSuccess).count());
+    }
+
+    @Test
+    public void testParseFile(@TempDir Path dir) throws Exception {
+        var parser = copy();
+        var lines = List.of("\"a.txt\" --count=1", "--count=2", "[\"b.txt\" \"c.txt\"] \"d\"", "\"caf\u00e9\"", "", "\"last\"");
+        var file = dir.resolve("inputs.txt");
+        Files.writeString(file, String.join("\n", lines.subList(0, 3)) + "\r\n" + String.join("\n", lines.subList(3, 6)));
+
+        var results = new ArrayList<BatchResult>();
+        parser.parseFile(file, results::add);
+        Assertions.assertEquals(lines, results.stream().map(result -> result.input().toString()).toList());
+        for (int i = 0; i < lines.size(); i++) {
+            var expected = parser.parseAll(List.of(lines.get(i))).getFirst();
+            Assertions.assertEquals(expected.isSuccess(), results.get(i).isSuccess(), lines.get(i));
+            if (expected.isSuccess()) {
+                Assertions.assertEquals(expected.arguments().toMap(), results.get(i).arguments().toMap());
+            }
+        }
+        Assertions.assertEquals(List.of("caf\u00e9"), results.get(3).arguments().getValue("dest"));
+    }
+
+    @Test
+    public void testConcurrentParses() throws Exception {
+        var parser = copy();
+        var tasks = new ArrayList<Callable<Boolean>>();
+        for (int i = 0; i < 64; i++) {
+            final int n = i;
+            tasks.add(() -> {
+                for (int j = 0; j < 200; j++) {
+                    var result = parser.parse("\"file" + n + "\" --count=" + j);
+                    if (!result.getValue("dest").equals(List.of("file" + n))
+                            || !result.getValue("count").equals(List.of(BigInteger.valueOf(j)))) { return false; }
+                }
+                return true;
+            });
+        }
+        try (var executor = Executors.newFixedThreadPool(8)) {
+            for (Future<Boolean> future : executor.invokeAll(tasks)) { Assertions.assertTrue(future.get()); }
+        }
+    }
+
+    @Test
+    public void testSpecializedValidation() throws ArgParseException {
+        ArgumentParser schema = new ArgumentParser("special", "specialized checks");
+        schema.addArgument(new ArgumentBuilder<>(Integer.class, "aa", "Aa")  // "Aa" and "BB" share a hash
+                .setPositional(false)
+                .setRequired(false)
+                .setNArgs("1")
+                .build());
+        schema.addArgument(new ArgumentBuilder<>(String.class, "bb", "BB", "-b")
+                .setPositional(false)
+                .setRequired(false)
+                .setNArgs("?")
+                .build());
+        schema.addArgument(new ArgumentBuilder<>(Double.class, "weights", "--weights")
+                .setPositional(false)
+                .setRequired(false)
+                .setNArgs("+")
+                .setRange(new ContinuousRange<>(0.0, 1.0))
+                .build());
+        schema.addArgument(new ArgumentBuilder<>(BigDecimal.class, "ratio", "--ratio")
+                .setPositional(false)
+                .setRequired(false)
+                .setNArgs("2")
+                .build());
+        schema.addArgument(new ArgumentBuilder<>(String.class, "verbose", "-v")
+                .setPositional(false)
+                .setRequired(false)
+                .setNArgs("0")
+                .build());
+        var inputs = List.of("Aa=1 BB=\"x\" --weights=[0.5 1] --ratio=[1.5 2.5] -v", "Aa=\"x\"", "BB=1", "Aa=[1 2]", "BB=[]",
+                "--weights=[0.5 2]", "--weights=[]", "--weights=[\"x\"]", "--ratio=[1 2]", "--ratio=[1.5]", "-v=1", "-v -v",
+                "Aa=1 Aa=2", "Ab=1", "-b -v -h", "-x", "Aa=99999999999");
+
+        var generic = List.of(schema.compile(), schema.compile(Lexer.TokenMode.SPANS));
+        schema.setSpecializedValidation(true);
+        var specialized = List.of(schema.compile(), schema.compile(Lexer.TokenMode.SPANS));
+        for (int mode = 0; mode < 2; mode++) {
+            Assertions.assertFalse(generic.get(mode).isSpecialized());
+            Assertions.assertTrue(specialized.get(mode).isSpecialized());
+            for (var input : inputs) {
+                var expected = generic.get(mode).tryParse(input);
+                var actual = specialized.get(mode).tryParse(input);
+                if (expected instanceof ParseOutcome.Success success) {
+                    Assertions.assertEquals(success.arguments().toMap(), ((ParseOutcome.Success) actual).arguments().toMap(), input);
+                } else {
+                    Assertions.assertEquals(expected, actual, input);
+                    var parser = specialized.get(mode);
+                    var thrown = Assertions.assertThrows(ArgParseException.class, () -> parser.parse(input));
+                    Assertions.assertEquals(((ParseOutcome.Failure) expected).errors().getFirst(), thrown.getError(), input);
+                }
+            }
+        }
+        Assertions.assertEquals(List.of(0.5, 1.0), specialized.getFirst().parse(inputs.getFirst()).getValue("weights"));
+
+        // Enough names to be split across several methods
+        ArgumentParser large = new ArgumentParser("large", "many options");
+        for (int i = 0; i < 200; i++) {
+            large.addArgument(new ArgumentBuilder<>(Long.class, "option" + i, "--option" + i)
+                    .setPositional(false)
+                    .setRequired(false)
+                    .setNArgs("1")
+                    .build());
+        }
+        large.setSpecializedValidation(true);
+        var parser = large.compile();
+        Assertions.assertTrue(parser.isSpecialized());
+        for (int i = 0; i < 200; i++) {
+            Assertions.assertEquals(List.of((long) i), parser.parse("--option" + i + "=" + i).getValue("option" + i));
+        }
+        var unknown = Assertions.assertThrows(ArgParseException.class, () -> parser.parse("--option200=1"));
+        Assertions.assertEquals(ParseError.Code.UNKNOWN_ARGUMENT, unknown.getError().code());
+    }
+}
@@ -0,0 +1,95 @@
+package oop.project.cli;
+
+import oop.project.cli.argparser.*;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigInteger;
+import java.util.List;
+
+public class CompletionTests {
+
+    private static ArgumentParser convert() {
+        ArgumentParser parser = new ArgumentParser("convert", "converts images");
+        parser.addArgument(new ArgumentBuilder<>(String.class, "format", "-f", "--format")
+                .setPositional(false)
+                .setRequired(false)
+                .setNArgs("1")
+                .setRange(new DiscreteValues<>("png", "jpeg", "jpg", "say \"hi\""))
+                .build());
+        parser.addArgument(new ArgumentBuilder<>(String.class, "force", "--force")
+                .setPositional(false)
+                .setRequired(false)
+                .setNArgs("0")
+                .build());
+        parser.addArgument(new ArgumentBuilder<>(BigInteger.class, "sizes", "sizes")
+                .setPositional(false)
+                .setRequired(false)
+                .setNArgs("*")
+                .setRange(new DiscreteValues<>(BigInteger.valueOf(16), BigInteger.valueOf(32), BigInteger.valueOf(128)))
+                .build());
+        parser.addArgument(new ArgumentBuilder<>(String.class, "quality")
+                .setPositional(true)
+                .setRequired(false)
+                .setNArgs("?")
+                .setRange(new DiscreteValues<>("low", "high"))
+                .build());
+        return parser;
+    }
+
+    private static Completions complete(ArgumentParser parser, String lineWithCursor) {
+        int cursor = lineWithCursor.indexOf('|');
+        return parser.complete(lineWithCursor.replace("|", ""), cursor);
+    }
+
+    @Test
+    public void testNames() {
+        var parser = convert();
+        Assertions.assertEquals(new Completions(0, List.of("--force", "--format=")), complete(parser, "--fo|"));
+        Assertions.assertEquals(new Completions(6, List.of("--force", "--format=")), complete(parser, "\"low\" --f| --help"));
+        Assertions.assertEquals(new Completions(0, List.of("sizes=")), complete(parser, "s|"));
+        Assertions.assertEquals(new Completions(0, List.of()), complete(parser, "--x|"));
+        Assertions.assertEquals(List.of("\"high\"", "\"low\"", "--force", "--format=", "--help", "-h", "sizes="),
+                complete(parser, "|").candidates());
+    }
+
+    @Test
+    public void testValues() {
+        var parser = convert();
+        Assertions.assertEquals(new Completions(9, List.of("\"jpeg\"", "\"jpg\"")), complete(parser, "--format=\"j|"));
+        Assertions.assertEquals(new Completions(9, List.of("\"say \\\"hi\\\"\"")), complete(parser, "--format=\"say |"));
+        Assertions.assertEquals(new Completions(10, List.of("128", "16")), complete(parser, "sizes=[32 1|"));
+        Assertions.assertEquals(new Completions(0, List.of("\"high\"")), complete(parser, "\"h|"));
+        Assertions.assertEquals(new Completions(0, List.of("\"high\"")), complete(parser, "\"h| --force"));
+        Assertions.assertEquals(new Completions(8, List.of()), complete(parser, "--force=|"));
+    }
+
+    @Test
+    public void testSubcommands() {
+        ArgumentParser git = new ArgumentParser("git", "version control");
+        git.addSubcommand("commit", "record changes", child ->
+                child.addArgument(new ArgumentBuilder<>(String.class, "message", "-m", "--message")
+                        .setPositional(false)
+                        .setRequired(true)
+                        .setNArgs("1")
+                        .build()));
+        git.addSubcommand("checkout", "switch branches", child -> {});
+        Assertions.assertEquals(new Completions(0, List.of("checkout", "commit")), complete(git, "c|"));
+        Assertions.assertEquals(new Completions(7, List.of("--message=")), complete(git, "commit --m|"));
+        Assertions.assertThrows(IndexOutOfBoundsException.class, () -> git.complete("c", 2));
+    }
+
+    @Test
+    public void testManyOptions() {
+        ArgumentParser parser = new ArgumentParser("many", "many options");
+        for (int i = 0; i < 5000; i++) {
+            parser.addArgument(new ArgumentBuilder<>(String.class, "option" + i, "--option" + i)
+                    .setPositional(false)
+                    .setRequired(false)
+                    .setNArgs("0")
+                    .build());
+        }
+        Assertions.assertEquals(List.of("--option4999"), complete(parser, "--option4999|").candidates());
+        Assertions.assertEquals(1 + 10 + 100 + 1000, complete(parser, "--option4|").candidates().size());
+    }
+}
@@ -0,0 +1,191 @@
+package oop.project.cli;
+
+import oop.project.cli.annotations.Command;
+import oop.project.cli.annotations.Option;
+import oop.project.cli.annotations.Positional;
+import oop.project.cli.argparser.ArgParseException;
+import oop.project.cli.argparser.CompiledParser;
+import oop.project.cli.argparser.ParsedArguments;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.function.ThrowingSupplier;
+
+import java.lang.reflect.Array;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+public class GeneratedParserTests {
+
+    @Command(name = "copy", description = "copies things")
+    record Copy(
+            @Positional(help = "Where from") String source,
+            @Positional(nArgs = "?", required = false) String dest,
+            @Option(names = {"-n", "--count"}, min = "1", max = "10") int count,
+            @Option(names = "--mode", values = {"fast", "safe"}, required = true) String mode,
+            @Option(names = {"-v", "--verbose"}) boolean verbose,
+            @Option(names = "--sizes", nArgs = "+") long[] sizes,
+            @Option(names = "ratio", nArgs = "?", values = {"0.5", "1.5"}) BigDecimal ratio,
+            @Option(names = "--ids") List<BigInteger> ids,
+            @Option(names = "--weights", min = "0", max = "1") List<Double> weights
+    ) {}
+
+    @Command(name = "serve")
+    static class Serve {
+        @Option(names = "--port", required = true, min = "1", max = "65535") Integer port;
+        @Positional(nArgs = "*", required = false) int[] codes;
+        String unrelated = "kept";
+    }
+
+    @Command(name = "fetch")
+    static class Fetch {
+        @Positional(nArgs = "?", required = false) String url = "http://localhost";
+        @Option(names = "--port", min = "1", max = "65535") Integer port = 8080;
+        @Option(names = "--retries") int retries = 3;
+        @Option(names = "--tags") List<String> tags = List.of("latest");
+        @Option(names = "--ids") long[] ids = {7};
+    }
+
+    @Test
+    public void testSameAsCompiledParser() {
+        var inputs = List.of(
+                "\"a\" --mode=\"fast\"",
+                "\"a\" \"b\" --mode=\"safe\" --count=3 -v --sizes=[1 2 3] ratio=0.5 --ids=[1 2] --weights=[0.25 1]",
+                "--mode=\"fast\" \"a\" -h",
+                "\"a\"",
+                "\"a\" --mode=\"slow\"",
+                "\"a\" --mode=\"fast\" --mode=\"safe\"",
+                "\"a\" --mode=\"fast\" --bogus=1",
+                "\"a\" --mode=1",
+                "\"a\" --mode=\"fast\" --count=11",
+                "\"a\" --mode=\"fast\" --count=99999999999",
+                "\"a\" --mode=\"fast\" --count=99999999999999999999999",
+                "\"a\" --mode=\"fast\" --count=1.5",
+                "\"a\" --mode=\"fast\" --count=[1 2]",
+                "\"a\" \"b\" \"c\" --mode=\"fast\"",
+                "1 --mode=\"fast\"",
+                "[\"a\" \"b\"] --mode=\"fast\"",
+                "--bogus=1 \"a\" \"b\" \"c\"",
+                "\"a\" --mode=\"fast\" --verbose=1",
+                "\"a\" --mode=\"fast\" -v -v",
+                "\"a\" --mode=\"fast\" -h --help",
+                "\"a\" --mode=\"fast\" --weights=[0.5 2]",
+                "\"a\" --mode=\"fast\" --ids=[1 2.5]",
+                "\"a\" --mode=\"fast\" ratio=0.50",
+                "\"a\" --mode=\"fast\" ratio=1.5",
+                "\"a\" --mode=\"fast\" --sizes=1",
+                "\"a\" --mode=\"fast\" \"unterminated"
+        );
+        var compiled = GeneratedParserTests_CopyParser.schema().compile();
+        int parsed = 0;
+        for (var input : inputs) {
+            if (compare(compiled, input, () -> GeneratedParserTests_CopyParser.parse(input), copy -> Arrays.asList(
+                    copy.source(), copy.dest(), copy.count(), copy.mode(), copy.verbose(), copy.sizes(), copy.ratio(), copy.ids(), copy.weights()))) { parsed++; }
+        }
+        Assertions.assertEquals(5, parsed);
+
+        compiled = GeneratedParserTests_ServeParser.schema().compile();
+        for (var input : List.of("--port=80", "--port=80 [1 2] [3]", "[1 2]", "--port=0", "--port=80 \"x\"")) {
+            compare(compiled, input, () -> GeneratedParserTests_ServeParser.parse(input), serve -> {
+                Assertions.assertEquals("kept", serve.unrelated);
+                var fields = new ArrayList<Object>();
+                fields.add(serve.port);
+                fields.add(serve.codes);
+                return fields;
+            });
+        }
+    }
+
+    @Test
+    public void testDefaults() throws ArgParseException {
+        var copy = GeneratedParserTests_CopyParser.parse("\"a\" --mode=\"fast\"");
+        Assertions.assertNull(copy.dest());
+        Assertions.assertEquals(0, copy.count());
+        Assertions.assertFalse(copy.verbose());
+        Assertions.assertArrayEquals(new long[0], copy.sizes());
+        Assertions.assertNull(copy.ratio());
+        Assertions.assertEquals(List.of(), copy.ids());
+
+        copy = GeneratedParserTests_CopyParser.parse("\"a\" \"b\" --mode=\"safe\" --count=3 -v --sizes=[1 2 3] ratio=0.5 --weights=[0.25 1]");
+        Assertions.assertEquals("b", copy.dest());
+        Assertions.assertEquals(3, copy.count());
+        Assertions.assertTrue(copy.verbose());
+        Assertions.assertArrayEquals(new long[] {1, 2, 3}, copy.sizes());
+        Assertions.assertEquals(new BigDecimal("0.5"), copy.ratio());
+        Assertions.assertEquals(List.of(0.25, 1.0), copy.weights());
+
+        var serve = GeneratedParserTests_ServeParser.parse("--port=8080");
+        Assertions.assertEquals(8080, serve.port);
+        Assertions.assertArrayEquals(new int[0], serve.codes);
+    }
+
+    @Test
+    public void testInitializersKept() throws ArgParseException {
+        var fetch = GeneratedParserTests_FetchParser.parse("");
+        Assertions.assertEquals("http://localhost", fetch.url);
+        Assertions.assertEquals(8080, fetch.port);
+        Assertions.assertEquals(3, fetch.retries);
+        Assertions.assertEquals(List.of("latest"), fetch.tags);
+        Assertions.assertArrayEquals(new long[] {7}, fetch.ids);
+
+        fetch = GeneratedParserTests_FetchParser.parse("\"http://example.com\" --port=80 --retries=0 --tags=[] --ids=[1 2]");
+        Assertions.assertEquals("http://example.com", fetch.url);
+        Assertions.assertEquals(80, fetch.port);
+        Assertions.assertEquals(0, fetch.retries);
+        Assertions.assertEquals(List.of(), fetch.tags);
+        Assertions.assertArrayEquals(new long[] {1, 2}, fetch.ids);
+    }
+
+    @Test
+    public void testSchema() {
+        var schema = GeneratedParserTests_CopyParser.schema();
+        Assertions.assertTrue(schema.getHelp().contains("-v, --verbose"), schema.getHelp());
+        Assertions.assertEquals("Discrete Value Range: [fast, safe]", String.valueOf(schema.getArgument("mode").range));
+    }
+
+    private interface Fields<T> {
+        List<Object> of(T result);
+    }
+
+    /**
+     * Parses with both parsers, and checks they agree on the error, or on every argument's values.
+     *
+     * @return Whether the input parsed.
+     */
+    private static <T> boolean compare(CompiledParser compiled, String input, ThrowingSupplier<T> generated, Fields<T> fields) {
+        ParsedArguments expected;
+        try {
+            expected = compiled.parse(input);
+        } catch (ArgParseException e) {
+            var actual = Assertions.assertThrows(ArgParseException.class, generated::get, input);
+            Assertions.assertEquals(e.getError(), actual.getError(), input);
+            Assertions.assertEquals(e.getMessage(), actual.getMessage(), input);
+            return false;
+        }
+        var actual = Assertions.assertDoesNotThrow(generated, input);
+        var values = fields.of(actual);
+        var refs = new ArrayList<>(expected.toMap().keySet());
+        refs.remove("help");
+        Assertions.assertEquals(refs.size(), values.size());
+        for (int i = 0; i < refs.size(); i++) {
+            var expectedValues = expected.getValue(refs.get(i));
+            var value = values.get(i);
+            if (value instanceof Boolean flag) { Assertions.assertEquals(expected.isPresent(refs.get(i)), flag, input); }
+            else if (expected.isPresent(refs.get(i)) || !expectedValues.isEmpty()) { Assertions.assertEquals(expectedValues, asList(value), input + " " + refs.get(i)); }
+        }
+        return true;
+    }
+
+    private static List<Object> asList(Object value) {
+        if (value == null) { return List.of(); }
+        if (value instanceof List<?> list) { return new ArrayList<>(list); }
+        if (value.getClass().isArray()) {
+            var list = new ArrayList<>();
+            for (int i = 0; i < Array.getLength(value); i++) { list.add(Array.get(value, i)); }
+            return list;
+        }
+        return List.of(value);
+    }
+}
@@ -0,0 +1,83 @@
+package oop.project.cli;
+
+import oop.project.cli.argparser.*;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+public class IncrementalLexerTests {
+
+    /** Checks that the incremental lexer agrees with lexing the whole text from scratch. */
+    private static void assertLexesLike(IncrementalLexer incremental) {
+        var text = incremental.getText();
+        TokenList expected;
+        try {
+            expected = new Lexer(text).lex();
+        } catch (ArgParseException | ParseException e) {
+            var error = e instanceof ArgParseException a ? a.getError() : ((ParseException) e).getError();
+            Assertions.assertEquals(error, incremental.getError(), text);
+            return;
+        }
+        Assertions.assertNull(incremental.getError(), text);
+        try {
+            var actual = incremental.tokens();
+            Assertions.assertEquals(expected, actual, text);
+            for (int i = 0; i < expected.size(); i++) { Assertions.assertEquals(expected.position(i), actual.position(i), text); }
+        } catch (ArgParseException e) {
+            Assertions.fail(text, e);
+        }
+    }
+
+    @Test
+    public void testEditsReuseUnaffectedTokens() throws ArgParseException {
+        var lexer = new IncrementalLexer("--name=\"a\" [1 2 3] -xy key=4.5 \"last\"");
+        var before = lexer.tokens();
+        Assertions.assertEquals(6, before.size());
+
+        lexer.edit(8, 1, "abc");  // --name="abc"
+        assertLexesLike(lexer);
+        var after = lexer.tokens();
+        Assertions.assertEquals("abc", after.getFirst().value().getFirst());
+        for (int i = 1; i < after.size(); i++) { Assertions.assertSame(before.get(i), after.get(i)); }
+        Assertions.assertEquals(before.position(5) + 2, after.position(5));
+
+        lexer.edit(lexer.getText().length(), 0, " -z");
+        assertLexesLike(lexer);
+        Assertions.assertSame(after.get(4), lexer.tokens().get(4));
+    }
+
+    @Test
+    public void testEditsAcrossLexemes() {
+        var lexer = new IncrementalLexer("\"a b\" \"c\"");
+        lexer.edit(2, 0, "\"");  // "a" b" "c" - the quote splits the string, and the rest fails to lex
+        assertLexesLike(lexer);
+        Assertions.assertNotNull(lexer.getError());
+        lexer.edit(2, 1, "");
+        assertLexesLike(lexer);
+        Assertions.assertNull(lexer.getError());
+        lexer.edit(5, 1, "");  // "a b""c" - two strings become one with an escaped quote
+        assertLexesLike(lexer);
+        Assertions.assertEquals(1, lexer.lexemeCount());
+        Assertions.assertThrows(IndexOutOfBoundsException.class, () -> lexer.edit(5, 10, ""));
+    }
+
+    @Test
+    public void testRandomEdits() {
+        var random = new Random(42);
+        String[] pieces = {" ", "  ", "\"", "a", "-", "--", "=", "[", "]", "1", ".", "x", "\\", "\"\"", "7", "k=", "-ab", "\"s t\""};
+        for (int round = 0; round < 200; round++) {
+            var initial = new StringBuilder();
+            for (int i = 0; i < 20; i++) { initial.append(pieces[random.nextInt(pieces.length)]).append(' '); }
+            var lexer = new IncrementalLexer(initial);
+            assertLexesLike(lexer);
+            for (int edit = 0; edit < 30; edit++) {
+                int length = lexer.getText().length();
+                int offset = random.nextInt(length + 1);
+                int removed = random.nextInt(Math.min(3, length - offset) + 1);
+                lexer.edit(offset, removed, random.nextBoolean() ? pieces[random.nextInt(pieces.length)] : "");
+                assertLexesLike(lexer);
+            }
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package oop.project.cli;
+
+import oop.project.cli.argparser.ArgParseException;
+import oop.project.cli.argparser.Lexer;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class LexerScalingTests {
+    /**
+     * One repetition of a generated command line: a long list of file names, a flag and repeated name=value pairs.
+     */
+    private static final String SEGMENT = "--files=[\"/var/log/app/part-00001.log\" \"/var/log/app/part-00002.log\"] "
+            + "-v name=\"value\" count=42 ratio=0.5 ";
+
+    /** How much the reads per character may grow between two sizes before we call it superlinear. */
+    private static final double ALLOWED_GROWTH = 1.1;
+
+    /**
+     * Counts the characters the lexer reads rather than timing it, so the test does not depend on the machine it runs
+     * on: lexing is linear if it reads each character about as often however long the input is.
+     */
+    @Test
+    public void testLinearScaling() throws ArgParseException {
+        double smallReads = readsPerChar(generate(1_000));
+        double mediumReads = readsPerChar(generate(100_000));
+        double largeReads = readsPerChar(generate(10_000_000));
+
+        Assertions.assertTrue(mediumReads <= smallReads * ALLOWED_GROWTH,
+                "1 KB: " + smallReads + " reads/char, 100 KB: " + mediumReads + " reads/char");
+        Assertions.assertTrue(largeReads <= mediumReads * ALLOWED_GROWTH,
+                "100 KB: " + mediumReads + " reads/char, 10 MB: " + largeReads + " reads/char");
+    }
+
+    private static double readsPerChar(String input) throws ArgParseException {
+        var counting = new CountingChars(input);
+        Assertions.assertFalse(new Lexer(counting).lex().isEmpty());
+        return (double) counting.reads / input.length();
+    }
+
+    private static String generate(int size) {
+        var builder = new StringBuilder(size + SEGMENT.length());
+        while (builder.length() < size) { builder.append(SEGMENT); }
+        return builder.toString().strip();
+    }
+
+    /** The input, counting every character read from it. */
+    private static final class CountingChars implements CharSequence {
+        private final String chars;
+        private long reads;
+
+        CountingChars(String chars) {
+            this.chars = chars;
+        }
+
+        @Override
+        public char charAt(int index) {
+            reads++;
+            return chars.charAt(index);
+        }
+
+        @Override
+        public int length() {
+            return chars.length();
+        }
+
+        @Override
+        public CharSequence subSequence(int start, int end) {
+            reads += end - start;
+            return chars.subSequence(start, end);
+        }
+
+        @Override
+        public String toString() {
+            reads += chars.length();
+            return chars;
+        }
+    }
+}
@@ -3,6 +3,7 @@ package oop.project.cli;
 import oop.project.cli.argparser.*;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.Arguments;
 import org.junit.jupiter.params.provider.MethodSource;
@@ -11,6 +12,8 @@ import java.lang.reflect.Array;
 import java.math.BigDecimal;
 import java.math.BigInteger;
 import java.text.DateFormat;
+import java.time.Duration;
+import java.time.Instant;
 import java.time.LocalDate;
 import java.util.*;
 import java.util.stream.Stream;
@@ -103,6 +106,70 @@ public class LexerTests {
                             new ArgToken(ArgToken.Type.POSITIONAL_ARG, "positional", new ArrayList<>(List.of(new BigDecimal("1.1"), new BigDecimal("2.2"), new BigDecimal("3.3"), new BigDecimal("4.4")))))))
             );
         }
+
+        @ParameterizedTest
+        @MethodSource
+        public void testTemporals(String name, String command, ArrayList<ArgToken> expected) {
+            test(command, expected);
+        }
+        public static Stream<Arguments> testTemporals() {
+            return Stream.of(
+                    Arguments.of("Date", "2024-04-18", new ArrayList<>(List.of(
+                            new ArgToken(ArgToken.Type.POSITIONAL_ARG, "positional", new ArrayList<>(List.of(LocalDate.of(2024, 4, 18))))))),
+                    Arguments.of("Leap Day", "2024-02-29", new ArrayList<>(List.of(
+                            new ArgToken(ArgToken.Type.POSITIONAL_ARG, "positional", new ArrayList<>(List.of(LocalDate.of(2024, 2, 29))))))),
+                    Arguments.of("Instant", "2024-04-18T10:15:30Z", new ArrayList<>(List.of(
+                            new ArgToken(ArgToken.Type.POSITIONAL_ARG, "positional", new ArrayList<>(List.of(Instant.parse("2024-04-18T10:15:30Z"))))))),
+                    Arguments.of("Instant with Fraction and Offset", "2024-04-18T10:15:30.25-05:30", new ArrayList<>(List.of(
+                            new ArgToken(ArgToken.Type.POSITIONAL_ARG, "positional", new ArrayList<>(List.of(Instant.parse("2024-04-18T15:45:30.25Z"))))))),
+                    Arguments.of("Duration", "PT1H30M", new ArrayList<>(List.of(
+                            new ArgToken(ArgToken.Type.POSITIONAL_ARG, "positional", new ArrayList<>(List.of(Duration.ofMinutes(90))))))),
+                    Arguments.of("Duration with Days and Negative Seconds", "P2DT-1.5S", new ArrayList<>(List.of(
+                            new ArgToken(ArgToken.Type.POSITIONAL_ARG, "positional", new ArrayList<>(List.of(Duration.parse("P2DT-1.5S"))))))),
+                    Arguments.of("Named Date", "--since=2024-04-18", new ArrayList<>(List.of(
+                            new ArgToken(ArgToken.Type.NAMED_ARG, "--since", new ArrayList<>(List.of(LocalDate.of(2024, 4, 18))))))),
+                    Arguments.of("Key Named Like a Duration", "P1D=1", new ArrayList<>(List.of(
+                            new ArgToken(ArgToken.Type.NAMED_ARG, "P1D", new ArrayList<>(List.of(BigInteger.ONE)))))),
+                    Arguments.of("Multiple Temporals", "[2024-04-18 2024-04-18T00:00:00Z P1D]", new ArrayList<>(List.of(
+                            new ArgToken(ArgToken.Type.POSITIONAL_ARG, "positional", new ArrayList<>(List.of(
+                                    LocalDate.of(2024, 4, 18), Instant.parse("2024-04-18T00:00:00Z"), Duration.ofDays(1))))))),
+                    Arguments.of("Day out of Month", "2023-02-29", null),
+                    Arguments.of("Month out of Range", "2024-13-01", null),
+                    Arguments.of("Short Month", "2024-4-18", null),
+                    Arguments.of("Double Dash", "2024-04--18", null),
+                    Arguments.of("Instant without Offset", "2024-04-18T10:15:30", null),
+                    Arguments.of("Instant Fraction too Long", "2024-04-18T10:15:30.1234567891Z", null),
+                    Arguments.of("Duration out of Order", "PT1M1H", null),
+                    Arguments.of("Duration Time without Components", "P1DT", null),
+                    Arguments.of("Duration Fraction of Minutes", "PT1.5M", null)
+            );
+        }
+
+        @Test
+        public void testTemporalsMatchJavaTime() throws ArgParseException {
+            // Every day of a few centuries, around the leap year rules
+            for (var date = LocalDate.of(1799, 1, 1); date.getYear() < 2101; date = date.plusDays(1)) {
+                Assertions.assertEquals(List.of(date), lexValue(date.toString()));
+            }
+            var instants = List.of("0000-01-01T00:00:00Z", "1969-12-31T23:59:59.999999999Z", "2024-04-18T23:30:00+18:00",
+                    "2024-04-18T00:30:00.5-18:00", "9999-12-31T23:59:59Z");
+            for (var instant : instants) {
+                Assertions.assertEquals(List.of(Instant.parse(instant)), lexValue(instant), instant);
+            }
+            var durations = List.of("PT0S", "P1D", "PT-0.5S", "PT1H-1M", "P-1DT+2H3.000000001S", "PT1.123S",
+                    "P106751991167300D", "PT-9223372036854775807S");
+            for (var duration : durations) {
+                Assertions.assertEquals(List.of(Duration.parse(duration)), lexValue(duration), duration);
+            }
+            Assertions.assertThrows(ArgParseException.class, () -> lexValue("P106751991167301D"));  // overflows
+        }
+
+        /** @return The values of the only token lexed from <code>command</code>, decoded from spans. */
+        private static List<Object> lexValue(String command) throws ArgParseException {
+            var tokens = new Lexer(command, Lexer.TokenMode.SPANS).lex();
+            Assertions.assertEquals(1, tokens.size(), command);
+            return new ArrayList<>(tokens.getFirst().value());
+        }
     }
 
     @Nested
@@ -150,12 +217,33 @@ public class LexerTests {
                     Arguments.of("Multiple Named Arguments No -- identifier", "name1=\"value1\" name2=2", new ArrayList<>(List.of(
                             new ArgToken(ArgToken.Type.NAMED_ARG, "name1", new ArrayList<>(List.of("value1"))),
                             new ArgToken(ArgToken.Type.NAMED_ARG, "name2", new ArrayList<>(List.of(new BigInteger("2"))))))),
+                    Arguments.of("Named Argument after a Flag", "--flag name=2", new ArrayList<>(List.of(
+                            new ArgToken(ArgToken.Type.FLAG, "--flag", new ArrayList<>()),
+                            new ArgToken(ArgToken.Type.NAMED_ARG, "name", new ArrayList<>(List.of(new BigInteger("2"))))))),
+                    Arguments.of("Named Arguments of Different Lengths", "a=1 longer_name=\"value\"", new ArrayList<>(List.of(
+                            new ArgToken(ArgToken.Type.NAMED_ARG, "a", new ArrayList<>(List.of(new BigInteger("1")))),
+                            new ArgToken(ArgToken.Type.NAMED_ARG, "longer_name", new ArrayList<>(List.of("value")))))),
                     Arguments.of("Invalid Named Argument", "--=value", null),
                     Arguments.of("Invalid Named Argument, Starting with a number", "1name=\"value", null),
                     Arguments.of("Named Argument with Array Value", "--name3=[1 2 3 4]", new ArrayList<>(List.of(
                             new ArgToken(ArgToken.Type.NAMED_ARG, "--name3", new ArrayList<>(List.of(new BigInteger("1"), new BigInteger("2"), new BigInteger("3"), new BigInteger("4")))))))
             );
         }
+
+        @Test
+        public void testTokensReadOnly() throws ArgParseException {
+            var tokens = new Lexer("--flag name=2").lex();
+            Assertions.assertEquals(0, tokens.position(0));
+            Assertions.assertEquals(7, tokens.position(1));
+            var token = new ArgToken(ArgToken.Type.FLAG, "--other", new ArrayList<>());
+            Assertions.assertThrows(UnsupportedOperationException.class, () -> tokens.add(token));
+            Assertions.assertThrows(UnsupportedOperationException.class, () -> tokens.add(0, token));
+            Assertions.assertThrows(UnsupportedOperationException.class, () -> tokens.set(0, token));
+            Assertions.assertThrows(UnsupportedOperationException.class, () -> tokens.remove(0));
+            Assertions.assertThrows(UnsupportedOperationException.class, () -> tokens.removeIf(t -> true));
+            Assertions.assertThrows(UnsupportedOperationException.class, () -> tokens.subList(0, 1).clear());
+            Assertions.assertEquals(2, tokens.size());
+        }
     }
 
     private static void test(String command, ArrayList<ArgToken> expected )  {
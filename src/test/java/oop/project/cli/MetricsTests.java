@@ -0,0 +1,101 @@
+package oop.project.cli;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import oop.project.cli.argparser.*;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.List;
+
+public class MetricsTests {
+
+    private static ArgumentParser port() {
+        ArgumentParser parser = new ArgumentParser("port", "opens a port");
+        parser.setHelpOnError(false);
+        parser.addArgument(new ArgumentBuilder<>(Integer.class, "port", "--port")
+                .setPositional(false)
+                .setRequired(true)
+                .setNArgs("1")
+                .setRange(new ContinuousRange<>(1, 65535))
+                .build());
+        return parser;
+    }
+
+    @Test
+    public void testMetricsDisabledByDefault() throws ArgParseException {
+        var parser = port();
+        parser.compile().parse("--port=1");
+        Assertions.assertNull(parser.compile().getMetrics());
+    }
+
+    @Test
+    public void testMetrics() throws ArgParseException {
+        var parser = port();
+        var registry = new MetricsRegistry();
+        parser.setMetrics(registry);
+
+        parser.parse("--port=80");
+        parser.compile().parse("--port=443 -h");
+        Assertions.assertThrows(ArgParseException.class, () -> parser.compile().parse("--port=0"));
+        Assertions.assertThrows(ArgParseException.class, () -> parser.compile().parse("--port=\"x"));
+        Assertions.assertInstanceOf(ParseOutcome.Failure.class, parser.tryParse("--size=1"));
+        parser.compile().parseAll(List.of("--port=1", "--port=2"));
+
+        var metrics = registry.getParsers().get("port");
+        Assertions.assertSame(metrics, parser.compile().getMetrics());
+        Assertions.assertEquals(7, metrics.getParses());
+        Assertions.assertEquals(3, metrics.getFailures());
+        Assertions.assertEquals(1, metrics.getFailures(ParseError.Code.OUT_OF_RANGE));
+        Assertions.assertEquals(1, metrics.getFailures(ParseError.Code.SYNTAX));
+        Assertions.assertEquals(1, metrics.getFailures(ParseError.Code.UNKNOWN_ARGUMENT));
+        Assertions.assertEquals(0, metrics.getFailures(ParseError.Code.ARITY));
+        Assertions.assertEquals(1 + 2 + 1 + 0 + 1 + 2, metrics.getTokens());
+
+        var latency = metrics.getLatency();
+        Assertions.assertEquals(7, latency.count());
+        Assertions.assertTrue(latency.percentile(0.5) <= latency.percentile(1));
+        Assertions.assertTrue(latency.percentile(1) > 0);
+    }
+
+    @Test
+    public void testFlightRecorderEvents(@TempDir Path dir) throws Exception {
+        var parser = port();
+        var file = dir.resolve("parse.jfr");
+        try (var recording = new Recording()) {
+            for (var event : List.of("oop.project.cli.Lex", "oop.project.cli.Validate", "oop.project.cli.Help")) {
+                recording.enable(event).withThreshold(java.time.Duration.ZERO);
+            }
+            recording.start();
+            parser.parse("--port=80 -h");
+            Assertions.assertThrows(ArgParseException.class, () -> parser.compile().parse("--port=0"));
+            parser.getHelp();
+            parser.getHelp();
+            recording.stop();
+            recording.dump(file);
+        }
+
+        var events = RecordingFile.readAllEvents(file);
+        var lex = named(events, "oop.project.cli.Lex");
+        Assertions.assertEquals(2, lex.size());
+        Assertions.assertEquals("port", lex.getFirst().getString("parser"));
+        Assertions.assertEquals(12, lex.getFirst().getInt("inputLength"));
+        Assertions.assertEquals(2, lex.getFirst().getInt("tokenCount"));
+        Assertions.assertEquals("SUCCESS", lex.getFirst().getString("outcome"));
+
+        var validate = named(events, "oop.project.cli.Validate");
+        Assertions.assertEquals(List.of("SUCCESS", "OUT_OF_RANGE"), validate.stream().map(e -> e.getString("outcome")).toList());
+        Assertions.assertEquals(List.of("RENDERED", "CACHED"),
+                named(events, "oop.project.cli.Help").stream().map(e -> e.getString("outcome")).toList());
+    }
+
+    private static List<RecordedEvent> named(List<RecordedEvent> events, String name) {
+        return events.stream()
+                .filter(e -> e.getEventType().getName().equals(name))
+                .sorted((a, b) -> a.getStartTime().compareTo(b.getStartTime()))
+                .toList();
+    }
+}
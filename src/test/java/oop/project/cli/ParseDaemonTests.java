@@ -0,0 +1,82 @@
+package oop.project.cli;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executors;
+
+public class ParseDaemonTests {
+
+    @Test
+    public void testRoundTrip(@TempDir Path dir) throws Exception {
+        var socket = dir.resolve("parse.sock");
+        try (var daemon = new ParseDaemon(socket)) {
+            Thread.ofVirtual().start(() -> {
+                try { daemon.serve(); } catch (Exception e) { throw new RuntimeException(e); }
+            });
+            try (var client = new ParseClient(socket)) {
+                Assertions.assertEquals("OK " + Scenarios.parse("string \"hi\""), client.send("string \"hi\""));
+                Assertions.assertEquals("OK " + Scenarios.parse("string \"a\\nb\""), client.send("string \"a\\nb\""));
+                Assertions.assertTrue(client.send("ints hi").startsWith("ERR ArgParseException: "));
+                Assertions.assertEquals("ERR IllegalArgumentException: Unknown command.", client.send("nope"));
+            }
+
+            var clients = new ArrayList<Callable<String>>();
+            for (int i = 0; i < 100; i++) {
+                final int n = i;
+                clients.add(() -> {
+                    try (var client = new ParseClient(socket)) { return client.send("ints " + n); }
+                });
+            }
+            try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+                var answers = executor.invokeAll(clients);
+                for (int i = 0; i < answers.size(); i++) {
+                    Assertions.assertEquals("OK {positional=[" + i + "]}", answers.get(i).get());
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testCloseWithIdleClient(@TempDir Path dir) throws Exception {
+        var socket = dir.resolve("parse.sock");
+        var daemon = new ParseDaemon(socket);
+        var serving = Thread.ofVirtual().start(() -> {
+            try { daemon.serve(); } catch (Exception e) { throw new RuntimeException(e); }
+        });
+        try (var client = new ParseClient(socket)) {
+            Assertions.assertEquals("OK {positional=[1]}", client.send("ints 1"));
+            // The client stays connected, and its handler blocked reading it, while the daemon closes
+            Assertions.assertTimeoutPreemptively(Duration.ofSeconds(10), () -> {
+                daemon.close();
+                serving.join();
+            });
+            Assertions.assertThrows(IOException.class, () -> client.send("ints 2"));
+        }
+        Assertions.assertFalse(Files.exists(socket));
+        daemon.close();  // does nothing
+    }
+
+    @Test
+    public void testLongRequestRejected(@TempDir Path dir) throws Exception {
+        var socket = dir.resolve("parse.sock");
+        try (var daemon = new ParseDaemon(socket)) {
+            Thread.ofVirtual().start(() -> {
+                try { daemon.serve(); } catch (Exception e) { throw new RuntimeException(e); }
+            });
+            try (var client = new ParseClient(socket)) {
+                var answer = client.send("string \"" + "x".repeat(ParseDaemon.MAX_REQUEST_BYTES) + "\"");
+                Assertions.assertEquals("ERR Line longer than " + ParseDaemon.MAX_REQUEST_BYTES + " bytes.", answer);
+                // The connection is still good for the next request
+                Assertions.assertEquals("OK {positional=[2]}", client.send("ints 2"));
+            }
+        }
+    }
+}
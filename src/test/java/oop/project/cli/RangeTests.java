@@ -0,0 +1,119 @@
+package oop.project.cli;
+
+import oop.project.cli.argparser.*;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.math.BigInteger;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+public class RangeTests {
+
+    @ParameterizedTest
+    @MethodSource
+    public void testIntervalRange(String name, int value, boolean expected) {
+        var ports = IntervalRange.of(8000, 9000).union(1, 1023).union(1000, 1100).union(9001, 9010);
+        Assertions.assertEquals(expected, ports.isInRange(value));
+        Assertions.assertEquals("Interval Range: [1,1100] U [8000,9010]", ports.toString());
+    }
+
+    public static Stream<Arguments> testIntervalRange() {
+        return Stream.of(
+                Arguments.of("Below all", 0, false),
+                Arguments.of("Lower bound", 1, true),
+                Arguments.of("Merged overlap", 1050, true),
+                Arguments.of("Merged upper bound", 1100, true),
+                Arguments.of("Gap", 1101, false),
+                Arguments.of("Second interval", 8500, true),
+                Arguments.of("Adjacent interval", 9005, true),
+                Arguments.of("Above all", 9011, false)
+        );
+    }
+
+    @Test
+    public void testAdjacentIntervalsMerged() {
+        Assertions.assertEquals("Interval Range: [1,9]", IntervalRange.of(6, 9).union(1, 5).toString());
+        Assertions.assertEquals("Interval Range: [1,9]", IntervalRange.of(1L, 5L).union(6L, 9L).toString());
+        Assertions.assertEquals("Interval Range: [1,9]", IntervalRange.of(BigInteger.ONE, BigInteger.valueOf(5)).union(BigInteger.valueOf(6), BigInteger.valueOf(9)).toString());
+        Assertions.assertEquals("Interval Range: [1,5] U [7,9]", IntervalRange.of(1, 5).union(7, 9).toString());
+        Assertions.assertEquals("Interval Range: [1.0,5.0] U [6.0,9.0]", IntervalRange.of(1.0, 5.0).union(6.0, 9.0).toString());
+    }
+
+    @Test
+    public void testDiscreteValues() {
+        var levels = new DiscreteValues<>(IntStream.range(0, 500).mapToObj(i -> "level" + i).toArray(String[]::new));
+        Assertions.assertTrue(levels.isInRange("level0"));
+        Assertions.assertTrue(levels.isInRange("level499"));
+        Assertions.assertFalse(levels.isInRange("level500"));
+    }
+
+    @Test
+    public void testEmptyDiscreteValues() {
+        ArgumentParser schema = new ArgumentParser("empty", "empty range");
+        schema.addArgument(new ArgumentBuilder<>(Integer.class, "n", "--n")
+                .setPositional(false)
+                .setRequired(false)
+                .setNArgs("1")
+                .setRange(new DiscreteValues<Integer>())
+                .build());
+        schema.addArgument(new ArgumentBuilder<>(Long.class, "ids", "--ids")
+                .setPositional(false)
+                .setRequired(false)
+                .setNArgs("*")
+                .setRange(new DiscreteValues<Long>())
+                .build());
+        var parser = schema.compile();
+
+        var e = Assertions.assertThrows(ArgParseException.class, () -> parser.parse("--n=5"));
+        Assertions.assertEquals(ParseError.Code.OUT_OF_RANGE, e.getError().code());
+        Assertions.assertThrows(ArgParseException.class, () -> parser.parse("--ids=[1 2]"));
+        var failure = Assertions.assertInstanceOf(ParseOutcome.Failure.class, parser.tryParse("--n=5"));
+        Assertions.assertEquals(ParseError.Code.OUT_OF_RANGE, failure.errors().getFirst().code());
+    }
+
+    @Test
+    public void testPrimitiveListRanges() throws ArgParseException {
+        ArgumentParser schema = new ArgumentParser("ranges", "range checked lists");
+        schema.addArgument(new ArgumentBuilder<>(Integer.class, "ports", "--ports")
+                .setPositional(false)
+                .setRequired(false)
+                .setNArgs("*")
+                .setRange(IntervalRange.of(1, 1023).union(8000, 9000))
+                .build());
+        schema.addArgument(new ArgumentBuilder<>(Double.class, "ratios", "--ratios")
+                .setPositional(false)
+                .setRequired(false)
+                .setNArgs("*")
+                .setRange(new ContinuousRange<>(0.0, 1.0))
+                .build());
+        schema.addArgument(new ArgumentBuilder<>(BigInteger.class, "ids", "--ids")
+                .setPositional(false)
+                .setRequired(false)
+                .setNArgs("*")
+                .setRange(IntervalRange.of(BigInteger.ONE, BigInteger.TEN))
+                .build());
+        schema.addArgument(new ArgumentBuilder<>(Double.class, "scales", "--scales")
+                .setPositional(false)
+                .setRequired(false)
+                .setNArgs("*")
+                .setRange(new DiscreteValues<>(0.5, 1.0, 2.0))
+                .build());
+        var parser = schema.compile();
+
+        var result = parser.parse("--ports=[22 80 8080] --ratios=[0 0.5 1] --ids=[1 10] --scales=[2 0.5]");
+        Assertions.assertArrayEquals(new int[] {22, 80, 8080}, result.getInts("ports"));
+        Assertions.assertArrayEquals(new double[] {0, 0.5, 1}, result.getDoubles("ratios"));
+        Assertions.assertArrayEquals(new double[] {2, 0.5}, result.getDoubles("scales"));
+
+        var e = Assertions.assertThrows(ArgParseException.class, () -> parser.parse("--ports=[22 80 2000 8080]"));
+        Assertions.assertTrue(e.getMessage().contains("2000"), e.getMessage());
+        Assertions.assertThrows(ArgParseException.class, () -> parser.parse("--ratios=[0.5 1.5]"));
+        Assertions.assertThrows(ArgParseException.class, () -> parser.parse("--ids=[11]"));
+        Assertions.assertThrows(ArgParseException.class, () -> parser.parse("--scales=[0.5 1.5]"));
+        Assertions.assertThrows(ArgParseException.class, () -> parser.parse("--scales=[1 3]"));
+    }
+}
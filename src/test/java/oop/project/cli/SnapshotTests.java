@@ -0,0 +1,105 @@
+package oop.project.cli;
+
+import oop.project.cli.argparser.*;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Date;
+import java.util.List;
+
+public class SnapshotTests {
+
+    private static ArgumentParser schema() {
+        ArgumentParser parser = new ArgumentParser("tool", "does things");
+        parser.addArgument(new ArgumentBuilder<>(String.class, "mode", "-m", "--mode")
+                .setPositional(false)
+                .setRequired(true)
+                .setNArgs("1")
+                .setHelpMessage("How to run")
+                .setRange(new DiscreteValues<>("fast", "safe"))
+                .build());
+        parser.addArgument(new ArgumentBuilder<>(Integer.class, "port", "--port")
+                .setPositional(false)
+                .setRequired(false)
+                .setNArgs("?")
+                .setRange(IntervalRange.of(1, 1023).union(8000, 8999))
+                .build());
+        parser.addArgument(new ArgumentBuilder<>(BigDecimal.class, "ratio", "ratio")
+                .setPositional(false)
+                .setRequired(false)
+                .setNArgs("1")
+                .setRange(new ContinuousRange<>(BigDecimal.ZERO, BigDecimal.ONE))
+                .build());
+        parser.addArgument(new ArgumentBuilder<>(Date.class, "since", "--since")
+                .setPositional(false)
+                .setRequired(false)
+                .setNArgs("?")
+                .setRange(new DiscreteValues<>(new Date(0)))
+                .build());
+        parser.addArgument(new ArgumentBuilder<>(BigInteger.class, "ids")
+                .setPositional(true)
+                .setRequired(false)
+                .setNArgs("*")
+                .setHelpName("ID")
+                .build());
+        parser.addSubcommand("sync", "synchronizes", child ->
+                child.addArgument(new ArgumentBuilder<>(Long.class, "depth", "--depth")
+                        .setPositional(false)
+                        .setRequired(false)
+                        .setNArgs("1")
+                        .setRange(new ContinuousRange<>(0L, 10L))
+                        .build()));
+        return parser;
+    }
+
+    private static ArgumentParser roundTrip(ArgumentParser parser) throws IOException {
+        var out = new ByteArrayOutputStream();
+        parser.writeSnapshot(out);
+        return ArgumentParser.readSnapshot(new ByteArrayInputStream(out.toByteArray()));
+    }
+
+    @Test
+    public void testRoundTrip() throws Exception {
+        var original = schema();
+        var loaded = roundTrip(original);
+        Assertions.assertEquals(original.getHelp(), loaded.getHelp());
+        Assertions.assertEquals(original.getSubcommands(), loaded.getSubcommands());
+        Assertions.assertEquals(original.getArgument("port").toString(), loaded.getArgument("port").toString());
+
+        var input = "--mode=\"safe\" --port=8080 ratio=0.5 [1 2 3]";
+        Assertions.assertEquals(original.compile().parse(input).toMap(), loaded.compile().parse(input).toMap());
+        for (var bad : List.of("--mode=\"slow\"", "--mode=\"fast\" --port=2000", "--mode=\"fast\" ratio=1.5")) {
+            Assertions.assertThrows(ArgParseException.class, () -> loaded.compile().parse(bad), bad);
+        }
+        Assertions.assertEquals(List.of(7L), loaded.compile().parse("sync --depth=7").getValue("depth"));
+        Assertions.assertThrows(ArgParseException.class, () -> loaded.compile().parse("sync --depth=11"));
+    }
+
+    @Test
+    public void testRejectedSnapshots() {
+        Assertions.assertThrows(IOException.class, () -> ArgumentParser.readSnapshot(new ByteArrayInputStream(new byte[] {1, 2, 3, 4, 0, 1})));
+
+        ArgumentParser custom = new ArgumentParser("custom", "custom range");
+        custom.addArgument(new ArgumentBuilder<>(String.class, "word", "--word")
+                .setPositional(false)
+                .setRequired(false)
+                .setNArgs("1")
+                .setRange(value -> value.startsWith("a"))
+                .build());
+        Assertions.assertThrows(ArgumentException.class, () -> custom.writeSnapshot(new ByteArrayOutputStream()));
+    }
+
+    @Test
+    public void testBuilderChecks() {
+        Assertions.assertThrows(ArgumentBuilderException.class, () -> new ArgumentBuilder<>(String.class, "1st"));
+        Assertions.assertThrows(ArgumentBuilderException.class, () -> new ArgumentBuilder<>(String.class, "ok", "--a b"));
+        Assertions.assertThrows(ArgumentBuilderException.class, () -> new ArgumentBuilder<>(String.class, "ok").setNArgs("2x"));
+        Assertions.assertThrows(ArgumentBuilderException.class, () -> new ArgumentBuilder<>(String.class, "ok").setNArgs(""));
+        Assertions.assertEquals(" 3 ", new ArgumentBuilder<>(String.class, "_ok-1", "-x").setNArgs(" 3 ").build().nArgs);
+    }
+}
@@ -0,0 +1,84 @@
+package oop.project.cli;
+
+import oop.project.cli.argparser.*;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigInteger;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class SubcommandTests {
+
+    private static ArgumentParser git(AtomicInteger built) {
+        ArgumentParser parser = new ArgumentParser("git", "version control");
+        parser.addSubcommand("commit", "record changes", child -> {
+            built.incrementAndGet();
+            child.addArgument(new ArgumentBuilder<>(String.class, "message", "-m", "--message")
+                    .setPositional(false)
+                    .setRequired(true)
+                    .setNArgs("1")
+                    .build());
+        });
+        parser.addSubcommand("co", "alias", child -> built.incrementAndGet());
+        parser.addSubcommand("remote", () -> {
+            built.incrementAndGet();
+            ArgumentParser remote = new ArgumentParser("remote", "manage remotes");
+            remote.addSubcommand("prune", "prune remotes", child ->
+                    child.addArgument(new ArgumentBuilder<>(BigInteger.class, "depth", "--depth")
+                            .setPositional(false)
+                            .setRequired(false)
+                            .setNArgs("1")
+                            .build()));
+            return remote;
+        });
+        for (int i = 0; i < 1000; i++) {
+            parser.addSubcommand("unused" + i, () -> { throw new AssertionError("never dispatched"); });
+        }
+        return parser;
+    }
+
+    @Test
+    public void testDispatch() throws ArgParseException {
+        var built = new AtomicInteger();
+        var parser = git(built).compile();
+        Assertions.assertEquals(0, built.get());
+
+        var commit = parser.parse("commit --message=\"fix\"");
+        Assertions.assertEquals("commit", commit.getProgramName());
+        Assertions.assertEquals(List.of("fix"), commit.getValue("message"));
+        Assertions.assertEquals(1, built.get());
+
+        Assertions.assertEquals("co", parser.parse("co").getProgramName());
+        var prune = parser.parse("remote prune --depth=3");
+        Assertions.assertEquals("prune", prune.getProgramName());
+        Assertions.assertEquals(List.of(BigInteger.valueOf(3)), prune.getValue("depth"));
+
+        parser.parse("commit --message=\"again\"");
+        Assertions.assertEquals(3, built.get());
+    }
+
+    @Test
+    public void testUnknownSubcommand() {
+        var parser = git(new AtomicInteger());
+        Assertions.assertThrows(ArgParseException.class, () -> parser.compile().parse("comm --message=\"x\""));
+        Assertions.assertThrows(ArgParseException.class, () -> parser.compile().parse("commit"));
+        Assertions.assertThrows(ArgumentException.class, () -> parser.addSubcommand("commit", () -> null));
+        Assertions.assertThrows(ArgumentException.class, () -> parser.addSubcommand("two words", () -> null));
+    }
+
+    @Test
+    public void testArgumentParserDispatch() throws ArgParseException {
+        var parser = git(new AtomicInteger());
+        ArgumentParser tag = new ArgumentParser("tag", "tag a commit");
+        tag.addArgument(new ArgumentBuilder<>(String.class, "name")
+                .setPositional(true)
+                .setRequired(true)
+                .setNArgs("1")
+                .build());
+        parser.addSubcommand("tag", () -> tag);
+
+        parser.parse("tag \"v1\"");
+        Assertions.assertEquals(List.of("v1"), tag.getArgument("name").getValue());
+    }
+}